@@ -0,0 +1,85 @@
+package com.mercadolibre.bootcamp.projeto_integrador.benchmark;
+
+import com.mercadolibre.bootcamp.projeto_integrador.dto.BatchRequestDto;
+import com.mercadolibre.bootcamp.projeto_integrador.mapper.BatchMapper;
+import com.mercadolibre.bootcamp.projeto_integrador.model.Batch;
+import com.mercadolibre.bootcamp.projeto_integrador.model.InboundOrder;
+import com.mercadolibre.bootcamp.projeto_integrador.model.Product;
+import com.mercadolibre.bootcamp.projeto_integrador.service.BatchService;
+import org.modelmapper.Converter;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara a conversão de uma ordem de entrada com 10 mil lotes usando um ModelMapper configurado a cada lote
+ * (caminho antigo), o BatchMapper e o BatchService.mapDtoToBatch, que também busca o produto no mapa.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BatchMappingBenchmark {
+    @Param({"10000"})
+    private int batches;
+
+    private List<BatchRequestDto> dtos;
+    private Map<Long, Product> products;
+    private InboundOrder order;
+
+    @Setup
+    public void setup() {
+        products = BenchmarkData.products(BenchmarkData.PRODUCTS);
+        order = new InboundOrder();
+        dtos = BenchmarkData.batchRequests(batches, BenchmarkData.PRODUCTS);
+    }
+
+    @Benchmark
+    public List<Batch> modelMapperPerBatch() {
+        List<Batch> result = new ArrayList<>(dtos.size());
+        for (BatchRequestDto dto : dtos) {
+            ModelMapper modelMapper = new ModelMapper();
+            modelMapper.typeMap(BatchRequestDto.class, Batch.class).addMappings(mapper -> {
+                Converter<Long, Product> converter = context -> products.get(context.getSource());
+                mapper.using(converter).map(BatchRequestDto::getProductId, Batch::setProduct);
+            });
+            Batch batch = modelMapper.map(dto, Batch.class);
+            batch.setInboundOrder(order);
+            result.add(batch);
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<Batch> batchMapper() {
+        List<Batch> result = new ArrayList<>(dtos.size());
+        for (BatchRequestDto dto : dtos)
+            result.add(BatchMapper.toBatch(dto, order, products.get(dto.getProductId())));
+        return result;
+    }
+
+    @Benchmark
+    public List<Batch> mapDtoToBatch() {
+        List<Batch> result = new ArrayList<>(dtos.size());
+        for (BatchRequestDto dto : dtos)
+            result.add(BatchService.mapDtoToBatch(dto, order, products));
+        return result;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(BatchMappingBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
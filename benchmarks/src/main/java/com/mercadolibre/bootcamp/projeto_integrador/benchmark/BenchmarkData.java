@@ -0,0 +1,105 @@
+package com.mercadolibre.bootcamp.projeto_integrador.benchmark;
+
+import com.mercadolibre.bootcamp.projeto_integrador.dto.BatchBuyerResponseDto;
+import com.mercadolibre.bootcamp.projeto_integrador.dto.BatchRequestDto;
+import com.mercadolibre.bootcamp.projeto_integrador.model.*;
+import com.mercadolibre.bootcamp.projeto_integrador.util.BatchGenerator;
+import com.mercadolibre.bootcamp.projeto_integrador.util.InboundOrderGenerator;
+import com.mercadolibre.bootcamp.projeto_integrador.util.ProductsGenerator;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * Massa de dados dos benchmarks, montada a partir dos geradores usados nos testes e repetida até os tamanhos
+ * informados. A semente é fixa, para que execuções de versões diferentes meçam os mesmos dados.
+ */
+final class BenchmarkData {
+    /**
+     * Produtos distintos referenciados pelos lotes.
+     */
+    static final int PRODUCTS = 50;
+
+    private static final List<Supplier<Product>> PRODUCT_TEMPLATES = List.of(
+            ProductsGenerator::newProductFresh,
+            ProductsGenerator::newProductChilled,
+            ProductsGenerator::newProductFrozen);
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * @return produtos com ids de 1 a count, alternando as categorias.
+     */
+    static Map<Long, Product> products(int count) {
+        Map<Long, Product> products = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            Product product = PRODUCT_TEMPLATES.get(i % PRODUCT_TEMPLATES.size()).get();
+            product.setProductId(i + 1);
+            product.setProductName(product.getProductName() + " " + (i + 1));
+            products.put(product.getProductId(), product);
+        }
+        return products;
+    }
+
+    /**
+     * @return lotes de uma ordem de entrada, distribuídos entre os produtos e com validades entre 21 e 90 dias.
+     */
+    static List<BatchRequestDto> batchRequests(int count, int productCount) {
+        Random random = new Random(42);
+        List<BatchRequestDto> batchRequests = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            BatchRequestDto batchRequest = BatchGenerator.newBatchRequestDTO();
+            batchRequest.setProductId(i % productCount + 1);
+            batchRequest.setInitialQuantity(1 + random.nextInt(100));
+            batchRequest.setDueDate(LocalDate.now().plusDays(21 + random.nextInt(70)));
+            batchRequests.add(batchRequest);
+        }
+        return batchRequests;
+    }
+
+    /**
+     * @return lotes já gravados, com número, produto, ordem de entrada e seção preenchidos.
+     */
+    static List<Batch> batches(int count, Map<Long, Product> products) {
+        Random random = new Random(42);
+        InboundOrder order = InboundOrderGenerator.newFreshInboundOrder();
+        List<Batch> batches = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Batch batch = BatchGenerator.newBatch(LocalDate.now().plusDays(21 + random.nextInt(70)),
+                    products.get((long) (i % products.size() + 1)), order);
+            batch.setBatchNumber(i + 1);
+            batch.setCurrentQuantity(1 + random.nextInt(batch.getInitialQuantity()));
+            batches.add(batch);
+        }
+        return batches;
+    }
+
+    /**
+     * @return itens de um carrinho, um por lote, com quantidades e preços variados.
+     */
+    static List<BatchPurchaseOrder> cartItems(List<Batch> batches) {
+        Random random = new Random(42);
+        List<BatchPurchaseOrder> items = new ArrayList<>(batches.size());
+        for (Batch batch : batches) {
+            BatchPurchaseOrder item = new BatchPurchaseOrder();
+            item.setBatch(batch);
+            item.setQuantity(1 + random.nextInt(5));
+            item.setUnitPrice(batch.getProductPrice().add(BigDecimal.valueOf(random.nextInt(1000), 2)));
+            items.add(item);
+        }
+        return items;
+    }
+
+    /**
+     * @return lotes do catálogo, no formato guardado pelo índice de estoque vendável.
+     */
+    static List<BatchBuyerResponseDto> catalog(List<Batch> batches) {
+        List<BatchBuyerResponseDto> catalog = new ArrayList<>(batches.size());
+        for (Batch batch : batches)
+            catalog.add(new BatchBuyerResponseDto(batch));
+        return catalog;
+    }
+}
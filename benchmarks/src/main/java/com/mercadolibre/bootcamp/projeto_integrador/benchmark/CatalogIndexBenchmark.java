@@ -0,0 +1,51 @@
+package com.mercadolibre.bootcamp.projeto_integrador.benchmark;
+
+import com.mercadolibre.bootcamp.projeto_integrador.dto.BatchBuyerResponseDto;
+import com.mercadolibre.bootcamp.projeto_integrador.model.Section;
+import com.mercadolibre.bootcamp.projeto_integrador.service.SellableStockIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Leitura do catálogo ordenado por validade e número do lote a partir do SellableStockIndex, que substituiu a
+ * ordenação dos lotes em memória a cada requisição, e a atualização do índice após uma alteração de estoque.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CatalogIndexBenchmark {
+    @Param({"1000", "100000"})
+    private int batches;
+
+    private SellableStockIndex stockIndex;
+    private List<BatchBuyerResponseDto> changedBatch;
+
+    @Setup
+    public void setup() {
+        List<BatchBuyerResponseDto> catalog = BenchmarkData.catalog(
+                BenchmarkData.batches(batches, BenchmarkData.products(BenchmarkData.PRODUCTS)));
+        stockIndex = new SellableStockIndex();
+        stockIndex.update(catalog);
+        changedBatch = List.of(catalog.get(catalog.size() / 2));
+    }
+
+    @Benchmark
+    public List<BatchBuyerResponseDto> findAll() {
+        return stockIndex.findAll();
+    }
+
+    @Benchmark
+    public List<BatchBuyerResponseDto> findByCategory() {
+        return stockIndex.findByCategory(Section.Category.FRESH);
+    }
+
+    @Benchmark
+    public void update() {
+        stockIndex.update(changedBatch);
+    }
+}
@@ -0,0 +1,52 @@
+package com.mercadolibre.bootcamp.projeto_integrador.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.mercadolibre.bootcamp.projeto_integrador.dto.BatchBuyerPageResponseDto;
+import com.mercadolibre.bootcamp.projeto_integrador.dto.BatchBuyerResponseDto;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialização em JSON das respostas do catálogo, com um ObjectMapper configurado como o da aplicação (datas no
+ * formato ISO). Mede o trabalho que o cache de respostas evita a cada requisição repetida.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CatalogSerializationBenchmark {
+    @Param({"100", "1000", "10000"})
+    private int batches;
+
+    private ObjectMapper objectMapper;
+    private List<BatchBuyerResponseDto> catalog;
+    private BatchBuyerPageResponseDto page;
+
+    @Setup
+    public void setup() {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        catalog = BenchmarkData.catalog(
+                BenchmarkData.batches(batches, BenchmarkData.products(BenchmarkData.PRODUCTS)));
+        BatchBuyerResponseDto last = catalog.get(catalog.size() - 1);
+        page = new BatchBuyerPageResponseDto(catalog, last.getDueDate(), last.getBatchNumber());
+    }
+
+    @Benchmark
+    public byte[] catalogList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(catalog);
+    }
+
+    @Benchmark
+    public byte[] catalogPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+}
@@ -0,0 +1,46 @@
+package com.mercadolibre.bootcamp.projeto_integrador.benchmark;
+
+import com.mercadolibre.bootcamp.projeto_integrador.model.BatchPurchaseOrder;
+import com.mercadolibre.bootcamp.projeto_integrador.service.PurchaseOrderService;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Soma do valor total de um carrinho pelo PurchaseOrderService.sumTotalPrice. O método é privado, então é chamado por
+ * um MethodHandle obtido uma vez no setup, cujo custo por chamada é desprezível perto da soma em BigDecimal.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PurchaseOrderTotalBenchmark {
+    @Param({"1", "10", "100"})
+    private int items;
+
+    private PurchaseOrderService service;
+    private MethodHandle sumTotalPrice;
+    private List<BatchPurchaseOrder> cartItems;
+
+    @Setup
+    public void setup() throws ReflectiveOperationException {
+        service = new PurchaseOrderService();
+        sumTotalPrice = MethodHandles.privateLookupIn(PurchaseOrderService.class, MethodHandles.lookup())
+                .findVirtual(PurchaseOrderService.class, "sumTotalPrice",
+                        MethodType.methodType(BigDecimal.class, List.class));
+        cartItems = BenchmarkData.cartItems(
+                BenchmarkData.batches(items, BenchmarkData.products(BenchmarkData.PRODUCTS)));
+    }
+
+    @Benchmark
+    public BigDecimal sumTotalPrice() throws Throwable {
+        return (BigDecimal) sumTotalPrice.invokeExact(service, cartItems);
+    }
+}
@@ -0,0 +1,59 @@
+package com.mercadolibre.bootcamp.projeto_integrador.benchmark;
+
+import com.mercadolibre.bootcamp.projeto_integrador.dto.BatchBuyerResponseDto;
+import com.mercadolibre.bootcamp.projeto_integrador.dto.BatchDueDateResponseDto;
+import com.mercadolibre.bootcamp.projeto_integrador.model.Batch;
+import com.mercadolibre.bootcamp.projeto_integrador.model.BatchPurchaseOrder;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Montagem dos DTOs de resposta a partir das entidades, para uma página do catálogo ou do relatório de validade
+ * (1000 lotes) e para um carrinho (100 itens).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResponseDtoBenchmark {
+    @Param({"100", "1000"})
+    private int batches;
+
+    private List<Batch> batchList;
+    private List<BatchPurchaseOrder> cartItems;
+
+    @Setup
+    public void setup() {
+        batchList = BenchmarkData.batches(batches, BenchmarkData.products(BenchmarkData.PRODUCTS));
+        cartItems = BenchmarkData.cartItems(batchList);
+    }
+
+    @Benchmark
+    public List<BatchBuyerResponseDto> batchBuyerFromBatch() {
+        List<BatchBuyerResponseDto> result = new ArrayList<>(batchList.size());
+        for (Batch batch : batchList)
+            result.add(new BatchBuyerResponseDto(batch));
+        return result;
+    }
+
+    @Benchmark
+    public List<BatchBuyerResponseDto> batchBuyerFromCartItem() {
+        List<BatchBuyerResponseDto> result = new ArrayList<>(cartItems.size());
+        for (BatchPurchaseOrder item : cartItems)
+            result.add(new BatchBuyerResponseDto(item));
+        return result;
+    }
+
+    @Benchmark
+    public List<BatchDueDateResponseDto> batchDueDateFromBatch() {
+        List<BatchDueDateResponseDto> result = new ArrayList<>(batchList.size());
+        for (Batch batch : batchList)
+            result.add(new BatchDueDateResponseDto(batch));
+        return result;
+    }
+}
@@ -1,15 +1,15 @@
 package com.mercadolibre.bootcamp.projeto_integrador.controller;
 
-import com.mercadolibre.bootcamp.projeto_integrador.dto.BatchDueDateResponseDto;
 import com.mercadolibre.bootcamp.projeto_integrador.service.IBatchService;
+import com.mercadolibre.bootcamp.projeto_integrador.service.IResponseCacheService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
-
-import java.util.List;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/api/v1")
@@ -17,18 +17,41 @@ public class BatchController {
     @Autowired
     private IBatchService batchService;
 
+    @Autowired
+    private IResponseCacheService responseCache;
+
     @GetMapping(value = "/fresh-products/due-date", params = {"sectionCode", "numberOfDays"})
-    public ResponseEntity<List<BatchDueDateResponseDto>> findBatchBySection(long sectionCode,
-                                                                            int numberOfDays,
-                                                                            @RequestHeader("Manager-Id") long managerId) {
-        return ResponseEntity.ok(batchService.findBatchBySection(sectionCode, numberOfDays, managerId));
+    public ResponseEntity<byte[]> findBatchBySection(long sectionCode,
+                                                     int numberOfDays,
+                                                     @RequestHeader("Manager-Id") long managerId,
+                                                     WebRequest request) {
+        String etag = batchService.getDueDateETag(sectionCode, numberOfDays, managerId);
+        if (request.checkNotModified(etag))
+            return null;
+
+        byte[] body = responseCache.getOrSerialize(etag,
+                () -> batchService.findBatchBySection(sectionCode, numberOfDays, managerId));
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
     }
 
     @GetMapping(value = "/fresh-products/due-date", params = {"category", "numberOfDays", "orderDir"})
-    public ResponseEntity<List<BatchDueDateResponseDto>> findBatchByCategory(String category,
-                                                                             int numberOfDays,
-                                                                             String orderDir,
-                                                                             @RequestHeader("Manager-Id") long managerId) {
-        return ResponseEntity.ok(batchService.findBatchByCategoryAndDueDate(category, numberOfDays, orderDir, managerId));
+    public ResponseEntity<byte[]> findBatchByCategory(String category,
+                                                      int numberOfDays,
+                                                      String orderDir,
+                                                      @RequestHeader("Manager-Id") long managerId,
+                                                      WebRequest request) {
+        String etag = batchService.getDueDateETag(category, numberOfDays, orderDir, managerId);
+        if (request.checkNotModified(etag))
+            return null;
+
+        byte[] body = responseCache.getOrSerialize(etag,
+                () -> batchService.findBatchByCategoryAndDueDate(category, numberOfDays, orderDir, managerId));
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
     }
 }
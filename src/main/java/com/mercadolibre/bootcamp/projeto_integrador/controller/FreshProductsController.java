@@ -1,15 +1,25 @@
 package com.mercadolibre.bootcamp.projeto_integrador.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mercadolibre.bootcamp.projeto_integrador.dto.BatchBuyerPageResponseDto;
 import com.mercadolibre.bootcamp.projeto_integrador.dto.BatchBuyerResponseDto;
 import com.mercadolibre.bootcamp.projeto_integrador.service.IBatchService;
+import com.mercadolibre.bootcamp.projeto_integrador.service.IResponseCacheService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
-import java.util.List;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
 
 @RestController
 @RequestMapping("/api/v1/fresh-products")
@@ -17,10 +27,62 @@ public class FreshProductsController {
     @Autowired
     IBatchService batchService;
 
+    @Autowired
+    IResponseCacheService responseCache;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    /**
+     * Retorna o catálogo de lotes disponíveis com uma ETag derivada da versão do estoque. Quando o cliente envia a
+     * mesma ETag em If-None-Match, responde 304 sem consultar o catálogo; caso contrário escreve o JSON já serializado
+     * do cache de respostas, que só serializa os lotes novamente quando o estoque muda.
+     */
     @GetMapping
-    public ResponseEntity<List<BatchBuyerResponseDto>> findBatches(@RequestParam(required = false) String category) {
-        return category != null
-                ? ResponseEntity.ok(batchService.findBatchByCategory(category))
-                : ResponseEntity.ok(batchService.findAll());
+    public ResponseEntity<byte[]> findBatches(@RequestParam(required = false) String category, WebRequest request) {
+        String etag = batchService.getCatalogETag(category);
+        if (request.checkNotModified(etag))
+            return null;
+
+        byte[] body = responseCache.getOrSerialize(etag, () -> category != null
+                ? batchService.findBatchByCategory(category)
+                : batchService.findAll());
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    @GetMapping(params = "size")
+    public ResponseEntity<BatchBuyerPageResponseDto> findBatchesPage(@RequestParam(required = false) String category,
+                                                                     @RequestParam(required = false)
+                                                                     @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+                                                                     LocalDate lastDueDate,
+                                                                     @RequestParam(defaultValue = "0") long lastBatchNumber,
+                                                                     @RequestParam int size) {
+        return ResponseEntity.ok(batchService.findPage(category, lastDueDate, lastBatchNumber, size));
+    }
+
+    /**
+     * Escreve o array JSON de lotes disponíveis à medida que são lidos do banco, sem montar a lista em memória.
+     * Erros de validação acontecem antes do primeiro lote, enquanto o conteúdo ainda está no buffer do gerador.
+     */
+    @GetMapping("/stream")
+    public void streamBatches(@RequestParam(required = false) String category,
+                              HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(response.getOutputStream());
+        generator.writeStartArray();
+        batchService.streamAll(category, batch -> writeBatch(generator, batch));
+        generator.writeEndArray();
+        generator.close();
+    }
+
+    private void writeBatch(JsonGenerator generator, BatchBuyerResponseDto batch) {
+        try {
+            generator.writeObject(batch);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 }
@@ -1,14 +1,19 @@
 package com.mercadolibre.bootcamp.projeto_integrador.controller;
 
+import com.mercadolibre.bootcamp.projeto_integrador.dto.InboundOrderIngestionReportDto;
+import com.mercadolibre.bootcamp.projeto_integrador.dto.InboundOrderJobDto;
 import com.mercadolibre.bootcamp.projeto_integrador.dto.InboundOrderRequestDto;
 import com.mercadolibre.bootcamp.projeto_integrador.dto.InboundOrderResponseDto;
+import com.mercadolibre.bootcamp.projeto_integrador.service.IInboundOrderJobService;
 import com.mercadolibre.bootcamp.projeto_integrador.service.IInboundOrderService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import javax.validation.Valid;
+import java.io.InputStream;
 
 @RestController
 @RequestMapping("/api/v1")
@@ -17,16 +22,38 @@ public class InboundOrderController {
     @Autowired
     private IInboundOrderService service;
 
+    @Autowired
+    private IInboundOrderJobService jobService;
+
     @PostMapping("/fresh-products/inboundorder")
     public ResponseEntity<InboundOrderResponseDto> createInboundOrder(@RequestBody @Valid InboundOrderRequestDto inboundOrder,
                                                                       @RequestHeader("Manager-Id") long managerId) {
         return ResponseEntity.status(HttpStatus.CREATED).body(service.create(inboundOrder, managerId));
     }
 
+    @PostMapping(value = "/fresh-products/inboundorder", params = "async=true")
+    public ResponseEntity<InboundOrderJobDto> createInboundOrderAsync(@RequestBody @Valid InboundOrderRequestDto inboundOrder,
+                                                                      @RequestHeader("Manager-Id") long managerId) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(jobService.submit(inboundOrder, managerId));
+    }
+
+    @GetMapping("/fresh-products/inboundorder/jobs/{jobId}")
+    public ResponseEntity<InboundOrderJobDto> getInboundOrderJob(@PathVariable String jobId,
+                                                                 @RequestHeader("Manager-Id") long managerId) {
+        return ResponseEntity.ok(jobService.findById(jobId, managerId));
+    }
+
     @PutMapping("/fresh-products/inboundorder")
     public ResponseEntity<InboundOrderResponseDto> updateInboundOrder(@RequestParam long orderNumber,
                                                                       @RequestBody @Valid InboundOrderRequestDto inboundOrder,
                                                                       @RequestHeader("Manager-Id") long managerId) {
         return ResponseEntity.ok(service.update(orderNumber, inboundOrder, managerId));
     }
+
+    @PostMapping(value = "/fresh-products/inboundorder/stream", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<InboundOrderIngestionReportDto> ingestInboundOrder(@RequestParam long sectionCode,
+                                                                             @RequestHeader("Manager-Id") long managerId,
+                                                                             InputStream batches) {
+        return ResponseEntity.ok(service.ingest(sectionCode, batches, managerId));
+    }
 }
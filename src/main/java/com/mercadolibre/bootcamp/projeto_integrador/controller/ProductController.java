@@ -1,12 +1,15 @@
 package com.mercadolibre.bootcamp.projeto_integrador.controller;
 
 import com.mercadolibre.bootcamp.projeto_integrador.dto.ProductResponseDto;
+import com.mercadolibre.bootcamp.projeto_integrador.exceptions.BadRequestException;
 import com.mercadolibre.bootcamp.projeto_integrador.dto.ProductDetailsResponseDto;
 import com.mercadolibre.bootcamp.projeto_integrador.service.IProductService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/v1")
 public class ProductController {
@@ -20,10 +23,22 @@ public class ProductController {
         return ResponseEntity.ok(service.getWarehouses(productId, managerId));
     }
 
+    @GetMapping("/fresh-products/warehouses")
+    public ResponseEntity<List<ProductResponseDto>> getWarehouses(@RequestParam List<Long> productIds,
+                                                                  @RequestHeader("Manager-Id") long managerId) {
+        return ResponseEntity.ok(service.getWarehouses(productIds, managerId));
+    }
+
     @GetMapping("/fresh-products/list")
     public ResponseEntity<ProductDetailsResponseDto> getProductDetails(@RequestParam long productId,
                                                                        @RequestParam(required = false) String orderBy,
+                                                                       @RequestParam(defaultValue = "0") int page,
+                                                                       @RequestParam(required = false) Integer size,
                                                                        @RequestHeader("Manager-Id") long managerId) {
-        return ResponseEntity.ok(service.getProductDetails(productId, managerId, orderBy));
+        if (size == null && page == 0)
+            return ResponseEntity.ok(service.getProductDetails(productId, managerId, orderBy));
+        if (size == null)
+            throw new BadRequestException("The page size is required when a page number is given");
+        return ResponseEntity.ok(service.getProductDetails(productId, managerId, orderBy, page, size));
     }
 }
@@ -2,6 +2,8 @@ package com.mercadolibre.bootcamp.projeto_integrador.controller;
 
 import com.mercadolibre.bootcamp.projeto_integrador.dto.BatchBuyerResponseDto;
 import com.mercadolibre.bootcamp.projeto_integrador.dto.BatchPurchaseOrderRequestDto;
+import com.mercadolibre.bootcamp.projeto_integrador.dto.PurchaseOrderBulkRequestDto;
+import com.mercadolibre.bootcamp.projeto_integrador.dto.PurchaseOrderBulkResponseDto;
 import com.mercadolibre.bootcamp.projeto_integrador.dto.PurchaseOrderRequestDto;
 import com.mercadolibre.bootcamp.projeto_integrador.dto.PurchaseOrderResponseDto;
 import com.mercadolibre.bootcamp.projeto_integrador.service.PurchaseOrderService;
@@ -28,6 +30,12 @@ public class PurchaseOrderController {
         return ResponseEntity.status(HttpStatus.CREATED).body(service.create(purchaseOrder, buyerId));
     }
 
+    @PostMapping("/fresh-products/orders/bulk")
+    public ResponseEntity<PurchaseOrderBulkResponseDto> createPurchaseOrderBulk(@RequestHeader("Buyer-Id") long buyerId,
+                                                                                @RequestBody @Valid PurchaseOrderBulkRequestDto purchaseOrder) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(service.createBulk(purchaseOrder, buyerId));
+    }
+
     @PutMapping("/fresh-products/orders")
     public ResponseEntity<PurchaseOrderResponseDto> updatePurchaseOrder(@RequestHeader("Buyer-Id") long buyerId,
                                                           @RequestParam long purchaseOrderId) {
@@ -0,0 +1,31 @@
+package com.mercadolibre.bootcamp.projeto_integrador.controller;
+
+import com.mercadolibre.bootcamp.projeto_integrador.dto.ResponseCacheStatsDto;
+import com.mercadolibre.bootcamp.projeto_integrador.dto.SecondLevelCacheStatsDto;
+import com.mercadolibre.bootcamp.projeto_integrador.service.IResponseCacheService;
+import com.mercadolibre.bootcamp.projeto_integrador.service.ISecondLevelCacheStatsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/v1/stats")
+public class StatsController {
+    @Autowired
+    private IResponseCacheService responseCache;
+
+    @Autowired
+    private ISecondLevelCacheStatsService secondLevelCache;
+
+    @GetMapping("/response-cache")
+    public ResponseEntity<ResponseCacheStatsDto> getResponseCacheStats() {
+        return ResponseEntity.ok(responseCache.getStats());
+    }
+
+    @GetMapping("/second-level-cache")
+    public ResponseEntity<SecondLevelCacheStatsDto> getSecondLevelCacheStats() {
+        return ResponseEntity.ok(secondLevelCache.getStats());
+    }
+}
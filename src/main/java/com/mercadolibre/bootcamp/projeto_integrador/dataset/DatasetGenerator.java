@@ -0,0 +1,513 @@
+package com.mercadolibre.bootcamp.projeto_integrador.dataset;
+
+import com.mercadolibre.bootcamp.projeto_integrador.enums.OrderStatus;
+import com.mercadolibre.bootcamp.projeto_integrador.model.Section;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Popula o banco (H2 ou MySQL) com uma massa sintética para testes de carga e benchmarks, ativado pelo profile
+ * dataset. Os dados são acrescentados aos que já existem: armazéns, representantes, vendedores, compradores,
+ * produtos, seções, ordens de entrada com seus lotes, os totais de estoque por produto e armazém e um histórico de
+ * ordens de compra.
+ * <p>
+ * As linhas são gravadas com INSERTs em batches JDBC de DatasetProperties.chunkSize linhas, cada batch em uma
+ * transação. Os ids das tabelas com sequência são reservados na própria sequência e os das tabelas com IDENTITY são
+ * atribuídos a partir do maior id existente, então a aplicação continua gerando ids válidos depois da carga.
+ * Como o gerador roda antes do ApplicationReadyEvent, os índices em memória já são montados com a massa nova.
+ */
+@Component
+@Profile("dataset")
+public class DatasetGenerator implements ApplicationRunner {
+    private static final Logger logger = LoggerFactory.getLogger(DatasetGenerator.class);
+    private static final int SEQUENCE_ALLOCATION_SIZE = 50;
+    private static final int BRANDS = 200;
+
+    @Autowired
+    private DatasetProperties properties;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Random random;
+    private boolean h2;
+    private LocalDate today;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        generate();
+    }
+
+    public synchronized void generate() {
+        long start = System.currentTimeMillis();
+        random = new Random(properties.getSeed());
+        h2 = "H2".equals(jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName()));
+        today = LocalDate.now();
+
+        long firstWarehouse = insertPeople("warehouse", "warehouse_code", properties.getWarehouses(),
+                "INSERT INTO warehouse (warehouse_code, location) VALUES (?, ?)",
+                (ps, id) -> ps.setString(2, "Armazém " + id));
+        long firstManager = insertPeople("manager", "manager_id", properties.getManagers(),
+                "INSERT INTO manager (manager_id, email, name, username) VALUES (?, ?, ?, ?)",
+                (ps, id) -> setPerson(ps, "manager", id));
+        long firstSeller = insertPeople("seller", "seller_id", properties.getSellers(),
+                "INSERT INTO seller (seller_id, email, name, username) VALUES (?, ?, ?, ?)",
+                (ps, id) -> setPerson(ps, "seller", id));
+        long firstBuyer = insertPeople("buyer", "buyer_id", properties.getBuyers(),
+                "INSERT INTO buyer (buyer_id, username) VALUES (?, ?)",
+                (ps, id) -> ps.setString(2, "buyer" + id));
+
+        Products products = insertProducts(firstSeller);
+        Sections sections = insertSections(firstWarehouse, firstManager, products);
+        Batches batches = insertBatches(sections, products);
+        insertStockTotals(products, batches, firstWarehouse);
+        insertPurchaseOrders(products, batches, firstBuyer);
+
+        logger.info("Dataset generated in {} s", (System.currentTimeMillis() - start) / 1000);
+    }
+
+    private void setPerson(PreparedStatement ps, String role, long id) throws SQLException {
+        ps.setString(2, role + id + "@example.com");
+        ps.setString(3, role.substring(0, 1).toUpperCase() + role.substring(1) + " " + id);
+        ps.setString(4, role + id);
+    }
+
+    /**
+     * Grava linhas que só dependem do próprio id, em uma tabela com IDENTITY.
+     *
+     * @return id da primeira linha gravada
+     */
+    private long insertPeople(String table, String idColumn, int count, String sql, IdRowWriter writer) {
+        long firstId = nextIdentity(table, idColumn);
+        insert(table, sql, count, (ps, row) -> {
+            ps.setLong(1, firstId + row);
+            writer.write(ps, firstId + row);
+        });
+        advanceIdentity(table, idColumn, firstId + count);
+        return firstId;
+    }
+
+    private Products insertProducts(long firstSeller) {
+        int count = properties.getProducts();
+        Products products = new Products(nextIdentity("product", "product_id"), count);
+        for (int product = 0; product < count; product++)
+            products.category[product] = nextCategory();
+        products.indexByCategory(properties.getProductPopularitySkew());
+
+        insert("product", "INSERT INTO product (product_id, brand, category, product_name, seller_id) " +
+                "VALUES (?, ?, ?, ?, ?)", count, (ps, product) -> {
+            Section.Category category = products.category[product];
+            ps.setLong(1, products.firstId + product);
+            ps.setString(2, "Marca " + (product % BRANDS + 1));
+            ps.setString(3, category.name());
+            ps.setString(4, "Produto " + (products.firstId + product) + " " + category.name());
+            ps.setLong(5, firstSeller + random.nextInt(properties.getSellers()));
+        });
+        advanceIdentity("product", "product_id", products.firstId + count);
+        return products;
+    }
+
+    /**
+     * Sorteia a seção de cada ordem de entrada antes de gravar as seções, para que currentBatches já seja gravado com
+     * a quantidade de lotes que a seção vai receber. Só entram no sorteio seções de categorias com produtos.
+     */
+    private Sections insertSections(long firstWarehouse, long firstManager, Products products) {
+        int sectionsPerWarehouse = properties.getSectionsPerWarehouse();
+        int count = properties.getWarehouses() * sectionsPerWarehouse;
+        int batchesPerOrder = properties.getBatchesPerInboundOrder();
+        int orders = (properties.getBatches() + batchesPerOrder - 1) / batchesPerOrder;
+        Sections sections = new Sections(nextIdentity("section", "section_code"), count, orders);
+
+        List<Integer> eligible = new ArrayList<>();
+        for (int section = 0; section < count; section++) {
+            sections.category[section] = nextCategory();
+            if (products.hasCategory(sections.category[section]))
+                eligible.add(section);
+        }
+        if (eligible.isEmpty() && orders > 0)
+            throw new IllegalStateException("No section category has products; increase dataset.products");
+
+        for (int order = 0; order < orders; order++) {
+            int section = eligible.get(random.nextInt(eligible.size()));
+            sections.sectionByOrder[order] = section;
+            sections.batchCount[section] += Math.min(batchesPerOrder, properties.getBatches() - order * batchesPerOrder);
+        }
+
+        insert("section", "INSERT INTO section (section_code, category, current_batches, max_batches, manager_id, " +
+                "warehouse_code) VALUES (?, ?, ?, ?, ?, ?)", count, (ps, section) -> {
+            int batchCount = sections.batchCount[section];
+            ps.setLong(1, sections.firstId + section);
+            ps.setString(2, sections.category[section].name());
+            ps.setInt(3, batchCount);
+            ps.setInt(4, batchCount + Math.max(10, batchCount / 5));
+            ps.setLong(5, firstManager + random.nextInt(properties.getManagers()));
+            ps.setLong(6, firstWarehouse + section / sectionsPerWarehouse);
+        });
+        advanceIdentity("section", "section_code", sections.firstId + count);
+        return sections;
+    }
+
+    private Batches insertBatches(Sections sections, Products products) {
+        int orders = sections.sectionByOrder.length;
+        long firstOrder = reserveIds("inbound_order_sequence", "inbound_order", "order_number", orders);
+        insert("inbound_order", "INSERT INTO inbound_order (order_number, order_date, section_code) VALUES (?, ?, ?)",
+                orders, (ps, order) -> {
+                    ps.setLong(1, firstOrder + order);
+                    ps.setDate(2, Date.valueOf(today.minusDays(random.nextInt(60))));
+                    ps.setLong(3, sections.firstId + sections.sectionByOrder[order]);
+                });
+
+        int count = properties.getBatches();
+        int batchesPerOrder = properties.getBatchesPerInboundOrder();
+        Batches batches = new Batches(reserveIds("batch_sequence", "batch", "batch_number", count), count);
+        insert("batch", "INSERT INTO batch (batch_number, archived, current_quantity, current_temperature, due_date, " +
+                "initial_quantity, manufacturing_date, manufacturing_time, minimum_temperature, product_price, " +
+                "order_number, product_id) VALUES (?, FALSE, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", count, (ps, batch) -> {
+            int order = batch / batchesPerOrder;
+            int section = sections.sectionByOrder[order];
+            Section.Category category = sections.category[section];
+            int product = products.sample(category, random);
+            int initialQuantity = properties.getInitialQuantity().sample(random);
+            int currentQuantity = initialQuantity * properties.getRemainingPercent().sample(random) / 100;
+            LocalDate manufacturingDate = today.minusDays(1 + random.nextInt(30));
+            int priceCents = properties.getProductPriceCents().sample(random);
+
+            batches.product[batch] = product;
+            batches.priceCents[batch] = priceCents;
+            batches.warehouse[batch] = section / properties.getSectionsPerWarehouse();
+            batches.currentQuantity[batch] = currentQuantity;
+
+            ps.setLong(1, batches.firstId + batch);
+            ps.setInt(2, currentQuantity);
+            ps.setFloat(3, currentTemperature(category));
+            ps.setDate(4, Date.valueOf(today.plusDays(properties.getDueDateDays().sample(random))));
+            ps.setInt(5, initialQuantity);
+            ps.setDate(6, Date.valueOf(manufacturingDate));
+            ps.setTimestamp(7, Timestamp.valueOf(manufacturingDate.atTime(random.nextInt(24), random.nextInt(60))));
+            ps.setFloat(8, currentTemperature(category) - 5);
+            ps.setBigDecimal(9, BigDecimal.valueOf(priceCents, 2));
+            ps.setLong(10, firstOrder + order);
+            ps.setLong(11, products.firstId + product);
+        });
+        batches.indexByProduct(products.category.length);
+        return batches;
+    }
+
+    private float currentTemperature(Section.Category category) {
+        switch (category) {
+            case FROZEN:
+                return -18.0f;
+            case CHILLED:
+                return 4.0f;
+            default:
+                return 15.0f;
+        }
+    }
+
+    /**
+     * Grava os totais por produto e armazém a partir dos lotes gerados, como o ProductStockService os manteria.
+     */
+    private void insertStockTotals(Products products, Batches batches, long firstWarehouse) {
+        int warehouses = properties.getWarehouses();
+        long[] totals = new long[products.category.length * warehouses];
+        boolean[] stocked = new boolean[totals.length];
+        for (int batch = 0; batch < batches.product.length; batch++) {
+            int key = batches.product[batch] * warehouses + batches.warehouse[batch];
+            totals[key] += batches.currentQuantity[batch];
+            stocked[key] = true;
+        }
+
+        int[] keys = new int[totals.length];
+        int count = 0;
+        for (int key = 0; key < totals.length; key++) {
+            if (stocked[key])
+                keys[count++] = key;
+        }
+        insert("product_warehouse_stock", "INSERT INTO product_warehouse_stock (product_id, warehouse_code, quantity) " +
+                "VALUES (?, ?, ?)", count, (ps, row) -> {
+            int key = keys[row];
+            ps.setLong(1, products.firstId + key / warehouses);
+            ps.setLong(2, firstWarehouse + key % warehouses);
+            ps.setInt(3, Math.toIntExact(totals[key]));
+        });
+    }
+
+    /**
+     * Gera o histórico de compras. Os produtos dos itens seguem a mesma popularidade dos lotes; as ordens fechadas
+     * ficam reservadas, como após o fechamento, e as abertas são carrinhos ainda sem reserva, então o estoque dos
+     * lotes não precisa ser ajustado.
+     */
+    private void insertPurchaseOrders(Products products, Batches batches, long firstBuyer) {
+        int count = properties.getPurchaseOrders();
+        long firstPurchase = nextIdentity("purchase_order", "purchase_id");
+        int[] itemCount = new int[count];
+        int totalItems = 0;
+        for (int purchase = 0; purchase < count; purchase++) {
+            itemCount[purchase] = properties.getItemsPerPurchaseOrder().sample(random);
+            totalItems += itemCount[purchase];
+        }
+
+        insert("purchase_order", "INSERT INTO purchase_order (purchase_id, date, is_reserved, order_status, " +
+                "update_date_time, buyer_id) VALUES (?, ?, ?, ?, ?, ?)", count, (ps, purchase) -> {
+            LocalDate date = today.minusDays(properties.getPurchaseAgeDays().sample(random));
+            boolean open = random.nextInt(100) < properties.getOpenPurchaseOrderPercent();
+            ps.setLong(1, firstPurchase + purchase);
+            ps.setDate(2, Date.valueOf(date));
+            ps.setBoolean(3, !open);
+            ps.setString(4, (open ? OrderStatus.OPENED : OrderStatus.CLOSED).name());
+            ps.setTimestamp(5, Timestamp.valueOf(date.atTime(random.nextInt(24), random.nextInt(60))));
+            ps.setLong(6, firstBuyer + random.nextInt(properties.getBuyers()));
+        });
+        advanceIdentity("purchase_order", "purchase_id", firstPurchase + count);
+
+        if (batches.product.length == 0)
+            return;
+        int[] itemPurchase = new int[totalItems];
+        int[] itemBatch = new int[totalItems];
+        int item = 0;
+        for (int purchase = 0; purchase < count; purchase++) {
+            Set<Integer> purchaseBatches = new HashSet<>();
+            for (int line = 0; line < itemCount[purchase]; line++) {
+                int batch = batches.sample(products.sample(random), random);
+                // Um lote aparece uma vez por carrinho; repetições viram um lote qualquer.
+                while (!purchaseBatches.add(batch))
+                    batch = random.nextInt(batches.product.length);
+                itemPurchase[item] = purchase;
+                itemBatch[item++] = batch;
+            }
+        }
+
+        long firstItem = reserveIds("batch_purchase_order_sequence", "batch_purchase_order", "batch_purchase_id",
+                totalItems);
+        insert("batch_purchase_order", "INSERT INTO batch_purchase_order (batch_purchase_id, quantity, unit_price, " +
+                "batch_number_batch_number, purchase_id_purchase_id) VALUES (?, ?, ?, ?, ?)", totalItems, (ps, row) -> {
+            int batch = itemBatch[row];
+            ps.setLong(1, firstItem + row);
+            ps.setInt(2, properties.getItemQuantity().sample(random));
+            ps.setBigDecimal(3, BigDecimal.valueOf(batches.priceCents[batch], 2));
+            ps.setLong(4, batches.firstId + batch);
+            ps.setLong(5, firstPurchase + itemPurchase[row]);
+        });
+    }
+
+    private Section.Category nextCategory() {
+        Map<Section.Category, Integer> weights = properties.getCategoryWeights();
+        int total = weights.values().stream().mapToInt(Integer::intValue).sum();
+        int value = random.nextInt(total);
+        for (Section.Category category : Section.Category.values()) {
+            value -= weights.getOrDefault(category, 0);
+            if (value < 0)
+                return category;
+        }
+        throw new IllegalStateException("Category weights must be positive");
+    }
+
+    /**
+     * Grava count linhas em batches JDBC de chunkSize linhas, cada um na sua transação. As linhas são montadas em
+     * ordem, então o RowWriter pode usar o gerador aleatório e preencher os vetores da massa.
+     */
+    private void insert(String table, String sql, int count, RowWriter writer) {
+        long start = System.currentTimeMillis();
+        int chunkSize = properties.getChunkSize();
+        for (int first = 0; first < count; first += chunkSize) {
+            int chunkFirst = first;
+            int chunkRows = Math.min(chunkSize, count - first);
+            transactionTemplate.executeWithoutResult(status ->
+                    jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
+                        @Override
+                        public void setValues(PreparedStatement ps, int i) throws SQLException {
+                            writer.write(ps, chunkFirst + i);
+                        }
+
+                        @Override
+                        public int getBatchSize() {
+                            return chunkRows;
+                        }
+                    }));
+        }
+        logger.info("Inserted {} rows into {} in {} ms", count, table, System.currentTimeMillis() - start);
+    }
+
+    private long nextIdentity(String table, String idColumn) {
+        return jdbcTemplate.queryForObject("SELECT COALESCE(MAX(" + idColumn + "), 0) + 1 FROM " + table, Long.class);
+    }
+
+    /**
+     * O H2 não avança a IDENTITY quando o id é informado no INSERT; o MySQL avança sozinho.
+     */
+    private void advanceIdentity(String table, String idColumn, long nextId) {
+        if (h2)
+            jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN " + idColumn + " RESTART WITH " + nextId);
+    }
+
+    /**
+     * Reserva count ids consecutivos de uma sequência do Hibernate (allocationSize 50, otimizador pooled) e a avança
+     * para além deles. No H2 a sequência é nativa; no MySQL é uma tabela com a coluna next_val.
+     *
+     * @return primeiro id reservado
+     */
+    private long reserveIds(String sequence, String table, String idColumn, long count) {
+        return transactionTemplate.execute(status -> {
+            long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(" + idColumn + "), 0) FROM " + table,
+                    Long.class);
+            long nextValue = h2
+                    ? jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR " + sequence, Long.class)
+                    : jdbcTemplate.queryForObject("SELECT next_val FROM " + sequence + " FOR UPDATE", Long.class);
+            long firstId = Math.max(nextValue, maxId + 1);
+            // O pooled usa o valor lido como o maior id do bloco, então o próximo bloco começa em restart - 49.
+            long restart = firstId + count + SEQUENCE_ALLOCATION_SIZE;
+            if (h2)
+                jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + restart);
+            else
+                jdbcTemplate.update("UPDATE " + sequence + " SET next_val = ?", restart);
+            return firstId;
+        });
+    }
+
+    private interface RowWriter {
+        void write(PreparedStatement ps, int row) throws SQLException;
+    }
+
+    private interface IdRowWriter {
+        void write(PreparedStatement ps, long id) throws SQLException;
+    }
+
+    /**
+     * Categorias e popularidade dos produtos gerados, indexados a partir de 0.
+     */
+    private static class Products {
+        private final long firstId;
+        private final Section.Category[] category;
+        private final Map<Section.Category, int[]> productsByCategory = new EnumMap<>(Section.Category.class);
+        private final Map<Section.Category, double[]> popularityByCategory = new EnumMap<>(Section.Category.class);
+        private double[] popularity;
+
+        private Products(long firstId, int count) {
+            this.firstId = firstId;
+            this.category = new Section.Category[count];
+        }
+
+        private void indexByCategory(double skew) {
+            popularity = zipf(category.length, skew);
+            for (Section.Category current : Section.Category.values()) {
+                int[] products = java.util.stream.IntStream.range(0, category.length)
+                        .filter(product -> category[product] == current)
+                        .toArray();
+                productsByCategory.put(current, products);
+                popularityByCategory.put(current, zipf(products.length, skew));
+            }
+        }
+
+        private boolean hasCategory(Section.Category current) {
+            return productsByCategory.get(current).length > 0;
+        }
+
+        private int sample(Random random) {
+            return pick(popularity, random);
+        }
+
+        private int sample(Section.Category current, Random random) {
+            return productsByCategory.get(current)[pick(popularityByCategory.get(current), random)];
+        }
+
+        /**
+         * @return pesos acumulados da distribuição de Zipf, em que o item de posição k tem peso 1 / (k + 1)^skew.
+         */
+        private static double[] zipf(int count, double skew) {
+            double[] cumulative = new double[count];
+            double total = 0;
+            for (int rank = 0; rank < count; rank++) {
+                total += 1 / Math.pow(rank + 1, skew);
+                cumulative[rank] = total;
+            }
+            return cumulative;
+        }
+
+        private static int pick(double[] cumulative, Random random) {
+            int index = Arrays.binarySearch(cumulative, random.nextDouble() * cumulative[cumulative.length - 1]);
+            return Math.min(index < 0 ? -index - 1 : index, cumulative.length - 1);
+        }
+    }
+
+    /**
+     * Categoria das seções, seção de cada ordem de entrada e quantidade de lotes por seção.
+     */
+    private static class Sections {
+        private final long firstId;
+        private final Section.Category[] category;
+        private final int[] batchCount;
+        private final int[] sectionByOrder;
+
+        private Sections(long firstId, int count, int orders) {
+            this.firstId = firstId;
+            this.category = new Section.Category[count];
+            this.batchCount = new int[count];
+            this.sectionByOrder = new int[orders];
+        }
+    }
+
+    /**
+     * Produto, armazém, preço e estoque de cada lote gerado, e os lotes de cada produto para sortear os itens de
+     * compra.
+     */
+    private static class Batches {
+        private final long firstId;
+        private final int[] product;
+        private final int[] warehouse;
+        private final int[] priceCents;
+        private final int[] currentQuantity;
+        private int[] batchesByProductStart;
+        private int[] batchesByProduct;
+
+        private Batches(long firstId, int count) {
+            this.firstId = firstId;
+            this.product = new int[count];
+            this.warehouse = new int[count];
+            this.priceCents = new int[count];
+            this.currentQuantity = new int[count];
+        }
+
+        private void indexByProduct(int products) {
+            batchesByProductStart = new int[products + 1];
+            for (int current : product)
+                batchesByProductStart[current + 1]++;
+            for (int current = 0; current < products; current++)
+                batchesByProductStart[current + 1] += batchesByProductStart[current];
+
+            batchesByProduct = new int[product.length];
+            int[] next = Arrays.copyOf(batchesByProductStart, products);
+            for (int batch = 0; batch < product.length; batch++)
+                batchesByProduct[next[product[batch]]++] = batch;
+        }
+
+        /**
+         * @return um lote do produto, ou um lote qualquer se o produto não tiver lotes.
+         */
+        private int sample(int productIndex, Random random) {
+            int start = batchesByProductStart[productIndex];
+            int count = batchesByProductStart[productIndex + 1] - start;
+            return count > 0 ? batchesByProduct[start + random.nextInt(count)] : random.nextInt(product.length);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.mercadolibre.bootcamp.projeto_integrador.dataset;
+
+import com.mercadolibre.bootcamp.projeto_integrador.model.Section;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Tamanhos e distribuições da massa sintética, lidos das propriedades dataset.*. Os valores padrão geram uma base do
+ * tamanho de produção: 2 milhões de lotes em 3 mil seções, 5 mil produtos e 200 mil ordens de compra.
+ */
+@Component
+@Profile("dataset")
+@ConfigurationProperties(prefix = "dataset")
+@Getter
+@Setter
+public class DatasetProperties {
+    /**
+     * Semente do gerador aleatório; a mesma semente sobre a mesma base gera os mesmos dados.
+     */
+    private long seed = 42;
+    /**
+     * Linhas enviadas por batch JDBC, cada batch em uma transação.
+     */
+    private int chunkSize = 5000;
+
+    private int warehouses = 20;
+    private int sectionsPerWarehouse = 150;
+    private int managers = 500;
+    private int sellers = 1000;
+    private int products = 5000;
+    private int buyers = 50000;
+    private int batches = 2000000;
+    private int batchesPerInboundOrder = 50;
+    private int purchaseOrders = 200000;
+
+    /**
+     * Peso de cada categoria na distribuição das seções e dos produtos.
+     */
+    private Map<Section.Category, Integer> categoryWeights = new EnumMap<>(Map.of(
+            Section.Category.FRESH, 50,
+            Section.Category.CHILLED, 30,
+            Section.Category.FROZEN, 20));
+    /**
+     * Expoente da distribuição de Zipf da popularidade dos produtos, usada nos lotes e nos itens de compra.
+     * Com 0 todos os produtos são igualmente populares.
+     */
+    private double productPopularitySkew = 1.0;
+
+    /**
+     * Dias até o vencimento, a partir de hoje. Valores negativos geram lotes já vencidos.
+     */
+    private Distribution dueDateDays = new Distribution(DistributionType.NORMAL, -30, 180);
+    private Distribution initialQuantity = new Distribution(DistributionType.EXPONENTIAL, 10, 500);
+    /**
+     * Percentual da quantidade inicial que ainda está em estoque; 0 gera lotes esgotados.
+     */
+    private Distribution remainingPercent = new Distribution(DistributionType.UNIFORM, 0, 100);
+    private Distribution productPriceCents = new Distribution(DistributionType.EXPONENTIAL, 100, 20000);
+    /**
+     * Dias desde a criação da ordem de compra.
+     */
+    private Distribution purchaseAgeDays = new Distribution(DistributionType.UNIFORM, 0, 365);
+    private Distribution itemsPerPurchaseOrder = new Distribution(DistributionType.EXPONENTIAL, 1, 20);
+    private Distribution itemQuantity = new Distribution(DistributionType.EXPONENTIAL, 1, 10);
+    /**
+     * Percentual das ordens de compra que ainda são carrinhos abertos, sem reserva de estoque.
+     */
+    private int openPurchaseOrderPercent = 5;
+
+    public enum DistributionType {
+        UNIFORM, NORMAL, EXPONENTIAL
+    }
+
+    /**
+     * Distribuição de um valor inteiro entre min e max (inclusive). A normal é centrada no meio do intervalo, com
+     * desvio padrão de um sexto dele; a exponencial concentra os valores perto de min, com média em um quarto do
+     * intervalo.
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Distribution {
+        private DistributionType type = DistributionType.UNIFORM;
+        private int min;
+        private int max;
+
+        public int sample(Random random) {
+            double range = max - min;
+            double value;
+            switch (type) {
+                case NORMAL:
+                    value = min + range / 2 + random.nextGaussian() * range / 6;
+                    break;
+                case EXPONENTIAL:
+                    value = min - Math.log(1 - random.nextDouble()) * range / 4;
+                    break;
+                default:
+                    value = min + random.nextDouble() * (range + 1);
+            }
+            return (int) Math.max(min, Math.min(max, Math.floor(value)));
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.mercadolibre.bootcamp.projeto_integrador.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchBuyerPageResponseDto {
+    private List<BatchBuyerResponseDto> batches;
+    private LocalDate nextDueDate;
+    private Long nextBatchNumber;
+}
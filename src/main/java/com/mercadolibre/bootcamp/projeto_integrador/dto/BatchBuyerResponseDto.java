@@ -3,6 +3,7 @@ package com.mercadolibre.bootcamp.projeto_integrador.dto;
 import com.mercadolibre.bootcamp.projeto_integrador.model.Batch;
 import com.mercadolibre.bootcamp.projeto_integrador.model.BatchPurchaseOrder;
 import com.mercadolibre.bootcamp.projeto_integrador.model.Section;
+import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -13,6 +14,7 @@ import java.time.LocalDate;
 @Getter
 @Setter
 @NoArgsConstructor
+@AllArgsConstructor
 public class BatchBuyerResponseDto {
     private long batchNumber;
     private String productName;
@@ -2,6 +2,7 @@ package com.mercadolibre.bootcamp.projeto_integrador.dto;
 
 import com.mercadolibre.bootcamp.projeto_integrador.model.Batch;
 import com.mercadolibre.bootcamp.projeto_integrador.model.Section;
+import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -9,6 +10,7 @@ import java.time.LocalDate;
 
 @Getter
 @Setter
+@AllArgsConstructor
 public class BatchDueDateResponseDto {
     private long batchNumber;
     private long productId;
@@ -0,0 +1,16 @@
+package com.mercadolibre.bootcamp.projeto_integrador.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchLocationDto {
+    private long batchNumber;
+    private long productId;
+    private long warehouseCode;
+}
@@ -0,0 +1,15 @@
+package com.mercadolibre.bootcamp.projeto_integrador.dto;
+
+import com.mercadolibre.bootcamp.projeto_integrador.enums.ReservationStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchReservationResultDto {
+    private long batchNumber;
+    private int quantity;
+    private ReservationStatus status;
+}
@@ -0,0 +1,35 @@
+package com.mercadolibre.bootcamp.projeto_integrador.dto;
+
+import com.mercadolibre.bootcamp.projeto_integrador.model.Section;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Estado de um lote lido logo após um UPDATE direto no banco, com tudo o que a reserva precisa para atualizar os
+ * totais de estoque e publicar o evento, sem carregar a entidade.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchStockSnapshotDto {
+    private long batchNumber;
+    private long productId;
+    private String productName;
+    private String brand;
+    private Section.Category category;
+    private int quantity;
+    private LocalDate dueDate;
+    private BigDecimal productPrice;
+    private long sectionCode;
+    private long warehouseCode;
+
+    public BatchBuyerResponseDto toBuyerResponseDto() {
+        return new BatchBuyerResponseDto(batchNumber, productName, brand, category, quantity, dueDate, productPrice);
+    }
+}
@@ -0,0 +1,13 @@
+package com.mercadolibre.bootcamp.projeto_integrador.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InboundLineErrorDto {
+    private long line;
+    private String message;
+}
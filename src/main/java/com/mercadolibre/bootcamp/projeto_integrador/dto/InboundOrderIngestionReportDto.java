@@ -0,0 +1,19 @@
+package com.mercadolibre.bootcamp.projeto_integrador.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InboundOrderIngestionReportDto {
+    private long orderNumber;
+    private long receivedLines;
+    private long insertedBatches;
+    private long rejectedLines;
+    private List<InboundLineErrorDto> errors = new ArrayList<>();
+}
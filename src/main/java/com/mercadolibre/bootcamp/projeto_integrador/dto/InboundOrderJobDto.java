@@ -0,0 +1,30 @@
+package com.mercadolibre.bootcamp.projeto_integrador.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.mercadolibre.bootcamp.projeto_integrador.enums.InboundOrderJobStatus;
+import com.mercadolibre.bootcamp.projeto_integrador.exceptions.CustomError;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Estado de uma InboundOrder criada de forma assíncrona. É alterado pela thread do worker e lido pelas requisições de
+ * consulta, por isso os campos são voláteis; o status é sempre o último campo alterado.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+public class InboundOrderJobDto {
+    private String jobId;
+    @JsonIgnore
+    private long managerId;
+    private int batches;
+    private volatile InboundOrderJobStatus status;
+    private LocalDateTime submittedAt;
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+    private volatile InboundOrderResponseDto result;
+    private volatile CustomError error;
+}
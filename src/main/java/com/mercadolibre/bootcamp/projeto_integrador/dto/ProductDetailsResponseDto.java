@@ -12,4 +12,7 @@ import java.util.List;
 public class ProductDetailsResponseDto {
     private long productId;
     private List<BatchResponseDto> batchStock;
+    private int page;
+    private int size;
+    private boolean hasNext;
 }
@@ -0,0 +1,23 @@
+package com.mercadolibre.bootcamp.projeto_integrador.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductWarehouseQuantityDto {
+    private long productId;
+    private long warehouseCode;
+    private long quantity;
+
+    /**
+     * Usado nas consultas que leem o total gravado, cuja coluna é int; as que somam os lotes retornam long.
+     */
+    public ProductWarehouseQuantityDto(long productId, long warehouseCode, int quantity) {
+        this(productId, warehouseCode, (long) quantity);
+    }
+}
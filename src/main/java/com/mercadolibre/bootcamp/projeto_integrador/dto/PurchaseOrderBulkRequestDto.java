@@ -0,0 +1,22 @@
+package com.mercadolibre.bootcamp.projeto_integrador.dto;
+
+import com.mercadolibre.bootcamp.projeto_integrador.enums.OrderStatus;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+public class PurchaseOrderBulkRequestDto {
+    @NotNull(message = "O status da compra não pode estar vazio")
+    private OrderStatus orderStatus;
+
+    @NotEmpty(message = "A lista de batches não pode estar vazia")
+    @Size(max = 100, message = "A lista de batches pode ter no máximo 100 itens")
+    private List<@Valid BatchPurchaseOrderRequestDto> batches;
+}
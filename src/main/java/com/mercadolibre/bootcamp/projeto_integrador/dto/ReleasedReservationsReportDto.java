@@ -0,0 +1,19 @@
+package com.mercadolibre.bootcamp.projeto_integrador.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReleasedReservationsReportDto {
+    private long firstPurchaseId;
+    private long lastPurchaseId;
+    private int purchaseOrders;
+    private long batchPurchaseOrders;
+    private int batches;
+    private long durationMillis;
+}
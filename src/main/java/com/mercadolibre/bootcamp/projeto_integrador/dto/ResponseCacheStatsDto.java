@@ -0,0 +1,19 @@
+package com.mercadolibre.bootcamp.projeto_integrador.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResponseCacheStatsDto {
+    private long hits;
+    private long misses;
+    private double hitRate;
+    private long bytesSaved;
+    private int entries;
+    private long cachedBytes;
+}
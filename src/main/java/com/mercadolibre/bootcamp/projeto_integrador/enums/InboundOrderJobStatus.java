@@ -0,0 +1,17 @@
+package com.mercadolibre.bootcamp.projeto_integrador.enums;
+
+import lombok.Getter;
+
+public enum InboundOrderJobStatus {
+    QUEUED("Queued"),
+    RUNNING("Running"),
+    DONE("Done"),
+    FAILED("Failed");
+
+    @Getter
+    private String status;
+
+    InboundOrderJobStatus(String status) {
+        this.status = status;
+    }
+}
@@ -0,0 +1,16 @@
+package com.mercadolibre.bootcamp.projeto_integrador.enums;
+
+import lombok.Getter;
+
+public enum ReservationStatus {
+    RESERVED("Reserved"),
+    OUT_OF_STOCK("Out of stock"),
+    NOT_FOUND("Not found");
+
+    @Getter
+    private String status;
+
+    ReservationStatus(String status) {
+        this.status = status;
+    }
+}
@@ -0,0 +1,18 @@
+package com.mercadolibre.bootcamp.projeto_integrador.event;
+
+import com.mercadolibre.bootcamp.projeto_integrador.enums.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Evento publicado sempre que a data de atualização de um carrinho é alterada, o que adia a expiração da sua reserva.
+ */
+@Getter
+@AllArgsConstructor
+public class PurchaseOrderTouchedEvent {
+    private final long purchaseId;
+    private final OrderStatus orderStatus;
+    private final LocalDateTime updateDateTime;
+}
@@ -0,0 +1,17 @@
+package com.mercadolibre.bootcamp.projeto_integrador.event;
+
+import com.mercadolibre.bootcamp.projeto_integrador.model.Section;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Evento publicado sempre que uma seção é criada, alterada ou removida.
+ * O managerId é 0 quando a seção foi removida ou ficou sem representante; a categoria é a da seção gravada.
+ */
+@Getter
+@AllArgsConstructor
+public class SectionChangedEvent {
+    private final long sectionCode;
+    private final long managerId;
+    private final Section.Category category;
+}
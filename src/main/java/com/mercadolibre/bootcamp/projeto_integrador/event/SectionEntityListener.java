@@ -0,0 +1,30 @@
+package com.mercadolibre.bootcamp.projeto_integrador.event;
+
+import com.mercadolibre.bootcamp.projeto_integrador.model.Section;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+/**
+ * Publica um SectionChangedEvent a cada gravação de seção feita pelo Hibernate. Alterações em massa (UPDATE em JPQL,
+ * como a ocupação de slots) não passam por aqui, mas também não mudam o representante da seção.
+ */
+public class SectionEntityListener {
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    @PostUpdate
+    public void onSaved(Section section) {
+        long managerId = section.getManager() == null ? 0 : section.getManager().getManagerId();
+        eventPublisher.publishEvent(new SectionChangedEvent(section.getSectionCode(), managerId, section.getCategory()));
+    }
+
+    @PostRemove
+    public void onRemoved(Section section) {
+        eventPublisher.publishEvent(new SectionChangedEvent(section.getSectionCode(), 0, section.getCategory()));
+    }
+}
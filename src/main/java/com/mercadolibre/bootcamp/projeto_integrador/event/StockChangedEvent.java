@@ -0,0 +1,59 @@
+package com.mercadolibre.bootcamp.projeto_integrador.event;
+
+import com.mercadolibre.bootcamp.projeto_integrador.dto.BatchBuyerResponseDto;
+import com.mercadolibre.bootcamp.projeto_integrador.dto.BatchStockSnapshotDto;
+import com.mercadolibre.bootcamp.projeto_integrador.model.Batch;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Evento publicado sempre que a quantidade ou a data de validade de um ou mais lotes é alterada.
+ * Carrega uma cópia do estado dos lotes no momento da publicação e os códigos das seções onde eles estão guardados.
+ */
+@Getter
+@AllArgsConstructor
+public class StockChangedEvent {
+    private final List<BatchBuyerResponseDto> batches;
+    private final Set<Long> sectionCodes;
+
+    public static StockChangedEvent of(Batch batch) {
+        return of(List.of(batch));
+    }
+
+    /**
+     * Cria o evento de um lote cuja quantidade foi alterada por um UPDATE direto no banco, a partir do estado lido
+     * em seguida.
+     */
+    public static StockChangedEvent of(BatchStockSnapshotDto snapshot) {
+        return new StockChangedEvent(List.of(snapshot.toBuyerResponseDto()), Set.of(snapshot.getSectionCode()));
+    }
+
+    public static StockChangedEvent of(Collection<Batch> batches) {
+        return of(batches.stream()
+                .map(BatchBuyerResponseDto::new)
+                .collect(Collectors.toList()), batches);
+    }
+
+    /**
+     * Cria o evento a partir do estado dos lotes lido do banco, usando as instâncias carregadas apenas para
+     * descobrir as seções.
+     */
+    public static StockChangedEvent of(List<BatchBuyerResponseDto> snapshots, Collection<Batch> batches) {
+        return new StockChangedEvent(snapshots, batches.stream()
+                .map(StockChangedEvent::getSectionCode)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet()));
+    }
+
+    private static Long getSectionCode(Batch batch) {
+        if (batch.getInboundOrder() == null || batch.getInboundOrder().getSection() == null)
+            return null;
+        return batch.getInboundOrder().getSection().getSectionCode();
+    }
+}
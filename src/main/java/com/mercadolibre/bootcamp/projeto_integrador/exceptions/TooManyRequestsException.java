@@ -0,0 +1,16 @@
+package com.mercadolibre.bootcamp.projeto_integrador.exceptions;
+
+import org.springframework.http.HttpStatus;
+
+import java.time.LocalDateTime;
+
+public class TooManyRequestsException extends CustomException {
+    /**
+     * Lança uma CustomException com HTTP Status 429.
+     * @throws CustomException
+     * @param name
+     */
+    public TooManyRequestsException(String name) {
+        super("Too many requests", name + " is full, try again later", HttpStatus.TOO_MANY_REQUESTS, LocalDateTime.now());
+    }
+}
@@ -1,17 +1,117 @@
 package com.mercadolibre.bootcamp.projeto_integrador.job;
 
+import com.mercadolibre.bootcamp.projeto_integrador.dto.ReleasedReservationsReportDto;
+import com.mercadolibre.bootcamp.projeto_integrador.service.IInboundOrderJobService;
 import com.mercadolibre.bootcamp.projeto_integrador.service.IPurchaseOrderService;
+import com.mercadolibre.bootcamp.projeto_integrador.service.IReservationExpiryWheel;
+import com.mercadolibre.bootcamp.projeto_integrador.service.IResponseCacheService;
+import com.mercadolibre.bootcamp.projeto_integrador.service.ISectionService;
+import com.mercadolibre.bootcamp.projeto_integrador.service.ISellableStockIndex;
+import com.mercadolibre.bootcamp.projeto_integrador.service.IStockVersionService;
+import com.mercadolibre.bootcamp.projeto_integrador.service.ReservationExpiryWheel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.time.LocalDate;
+import java.util.List;
+
 @Component
 public class ScheduledJob {
+    private static final Logger logger = LoggerFactory.getLogger(ScheduledJob.class);
+
     @Autowired
     private IPurchaseOrderService servicePurchase;
 
-    @Scheduled(cron = "0 */15 * ? * *")
+    @Autowired
+    private ISellableStockIndex stockIndex;
+
+    @Autowired
+    private IReservationExpiryWheel reservationExpiry;
+
+    @Autowired
+    private IStockVersionService stockVersionService;
+
+    @Autowired
+    private IResponseCacheService responseCache;
+
+    @Autowired
+    private IInboundOrderJobService inboundOrderJobService;
+
+    @Autowired
+    private ISectionService sectionService;
+
+    /**
+     * Varredura de segurança dos carrinhos abandonados, para os que não passaram pela roda de expiração.
+     */
+    @Scheduled(cron = "0 0 * ? * *")
     public void dropAbandonedPurchase() {
-        servicePurchase.dropAbandonedPurchase(60);
+        servicePurchase.dropAbandonedPurchase(ReservationExpiryWheel.RESERVATION_TIMEOUT_MINUTES)
+                .forEach(this::logReleasedReservations);
+    }
+
+    /**
+     * Avança a roda de expiração a cada segundo e devolve ao estoque o próximo lote de carrinhos expirados.
+     * Depende de spring.task.scheduling.pool.size maior que 1: com a thread única padrão do Spring, uma execução
+     * longa do arquivamento ou da verificação do índice atrasaria a expiração pelo tempo inteiro da execução.
+     */
+    @Scheduled(fixedDelay = 1000)
+    public void expireReservations() {
+        List<Long> expiredPurchaseOrders = reservationExpiry.advance(System.currentTimeMillis());
+        if (!expiredPurchaseOrders.isEmpty())
+            logReleasedReservations(servicePurchase.dropExpiredPurchases(expiredPurchaseOrders,
+                    ReservationExpiryWheel.RESERVATION_TIMEOUT_MINUTES));
+    }
+
+    private void logReleasedReservations(ReleasedReservationsReportDto report) {
+        if (report.getPurchaseOrders() == 0)
+            return;
+        logger.info("Released {} abandoned purchase orders (ids {} to {}): {} batch purchase orders returned to {} batches in {} ms",
+                report.getPurchaseOrders(), report.getFirstPurchaseId(), report.getLastPurchaseId(),
+                report.getBatchPurchaseOrders(), report.getBatches(), report.getDurationMillis());
+    }
+
+    /**
+     * Vira o dia do índice de estoque em memória, descartando os lotes que venceram e avançando a janela de validade.
+     */
+    @Scheduled(cron = "0 0 0 * * *")
+    public void advanceSellableStockIndex() {
+        stockIndex.advance(LocalDate.now());
+    }
+
+    /**
+     * Confere o índice de estoque em memória contra a tabela de lotes e o recarrega caso haja divergência.
+     */
+    @Scheduled(cron = "0 30 * ? * *")
+    public void verifySellableStockIndex() {
+        List<Long> divergentBatches = stockIndex.findInconsistencies();
+        if (!divergentBatches.isEmpty()) {
+            logger.warn("Sellable stock index diverged from the database for batches {}, rebuilding", divergentBatches);
+            stockIndex.rebuild();
+            stockVersionService.invalidateAll();
+            responseCache.invalidateAll();
+        }
+    }
+
+    /**
+     * Arquiva os lotes vencidos ou esgotados, devolvendo às seções os slots que eles ocupavam.
+     */
+    @Scheduled(cron = "0 15 * ? * *")
+    public void archiveStaleBatches() {
+        int archivedBatches = sectionService.archiveStaleBatches();
+        if (archivedBatches > 0)
+            logger.info("Archived {} depleted or expired batches", archivedBatches);
+    }
+
+    /**
+     * Descarta da memória os jobs de criação assíncrona de InboundOrder já terminados e consultáveis há tempo suficiente.
+     */
+    @Scheduled(fixedDelay = 60000)
+    public void evictFinishedInboundOrderJobs() {
+        int evictedJobs = inboundOrderJobService.evictFinishedJobs();
+        if (evictedJobs > 0)
+            logger.info("Evicted {} finished inbound order jobs", evictedJobs);
     }
 }
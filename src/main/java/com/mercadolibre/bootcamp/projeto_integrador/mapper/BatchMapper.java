@@ -0,0 +1,41 @@
+package com.mercadolibre.bootcamp.projeto_integrador.mapper;
+
+import com.mercadolibre.bootcamp.projeto_integrador.dto.BatchRequestDto;
+import com.mercadolibre.bootcamp.projeto_integrador.model.Batch;
+import com.mercadolibre.bootcamp.projeto_integrador.model.InboundOrder;
+import com.mercadolibre.bootcamp.projeto_integrador.model.Product;
+
+/**
+ * Conversão de BatchRequestDto para Batch com acessores escritos à mão, sem reflexão nem configuração por chamada.
+ * As quantidades ficam a cargo de quem cria ou atualiza o lote, pois dependem do que já foi vendido.
+ */
+public final class BatchMapper {
+    private BatchMapper() {
+    }
+
+    /**
+     * Cria um lote a partir do DTO, com o produto e a ordem de entrada informados.
+     * A quantidade atual não é preenchida.
+     */
+    public static Batch toBatch(BatchRequestDto dto, InboundOrder order, Product product) {
+        Batch batch = new Batch();
+        batch.setBatchNumber(dto.getBatchNumber());
+        batch.setInitialQuantity(dto.getInitialQuantity());
+        batch.setInboundOrder(order);
+        copyAttributes(dto, batch, product);
+        return batch;
+    }
+
+    /**
+     * Copia do DTO para o lote os atributos que não dependem do estoque: produto, temperaturas, datas e preço.
+     */
+    public static void copyAttributes(BatchRequestDto dto, Batch batch, Product product) {
+        batch.setProduct(product);
+        batch.setCurrentTemperature(dto.getCurrentTemperature());
+        batch.setMinimumTemperature(dto.getMinimumTemperature());
+        batch.setManufacturingDate(dto.getManufacturingDate());
+        batch.setManufacturingTime(dto.getManufacturingTime());
+        batch.setDueDate(dto.getDueDate());
+        batch.setProductPrice(dto.getProductPrice());
+    }
+}
@@ -11,18 +11,39 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
+@NamedEntityGraph(name = Batch.WITH_SECTION, attributeNodes = @NamedAttributeNode(value = "inboundOrder",
+        subgraph = "inboundOrder"), subgraphs = @NamedSubgraph(name = "inboundOrder",
+        attributeNodes = @NamedAttributeNode("section")))
+@NamedEntityGraph(name = Batch.WITH_PRODUCT_AND_SECTION, attributeNodes = {@NamedAttributeNode("product"),
+        @NamedAttributeNode(value = "inboundOrder", subgraph = "inboundOrder")},
+        subgraphs = @NamedSubgraph(name = "inboundOrder", attributeNodes = @NamedAttributeNode("section")))
+@Table(indexes = {
+        @Index(name = "idx_batch_order_due_date", columnList = "order_number, dueDate"),
+        @Index(name = "idx_batch_product_due_date", columnList = "product_id, dueDate")
+})
 @Getter
 @Setter
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class Batch {
+    /**
+     * Carrega a ordem de entrada e a seção do lote, usadas para localizar o lote no armazém.
+     */
+    public static final String WITH_SECTION = "Batch.withSection";
+    /**
+     * Carrega também o produto, usado nas respostas e nos eventos de estoque.
+     */
+    public static final String WITH_PRODUCT_AND_SECTION = "Batch.withProductAndSection";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "batch_sequence")
+    @SequenceGenerator(name = "batch_sequence", sequenceName = "batch_sequence", allocationSize = 50)
     private long batchNumber;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "product_id")
+    @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
     private Product product;
 
     private float currentTemperature;
@@ -39,6 +60,12 @@ public class Batch {
 
     private LocalDate dueDate;
 
+    /**
+     * Lote vencido ou esgotado que deixou de ocupar espaço na seção.
+     */
+    @JsonIgnore
+    private boolean archived;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "order_number")
     @JsonIgnore
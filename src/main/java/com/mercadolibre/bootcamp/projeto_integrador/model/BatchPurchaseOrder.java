@@ -14,15 +14,16 @@ import java.math.BigDecimal;
 @NoArgsConstructor
 public class BatchPurchaseOrder {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "batch_purchase_order_sequence")
+    @SequenceGenerator(name = "batch_purchase_order_sequence", sequenceName = "batch_purchase_order_sequence", allocationSize = 50)
     private long batchPurchaseId;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name="purchase_id_purchase_id")
     @JsonIgnore
     private PurchaseOrder purchaseOrder;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name="batch_number_batch_number")
     private Batch batch;
 
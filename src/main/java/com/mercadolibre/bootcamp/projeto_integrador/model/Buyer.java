@@ -2,11 +2,15 @@ package com.mercadolibre.bootcamp.projeto_integrador.model;
 
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.*;
 import java.util.List;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "buyer")
 @Getter
 @Setter
 public class Buyer {
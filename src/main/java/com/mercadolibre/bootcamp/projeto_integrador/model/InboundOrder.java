@@ -13,10 +13,11 @@ import java.time.LocalDate;
 @Builder
 public class InboundOrder {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "inbound_order_sequence")
+    @SequenceGenerator(name = "inbound_order_sequence", sequenceName = "inbound_order_sequence", allocationSize = 50)
     private long orderNumber;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "sectionCode")
     private Section section;
 
@@ -2,10 +2,14 @@ package com.mercadolibre.bootcamp.projeto_integrador.model;
 
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.*;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "manager")
 @Getter
 @Setter
 public class Manager {
@@ -2,10 +2,15 @@ package com.mercadolibre.bootcamp.projeto_integrador.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.*;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "product")
+@Table(indexes = @Index(name = "idx_product_category", columnList = "category"))
 @Getter
 @Setter
 @Builder
@@ -26,7 +31,7 @@ public class Product {
     @Enumerated(EnumType.STRING)
     private Section.Category category;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "seller_id")
     @JsonIgnore
     private Seller seller;
@@ -0,0 +1,33 @@
+package com.mercadolibre.bootcamp.projeto_integrador.model;
+
+import lombok.*;
+
+import javax.persistence.*;
+import java.io.Serializable;
+
+/**
+ * Total em estoque de um produto em um armazém, mantido pelas mesmas transações que alteram a quantidade dos lotes.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@IdClass(ProductWarehouseStock.Key.class)
+public class ProductWarehouseStock {
+    @Id
+    private long productId;
+
+    @Id
+    private long warehouseCode;
+
+    private int quantity;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private long productId;
+        private long warehouseCode;
+    }
+}
@@ -11,9 +11,19 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
+@NamedEntityGraph(name = PurchaseOrder.WITH_ITEMS, attributeNodes = @NamedAttributeNode(value = "batchPurchaseOrders",
+        subgraph = "batchPurchaseOrders"), subgraphs = {
+        @NamedSubgraph(name = "batchPurchaseOrders", attributeNodes = @NamedAttributeNode(value = "batch",
+                subgraph = "batch")),
+        @NamedSubgraph(name = "batch", attributeNodes = @NamedAttributeNode("product"))})
 @Data
 @NoArgsConstructor
 public class PurchaseOrder {
+    /**
+     * Carrega os itens do carrinho com o lote e o produto de cada um, usados para montar a resposta.
+     */
+    public static final String WITH_ITEMS = "PurchaseOrder.withItems";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private long purchaseId;
@@ -28,7 +38,7 @@ public class PurchaseOrder {
 
     private boolean isReserved;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "buyer_id", nullable = false)
     @JsonIgnore
     private Buyer buyer;
@@ -1,11 +1,17 @@
 package com.mercadolibre.bootcamp.projeto_integrador.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.mercadolibre.bootcamp.projeto_integrador.event.SectionEntityListener;
 import lombok.*;
 
 import javax.persistence.*;
 
+/**
+ * Seção de um armazém. Não fica no cache de segundo nível: currentBatches muda a cada entrada por UPDATEs em massa
+ * (ISectionRepository.reserveSlots e releaseSlots), que esvaziariam a região inteira a cada ordem de entrada.
+ */
 @Entity
+@EntityListeners(SectionEntityListener.class)
 @Getter
 @Setter
 @Builder
@@ -17,7 +23,7 @@ public class Section {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private long sectionCode;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "warehouse_code")
     private Warehouse warehouse;
 
@@ -29,7 +35,7 @@ public class Section {
 
     private int currentBatches;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "manager_id")
     private Manager manager;
 
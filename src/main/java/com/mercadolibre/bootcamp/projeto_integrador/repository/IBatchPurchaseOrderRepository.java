@@ -1,14 +1,26 @@
 package com.mercadolibre.bootcamp.projeto_integrador.repository;
 
+import com.mercadolibre.bootcamp.projeto_integrador.dto.BatchQuantityDto;
 import com.mercadolibre.bootcamp.projeto_integrador.model.Batch;
 import com.mercadolibre.bootcamp.projeto_integrador.model.BatchPurchaseOrder;
 import com.mercadolibre.bootcamp.projeto_integrador.model.Product;
 import com.mercadolibre.bootcamp.projeto_integrador.model.PurchaseOrder;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface IBatchPurchaseOrderRepository extends JpaRepository<BatchPurchaseOrder, Long> {
     Optional<BatchPurchaseOrder> findOneByPurchaseOrderAndBatch(PurchaseOrder purchaseOrder, Batch batch);
+
+    /**
+     * Soma, por lote, as quantidades reservadas nos carrinhos informados.
+     */
+    @Query("SELECT new com.mercadolibre.bootcamp.projeto_integrador.dto.BatchQuantityDto(b.batchNumber, SUM(bpo.quantity), COUNT(bpo)) " +
+            "FROM BatchPurchaseOrder bpo JOIN bpo.batch b WHERE bpo.purchaseOrder.purchaseId IN :purchaseIds " +
+            "GROUP BY b.batchNumber")
+    List<BatchQuantityDto> sumQuantityByBatch(@Param("purchaseIds") Collection<Long> purchaseIds);
 }
@@ -1,30 +1,221 @@
 package com.mercadolibre.bootcamp.projeto_integrador.repository;
 
+import com.mercadolibre.bootcamp.projeto_integrador.dto.BatchBuyerResponseDto;
+import com.mercadolibre.bootcamp.projeto_integrador.dto.BatchDueDateResponseDto;
+import com.mercadolibre.bootcamp.projeto_integrador.dto.BatchStockSnapshotDto;
+import com.mercadolibre.bootcamp.projeto_integrador.enums.OrderStatus;
 import com.mercadolibre.bootcamp.projeto_integrador.model.Batch;
 import com.mercadolibre.bootcamp.projeto_integrador.model.Product;
 import com.mercadolibre.bootcamp.projeto_integrador.model.Section;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 @Repository
-public interface IBatchRepository extends JpaRepository<Batch, Long> {
+public interface IBatchRepository extends JpaRepository<Batch, Long>, IBatchStockRepository {
+    String SELECT_BUYER_DTO = "SELECT new com.mercadolibre.bootcamp.projeto_integrador.dto.BatchBuyerResponseDto(" +
+            "b.batchNumber, p.productName, p.brand, p.category, b.currentQuantity, b.dueDate, b.productPrice) " +
+            "FROM Batch b JOIN b.product p ";
+    String SELECT_DUE_DATE_DTO = "SELECT new com.mercadolibre.bootcamp.projeto_integrador.dto.BatchDueDateResponseDto(" +
+            "b.batchNumber, p.productId, p.productName, p.category, b.dueDate, b.currentQuantity) " +
+            "FROM Batch b JOIN b.product p JOIN b.inboundOrder o ";
+    String SELECT_BY_PRODUCT_AND_MANAGER = "SELECT b FROM Batch b " +
+            "WHERE b.product.productId = :productId AND b.inboundOrder.section.manager.managerId = :managerId";
+
+    /**
+     * Lote com o produto e a seção, usados nas respostas e nos eventos de estoque.
+     */
+    @Override
+    @EntityGraph(Batch.WITH_PRODUCT_AND_SECTION)
+    Optional<Batch> findById(Long batchNumber);
+
+    @Override
+    @EntityGraph(Batch.WITH_PRODUCT_AND_SECTION)
+    List<Batch> findAllById(Iterable<Long> batchNumbers);
+
+    @EntityGraph(Batch.WITH_SECTION)
     List<Batch> findAllByProduct(Product product);
-    List<Batch> findByCurrentQuantityGreaterThanAndDueDateAfter(int minimumQuantity, LocalDate minimumExpirationDate);
-    List<Batch> findByCurrentQuantityGreaterThanAndDueDateAfterAndProduct_CategoryIs(
-            int minimumQuantity, LocalDate minimumExpirationDate, Section.Category category);
 
-    List<Batch> findByInboundOrder_SectionAndDueDateBetweenOrderByDueDate(
-            Section section, LocalDate startDate, LocalDate endDate);
+    /**
+     * Página dos lotes do produto guardados nas seções do representante, já com a seção de cada lote. A ordenação e
+     * o limite vêm do Pageable e são aplicados no banco; o Slice lê um lote a mais para saber se há próxima página.
+     */
+    @EntityGraph(Batch.WITH_SECTION)
+    @Query(SELECT_BY_PRODUCT_AND_MANAGER)
+    Slice<Batch> findByProductAndManager(@Param("productId") long productId,
+                                         @Param("managerId") long managerId,
+                                         Pageable pageable);
+
+    /**
+     * Todos os lotes do produto guardados nas seções do representante, já com a seção de cada lote e ordenados no
+     * banco.
+     */
+    @EntityGraph(Batch.WITH_SECTION)
+    @Query(SELECT_BY_PRODUCT_AND_MANAGER)
+    List<Batch> findByProductAndManager(@Param("productId") long productId,
+                                        @Param("managerId") long managerId,
+                                        Sort sort);
+
+    /**
+     * Projeção dos lotes disponíveis para compra, lendo apenas as colunas usadas em BatchBuyerResponseDto.
+     */
+    @Query(SELECT_BUYER_DTO + "WHERE b.currentQuantity > 0 AND b.dueDate > :minimumExpirationDate")
+    List<BatchBuyerResponseDto> findSellable(@Param("minimumExpirationDate") LocalDate minimumExpirationDate);
+
+    @Query(SELECT_BUYER_DTO + "WHERE b.currentQuantity > 0 AND b.dueDate > :minimumExpirationDate " +
+            "AND p.category = :category")
+    List<BatchBuyerResponseDto> findSellableByCategory(@Param("minimumExpirationDate") LocalDate minimumExpirationDate,
+                                                       @Param("category") Section.Category category);
+
+    /**
+     * Lotes com estoque da seção que vencem no intervalo, ordenados por validade. O filtro e a ordenação ficam no
+     * banco, usando o índice (order_number, due_date) dos lotes.
+     */
+    @Query(SELECT_DUE_DATE_DTO + "WHERE o.section.sectionCode = :sectionCode AND b.currentQuantity > 0 " +
+            "AND b.dueDate BETWEEN :startDate AND :endDate ORDER BY b.dueDate, b.batchNumber")
+    List<BatchDueDateResponseDto> findInStockBySectionAndDueDateBetween(@Param("sectionCode") long sectionCode,
+                                                                        @Param("startDate") LocalDate startDate,
+                                                                        @Param("endDate") LocalDate endDate);
+
+    /**
+     * Lotes com estoque da categoria, guardados nas seções do representante, que vencem no intervalo, em ordem
+     * crescente de validade. O custo depende dos lotes do representante e não do tamanho da categoria.
+     */
+    @Query(SELECT_DUE_DATE_DTO + "JOIN o.section s WHERE p.category = :category AND s.manager.managerId = :managerId " +
+            "AND b.currentQuantity > 0 AND b.dueDate BETWEEN :startDate AND :endDate " +
+            "ORDER BY b.dueDate ASC, b.batchNumber ASC")
+    List<BatchDueDateResponseDto> findInStockByCategoryAndManagerAndDueDateBetweenAsc(
+            @Param("category") Section.Category category,
+            @Param("managerId") long managerId,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+
+    @Query(SELECT_DUE_DATE_DTO + "JOIN o.section s WHERE p.category = :category AND s.manager.managerId = :managerId " +
+            "AND b.currentQuantity > 0 AND b.dueDate BETWEEN :startDate AND :endDate " +
+            "ORDER BY b.dueDate DESC, b.batchNumber DESC")
+    List<BatchDueDateResponseDto> findInStockByCategoryAndManagerAndDueDateBetweenDesc(
+            @Param("category") Section.Category category,
+            @Param("managerId") long managerId,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+
+    /**
+     * Busca a próxima página de lotes disponíveis para compra, posicionada após o cursor (dueDate, batchNumber).
+     */
+    @Query(SELECT_BUYER_DTO + "WHERE b.currentQuantity > 0 AND b.dueDate > :minimumExpirationDate " +
+            "AND (b.dueDate > :lastDueDate OR (b.dueDate = :lastDueDate AND b.batchNumber > :lastBatchNumber)) " +
+            "ORDER BY b.dueDate, b.batchNumber")
+    List<BatchBuyerResponseDto> findSellableAfter(@Param("minimumExpirationDate") LocalDate minimumExpirationDate,
+                                                  @Param("lastDueDate") LocalDate lastDueDate,
+                                                  @Param("lastBatchNumber") long lastBatchNumber,
+                                                  Pageable pageable);
+
+    @Query(SELECT_BUYER_DTO + "WHERE b.currentQuantity > 0 AND b.dueDate > :minimumExpirationDate " +
+            "AND p.category = :category " +
+            "AND (b.dueDate > :lastDueDate OR (b.dueDate = :lastDueDate AND b.batchNumber > :lastBatchNumber)) " +
+            "ORDER BY b.dueDate, b.batchNumber")
+    List<BatchBuyerResponseDto> findSellableByCategoryAfter(@Param("minimumExpirationDate") LocalDate minimumExpirationDate,
+                                                            @Param("category") Section.Category category,
+                                                            @Param("lastDueDate") LocalDate lastDueDate,
+                                                            @Param("lastBatchNumber") long lastBatchNumber,
+                                                            Pageable pageable);
+
+    /**
+     * Percorre os lotes disponíveis para compra através de um cursor do banco. Deve ser consumido dentro de uma
+     * transação e fechado ao final.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query(SELECT_BUYER_DTO + "WHERE b.currentQuantity > 0 AND b.dueDate > :minimumExpirationDate " +
+            "ORDER BY b.dueDate, b.batchNumber")
+    Stream<BatchBuyerResponseDto> streamSellable(@Param("minimumExpirationDate") LocalDate minimumExpirationDate);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query(SELECT_BUYER_DTO + "WHERE b.currentQuantity > 0 AND b.dueDate > :minimumExpirationDate " +
+            "AND p.category = :category ORDER BY b.dueDate, b.batchNumber")
+    Stream<BatchBuyerResponseDto> streamSellableByCategory(@Param("minimumExpirationDate") LocalDate minimumExpirationDate,
+                                                           @Param("category") Section.Category category);
+
+    /**
+     * Reserva a quantidade informada em um único UPDATE condicional, sem carregar o lote. O banco só aplica a
+     * subtração se ainda houver estoque suficiente e o lote vencer depois da data informada, então reservas
+     * concorrentes nunca deixam o estoque negativo.
+     *
+     * @return 1 se a reserva foi feita, 0 caso contrário
+     */
+    @Modifying
+    @Query("UPDATE Batch b SET b.currentQuantity = b.currentQuantity - :quantity " +
+            "WHERE b.batchNumber = :batchNumber AND b.currentQuantity >= :quantity AND b.dueDate > :minimumExpirationDate")
+    int reserveStock(@Param("batchNumber") long batchNumber,
+                     @Param("quantity") int quantity,
+                     @Param("minimumExpirationDate") LocalDate minimumExpirationDate);
+
+    /**
+     * Devolve a quantidade informada ao estoque do lote em um único UPDATE.
+     */
+    @Modifying
+    @Query("UPDATE Batch b SET b.currentQuantity = b.currentQuantity + :quantity WHERE b.batchNumber = :batchNumber")
+    int releaseStock(@Param("batchNumber") long batchNumber, @Param("quantity") int quantity);
+
+    /**
+     * Busca os lotes da seção que podem ser arquivados: vencidos antes da data informada, ou esgotados e sem reservas de
+     * carrinhos abertos, que ainda poderiam devolver estoque ao lote.
+     */
+    @Query("SELECT b.batchNumber FROM Batch b WHERE b.inboundOrder.section.sectionCode = :sectionCode " +
+            "AND b.archived = false AND (b.dueDate < :today OR (b.currentQuantity = 0 AND NOT EXISTS (" +
+            "SELECT bpo.batchPurchaseId FROM BatchPurchaseOrder bpo WHERE bpo.batch = b " +
+            "AND bpo.purchaseOrder.orderStatus = :openedStatus AND bpo.purchaseOrder.isReserved = true))) " +
+            "ORDER BY b.batchNumber")
+    List<Long> findArchivableBySection(@Param("sectionCode") long sectionCode,
+                                       @Param("today") LocalDate today,
+                                       @Param("openedStatus") OrderStatus openedStatus,
+                                       Pageable pageable);
+
+    /**
+     * Arquiva os lotes informados que continuam vencidos ou esgotados.
+     *
+     * @return quantidade de lotes arquivados
+     */
+    @Modifying
+    @Query("UPDATE Batch b SET b.archived = true WHERE b.batchNumber IN :batchNumbers AND b.archived = false " +
+            "AND (b.dueDate < :today OR b.currentQuantity = 0)")
+    int archiveAll(@Param("batchNumbers") Collection<Long> batchNumbers, @Param("today") LocalDate today);
+
+    /**
+     * Lê o estado atual do lote direto do banco, ignorando uma instância já carregada na transação, junto com o
+     * produto, a seção e o armazém, em uma única consulta.
+     */
+    @Query("SELECT new com.mercadolibre.bootcamp.projeto_integrador.dto.BatchStockSnapshotDto(" +
+            "b.batchNumber, p.productId, p.productName, p.brand, p.category, b.currentQuantity, b.dueDate, " +
+            "b.productPrice, s.sectionCode, s.warehouse.warehouseCode) " +
+            "FROM Batch b JOIN b.product p JOIN b.inboundOrder o JOIN o.section s WHERE b.batchNumber = :batchNumber")
+    BatchStockSnapshotDto findStockSnapshot(@Param("batchNumber") long batchNumber);
 
-    List<Batch> findByProduct_CategoryAndDueDateBetweenOrderByDueDateAsc(
-            Section.Category category, LocalDate startDate, LocalDate endDate);
+    /**
+     * Carrega os lotes informados em uma única consulta, já com o produto e a seção de cada um.
+     */
+    @EntityGraph(Batch.WITH_PRODUCT_AND_SECTION)
+    @Query("SELECT b FROM Batch b WHERE b.batchNumber IN :batchNumbers")
+    List<Batch> findAllWithSectionByBatchNumberIn(@Param("batchNumbers") Collection<Long> batchNumbers);
 
-    List<Batch> findByProduct_CategoryAndDueDateBetweenOrderByDueDateDesc(
-            Section.Category category, LocalDate startDate, LocalDate endDate);
+    @Query(SELECT_BUYER_DTO + "WHERE b.batchNumber IN :batchNumbers")
+    List<BatchBuyerResponseDto> findBuyerDtoByBatchNumberIn(@Param("batchNumbers") Collection<Long> batchNumbers);
 
-    Optional<Batch> findOneByBatchNumberAndCurrentQuantityGreaterThanEqualAndDueDateAfterOrderByDueDate(long batchNumber, int minimumQuantity, LocalDate minimumExpirationDate);
+    @Query("SELECT DISTINCT o.section.sectionCode FROM Batch b JOIN b.inboundOrder o WHERE b.batchNumber IN :batchNumbers")
+    List<Long> findSectionCodesByBatchNumberIn(@Param("batchNumbers") Collection<Long> batchNumbers);
 }
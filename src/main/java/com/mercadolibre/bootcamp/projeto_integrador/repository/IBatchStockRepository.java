@@ -0,0 +1,16 @@
+package com.mercadolibre.bootcamp.projeto_integrador.repository;
+
+import com.mercadolibre.bootcamp.projeto_integrador.dto.BatchPurchaseOrderRequestDto;
+import com.mercadolibre.bootcamp.projeto_integrador.dto.BatchQuantityDto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Operações de estoque em lote executadas direto via JDBC, incorporadas ao IBatchRepository.
+ */
+public interface IBatchStockRepository {
+    int[] reserveAll(List<BatchPurchaseOrderRequestDto> lines, LocalDate minimumExpirationDate);
+
+    int[] releaseAll(List<BatchQuantityDto> quantities);
+}
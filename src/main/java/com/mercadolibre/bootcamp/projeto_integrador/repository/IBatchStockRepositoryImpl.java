@@ -0,0 +1,74 @@
+package com.mercadolibre.bootcamp.projeto_integrador.repository;
+
+import com.mercadolibre.bootcamp.projeto_integrador.dto.BatchPurchaseOrderRequestDto;
+import com.mercadolibre.bootcamp.projeto_integrador.dto.BatchQuantityDto;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+
+public class IBatchStockRepositoryImpl implements IBatchStockRepository {
+    private static final String SQL_RESERVE_STOCK = "UPDATE batch SET current_quantity = current_quantity - ? " +
+            "WHERE batch_number = ? AND current_quantity >= ? AND due_date > ?";
+    private static final String SQL_RELEASE_STOCK = "UPDATE batch SET current_quantity = current_quantity + ? " +
+            "WHERE batch_number = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Envia um UPDATE condicional por linha em um único batch JDBC, na conexão da transação corrente.
+     * Cada linha só é reservada se o lote ainda tiver estoque suficiente e vencer depois da data informada.
+     *
+     * @param lines                 Linhas a reservar, na ordem em que serão aplicadas
+     * @param minimumExpirationDate Data de validade mínima (exclusiva)
+     * @return Quantidade de registros alterados por linha, 1 quando a reserva foi feita
+     */
+    @Override
+    public int[] reserveAll(List<BatchPurchaseOrderRequestDto> lines, LocalDate minimumExpirationDate) {
+        Date minimumDate = Date.valueOf(minimumExpirationDate);
+        return jdbcTemplate.batchUpdate(SQL_RESERVE_STOCK, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                BatchPurchaseOrderRequestDto line = lines.get(i);
+                ps.setInt(1, line.getQuantity());
+                ps.setLong(2, line.getBatchNumber());
+                ps.setInt(3, line.getQuantity());
+                ps.setDate(4, minimumDate);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return lines.size();
+            }
+        });
+    }
+
+    /**
+     * Devolve ao estoque a quantidade somada de cada lote, com um UPDATE por lote enviado em um único batch JDBC.
+     *
+     * @param quantities Quantidade a devolver por lote
+     * @return Quantidade de registros alterados por lote
+     */
+    @Override
+    public int[] releaseAll(List<BatchQuantityDto> quantities) {
+        return jdbcTemplate.batchUpdate(SQL_RELEASE_STOCK, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                BatchQuantityDto quantity = quantities.get(i);
+                ps.setLong(1, quantity.getQuantity());
+                ps.setLong(2, quantity.getBatchNumber());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return quantities.size();
+            }
+        });
+    }
+}
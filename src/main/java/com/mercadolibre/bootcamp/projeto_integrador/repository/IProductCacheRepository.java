@@ -0,0 +1,13 @@
+package com.mercadolibre.bootcamp.projeto_integrador.repository;
+
+import com.mercadolibre.bootcamp.projeto_integrador.model.Product;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Leituras de produtos que aproveitam o cache de segundo nível, incorporadas ao IProductRepository.
+ */
+public interface IProductCacheRepository {
+    List<Product> findAllCachedById(Collection<Long> productIds);
+}
@@ -0,0 +1,48 @@
+package com.mercadolibre.bootcamp.projeto_integrador.repository;
+
+import com.mercadolibre.bootcamp.projeto_integrador.model.Product;
+
+import javax.persistence.Cache;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+public class IProductCacheRepositoryImpl implements IProductCacheRepository {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Busca os produtos informados, lendo do cache de segundo nível os que já estão nele e do banco, em uma única
+     * consulta, apenas os demais. O findAllById do Spring Data sempre vai ao banco, mesmo com todos em cache.
+     *
+     * @param productIds IDs dos produtos; repetições são ignoradas
+     * @return Produtos encontrados, sem ordem definida
+     */
+    @Override
+    public List<Product> findAllCachedById(Collection<Long> productIds) {
+        Cache cache = entityManager.getEntityManagerFactory().getCache();
+        List<Product> products = new ArrayList<>();
+        List<Long> uncachedIds = new ArrayList<>();
+
+        for (Long productId : new LinkedHashSet<>(productIds)) {
+            Product product = cache.contains(Product.class, productId)
+                    ? entityManager.find(Product.class, productId)
+                    : null;
+            if (product != null)
+                products.add(product);
+            else
+                uncachedIds.add(productId);
+        }
+
+        if (!uncachedIds.isEmpty()) {
+            products.addAll(entityManager
+                    .createQuery("SELECT p FROM Product p WHERE p.productId IN :productIds", Product.class)
+                    .setParameter("productIds", uncachedIds)
+                    .getResultList());
+        }
+        return products;
+    }
+}
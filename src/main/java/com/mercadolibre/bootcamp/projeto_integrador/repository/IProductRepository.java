@@ -2,9 +2,19 @@ package com.mercadolibre.bootcamp.projeto_integrador.repository;
 
 import com.mercadolibre.bootcamp.projeto_integrador.model.Product;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
-@Repository
-public interface IProductRepository extends JpaRepository<Product, Long> {
+import javax.persistence.QueryHint;
+import java.util.Collection;
+
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
 
+@Repository
+public interface IProductRepository extends JpaRepository<Product, Long>, IProductCacheRepository {
+    /**
+     * O resultado fica no cache de consultas até a próxima alteração na tabela de produtos.
+     */
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    long countByProductIdIn(Collection<Long> productIds);
 }
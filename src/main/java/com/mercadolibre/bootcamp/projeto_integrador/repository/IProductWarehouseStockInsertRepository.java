@@ -0,0 +1,8 @@
+package com.mercadolibre.bootcamp.projeto_integrador.repository;
+
+/**
+ * Criação dos totais de estoque executada direto via JDBC, incorporada ao IProductWarehouseStockRepository.
+ */
+public interface IProductWarehouseStockInsertRepository {
+    boolean insertIfAbsent(long productId, long warehouseCode, int quantity);
+}
@@ -0,0 +1,28 @@
+package com.mercadolibre.bootcamp.projeto_integrador.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+public class IProductWarehouseStockInsertRepositoryImpl implements IProductWarehouseStockInsertRepository {
+    private static final String SQL_INSERT_STOCK = "INSERT INTO product_warehouse_stock " +
+            "(product_id, warehouse_code, quantity) VALUES (?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Cria o total do produto no armazém na conexão da transação corrente. A chave duplicada é tratada aqui, sem
+     * passar pelo EntityManager, para não marcar a transação para rollback.
+     *
+     * @return true se o total foi criado, false se ele já existia
+     */
+    @Override
+    public boolean insertIfAbsent(long productId, long warehouseCode, int quantity) {
+        try {
+            return jdbcTemplate.update(SQL_INSERT_STOCK, productId, warehouseCode, quantity) == 1;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.mercadolibre.bootcamp.projeto_integrador.repository;
+
+import com.mercadolibre.bootcamp.projeto_integrador.dto.BatchLocationDto;
+import com.mercadolibre.bootcamp.projeto_integrador.dto.ProductWarehouseQuantityDto;
+import com.mercadolibre.bootcamp.projeto_integrador.dto.WarehouseResponseDto;
+import com.mercadolibre.bootcamp.projeto_integrador.model.ProductWarehouseStock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface IProductWarehouseStockRepository
+        extends JpaRepository<ProductWarehouseStock, ProductWarehouseStock.Key>, IProductWarehouseStockInsertRepository {
+
+    @Query("SELECT new com.mercadolibre.bootcamp.projeto_integrador.dto.WarehouseResponseDto(" +
+            "s.warehouseCode, s.quantity) FROM ProductWarehouseStock s " +
+            "WHERE s.productId = :productId ORDER BY s.warehouseCode")
+    List<WarehouseResponseDto> findWarehousesByProductId(@Param("productId") long productId);
+
+    @Query("SELECT new com.mercadolibre.bootcamp.projeto_integrador.dto.ProductWarehouseQuantityDto(" +
+            "s.productId, s.warehouseCode, s.quantity) FROM ProductWarehouseStock s " +
+            "WHERE s.productId IN :productIds ORDER BY s.productId, s.warehouseCode")
+    List<ProductWarehouseQuantityDto> findByProductIdIn(@Param("productIds") Collection<Long> productIds);
+
+    /**
+     * Soma a quantidade informada ao total do produto no armazém, sem ler a linha antes.
+     *
+     * @return 1 se o total existia e foi atualizado, 0 caso contrário
+     */
+    @Modifying
+    @Query("UPDATE ProductWarehouseStock s SET s.quantity = s.quantity + :quantity " +
+            "WHERE s.productId = :productId AND s.warehouseCode = :warehouseCode")
+    int addQuantity(@Param("productId") long productId,
+                    @Param("warehouseCode") long warehouseCode,
+                    @Param("quantity") int quantity);
+
+    /**
+     * Busca o produto e o armazém de cada lote informado, sem carregar as entidades.
+     */
+    @Query("SELECT new com.mercadolibre.bootcamp.projeto_integrador.dto.BatchLocationDto(" +
+            "b.batchNumber, b.product.productId, s.warehouse.warehouseCode) " +
+            "FROM Batch b JOIN b.inboundOrder o JOIN o.section s WHERE b.batchNumber IN :batchNumbers")
+    List<BatchLocationDto> findLocationsByBatchNumberIn(@Param("batchNumbers") Collection<Long> batchNumbers);
+
+    /**
+     * Recalcula a partir da tabela de lotes os totais de todos os produtos em todos os armazéns.
+     */
+    @Query("SELECT new com.mercadolibre.bootcamp.projeto_integrador.dto.ProductWarehouseQuantityDto(" +
+            "b.product.productId, s.warehouse.warehouseCode, SUM(b.currentQuantity)) " +
+            "FROM Batch b JOIN b.inboundOrder o JOIN o.section s " +
+            "GROUP BY b.product.productId, s.warehouse.warehouseCode")
+    List<ProductWarehouseQuantityDto> sumBatchQuantityByProductAndWarehouse();
+}
@@ -1,15 +1,71 @@
 package com.mercadolibre.bootcamp.projeto_integrador.repository;
 
+import com.mercadolibre.bootcamp.projeto_integrador.dto.ReservedPurchaseOrderDto;
 import com.mercadolibre.bootcamp.projeto_integrador.enums.OrderStatus;
 import com.mercadolibre.bootcamp.projeto_integrador.model.Buyer;
 import com.mercadolibre.bootcamp.projeto_integrador.model.PurchaseOrder;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import javax.persistence.LockModeType;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface IPurchaseOrderRepository extends JpaRepository<PurchaseOrder, Long> {
+    /**
+     * Carrinho com os itens, o lote e o produto de cada item, lidos em uma única consulta.
+     */
+    @Override
+    @EntityGraph(PurchaseOrder.WITH_ITEMS)
+    Optional<PurchaseOrder> findById(Long purchaseId);
+
+    @EntityGraph(PurchaseOrder.WITH_ITEMS)
     PurchaseOrder findOnePurchaseOrderByBuyerAndOrderStatusIsLike(Buyer buyer, OrderStatus orderStatus);
+
+    @EntityGraph(PurchaseOrder.WITH_ITEMS)
     PurchaseOrder findOneByPurchaseIdAndBuyer(long orderId, Buyer buyer);
-    List<PurchaseOrder> findByOrderStatusAndIsReservedAndUpdateDateTimeBefore(OrderStatus status, boolean isReserved, LocalDateTime dateTime);
+
+    /**
+     * O DISTINCT evita que o carrinho se repita na lista uma vez para cada item carregado junto.
+     */
+    @EntityGraph(PurchaseOrder.WITH_ITEMS)
+    @Query("SELECT DISTINCT p FROM PurchaseOrder p WHERE p.orderStatus = :status AND p.isReserved = :isReserved " +
+            "AND p.updateDateTime < :dateTime")
+    List<PurchaseOrder> findByOrderStatusAndIsReservedAndUpdateDateTimeBefore(@Param("status") OrderStatus status,
+                                                                             @Param("isReserved") boolean isReserved,
+                                                                             @Param("dateTime") LocalDateTime dateTime);
+
+    /**
+     * Busca e bloqueia para escrita o próximo bloco de carrinhos abandonados, em ordem de ID a partir do informado.
+     * O bloqueio impede que um carrinho tocado durante a devolução do estoque seja liberado.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p.purchaseId FROM PurchaseOrder p WHERE p.orderStatus = :status AND p.isReserved = true " +
+            "AND p.updateDateTime < :dateTime AND p.purchaseId > :lastPurchaseId ORDER BY p.purchaseId")
+    List<Long> findAbandonedForUpdate(@Param("status") OrderStatus status,
+                                      @Param("dateTime") LocalDateTime dateTime,
+                                      @Param("lastPurchaseId") long lastPurchaseId,
+                                      Pageable pageable);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p.purchaseId FROM PurchaseOrder p WHERE p.orderStatus = :status AND p.isReserved = true " +
+            "AND p.updateDateTime < :dateTime AND p.purchaseId IN :purchaseIds ORDER BY p.purchaseId")
+    List<Long> findAbandonedForUpdate(@Param("status") OrderStatus status,
+                                      @Param("dateTime") LocalDateTime dateTime,
+                                      @Param("purchaseIds") Collection<Long> purchaseIds);
+
+    @Modifying
+    @Query("UPDATE PurchaseOrder p SET p.isReserved = false WHERE p.purchaseId IN :purchaseIds")
+    int releaseReservations(@Param("purchaseIds") Collection<Long> purchaseIds);
+
+    @Query("SELECT new com.mercadolibre.bootcamp.projeto_integrador.dto.ReservedPurchaseOrderDto(p.purchaseId, p.updateDateTime) " +
+            "FROM PurchaseOrder p WHERE p.orderStatus = :status AND p.isReserved = true")
+    List<ReservedPurchaseOrderDto> findReservedByOrderStatus(@Param("status") OrderStatus status);
 }
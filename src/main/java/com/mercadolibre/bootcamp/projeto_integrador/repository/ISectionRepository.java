@@ -1,10 +1,41 @@
 package com.mercadolibre.bootcamp.projeto_integrador.repository;
 
+import com.mercadolibre.bootcamp.projeto_integrador.dto.SectionOwnerDto;
 import com.mercadolibre.bootcamp.projeto_integrador.model.Section;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface ISectionRepository extends JpaRepository<Section, Long> {
+    /**
+     * Ocupa a quantidade informada de slots da seção em um único UPDATE condicional, sem carregar nem bloquear a seção
+     * antes. O banco só aplica a soma se a seção continuar dentro da capacidade, então entradas concorrentes nunca
+     * ultrapassam maxBatches.
+     *
+     * @return 1 se os slots foram ocupados, 0 caso contrário
+     */
+    @Modifying
+    @Query("UPDATE Section s SET s.currentBatches = s.currentBatches + :batchCount " +
+            "WHERE s.sectionCode = :sectionCode AND s.currentBatches + :batchCount <= s.maxBatches")
+    int reserveSlots(@Param("sectionCode") long sectionCode, @Param("batchCount") int batchCount);
+
+    /**
+     * Libera a quantidade informada de slots da seção em um único UPDATE, sem deixar currentBatches negativo.
+     */
+    @Modifying
+    @Query("UPDATE Section s SET s.currentBatches = CASE WHEN s.currentBatches > :batchCount " +
+            "THEN (s.currentBatches - :batchCount) ELSE 0 END WHERE s.sectionCode = :sectionCode")
+    int releaseSlots(@Param("sectionCode") long sectionCode, @Param("batchCount") int batchCount);
+
+    @Query("SELECT s.sectionCode FROM Section s ORDER BY s.sectionCode")
+    List<Long> findAllSectionCodes();
 
+    @Query("SELECT new com.mercadolibre.bootcamp.projeto_integrador.dto.SectionOwnerDto(s.sectionCode, " +
+            "s.manager.managerId) FROM Section s WHERE s.manager IS NOT NULL")
+    List<SectionOwnerDto> findAllOwners();
 }
@@ -1,27 +1,32 @@
 package com.mercadolibre.bootcamp.projeto_integrador.service;
 
+import com.mercadolibre.bootcamp.projeto_integrador.dto.BatchBuyerPageResponseDto;
 import com.mercadolibre.bootcamp.projeto_integrador.dto.BatchBuyerResponseDto;
 import com.mercadolibre.bootcamp.projeto_integrador.dto.BatchDueDateResponseDto;
 import com.mercadolibre.bootcamp.projeto_integrador.dto.BatchRequestDto;
+import com.mercadolibre.bootcamp.projeto_integrador.event.StockChangedEvent;
 import com.mercadolibre.bootcamp.projeto_integrador.exceptions.*;
+import com.mercadolibre.bootcamp.projeto_integrador.mapper.BatchMapper;
 import com.mercadolibre.bootcamp.projeto_integrador.model.*;
 import com.mercadolibre.bootcamp.projeto_integrador.repository.IBatchRepository;
 import org.apache.commons.lang3.StringUtils;
-import org.modelmapper.Converter;
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 @Service
 public class BatchService implements IBatchService {
-    private final int minimumExpirationDays = 20;
+    private final int maximumPageSize = 1000;
     @Autowired
     private IBatchRepository batchRepository;
     @Autowired
@@ -30,6 +35,16 @@ public class BatchService implements IBatchService {
     private ISectionService sectionService;
     @Autowired
     private IProductService productService;
+    @Autowired
+    private ISellableStockIndex stockIndex;
+    @Autowired
+    private ISectionOwnershipIndex ownershipIndex;
+    @Autowired
+    private IStockVersionService stockVersionService;
+    @Autowired
+    private IProductStockService productStockService;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
 
     /**
      * Metodo que faz o map do DTO de Batch para um objeto Batch e já lhe atribui um produto (que deve existir).
@@ -40,23 +55,17 @@ public class BatchService implements IBatchService {
      * @return Objeto Batch montado com um produto atribuido.
      */
     public static Batch mapDtoToBatch(BatchRequestDto dto, InboundOrder order, Map<Long, Product> products) {
-        ModelMapper modelMapper = new ModelMapper();
-        modelMapper.typeMap(BatchRequestDto.class, Batch.class).addMappings(mapper -> {
-            Converter<Long, Product> converter = context -> products.get(context.getSource());
-            mapper.using(converter).map(BatchRequestDto::getProductId, Batch::setProduct);
-        });
-        Batch batch = modelMapper.map(dto, Batch.class);
-        if (batch.getProduct() == null)
-            throw new NotFoundException("Product");
-        batch.setInboundOrder(order);
-        return batch;
+        return BatchMapper.toBatch(dto, order, getProduct(dto, products));
     }
 
     @Override
     public List<Batch> createAll(List<BatchRequestDto> batchesDto, InboundOrder order) {
         Map<Long, Product> products = productService.getProductMap(batchesDto);
         List<Batch> batches = buildBatchesForCreate(batchesDto, order, products);
-        return batchRepository.saveAll(batches);
+        List<Batch> savedBatches = batchRepository.saveAll(batches);
+        productStockService.addQuantities(savedBatches, Batch::getCurrentQuantity);
+        eventPublisher.publishEvent(StockChangedEvent.of(savedBatches));
+        return savedBatches;
     }
 
     @Override
@@ -76,6 +85,12 @@ public class BatchService implements IBatchService {
         if (!isAllFromSameOrder)
             throw new BadRequestException("Unable to update batches of different orders");
 
+        if (batchesToUpdate.stream().anyMatch(Batch::isArchived))
+            throw new BadRequestException("Unable to update archived batches");
+
+        // Retira dos totais por armazém a quantidade atual, antes que o produto ou a quantidade sejam alterados.
+        productStockService.addQuantities(batchesToUpdate, batch -> -batch.getCurrentQuantity());
+
         Map<Long, BatchRequestDto> batchesDtoMap = batchesDto.stream()
                 .filter(dto -> dto.getBatchNumber() > 0L)
                 .collect(Collectors.toMap(BatchRequestDto::getBatchNumber, dto -> dto));
@@ -90,7 +105,10 @@ public class BatchService implements IBatchService {
 
         List<Batch> batchesToSave = Stream.concat(updatedBatches, batchesToInsert).collect(Collectors.toList());
 
-        return batchRepository.saveAll(batchesToSave);
+        List<Batch> savedBatches = batchRepository.saveAll(batchesToSave);
+        productStockService.addQuantities(savedBatches, Batch::getCurrentQuantity);
+        eventPublisher.publishEvent(StockChangedEvent.of(savedBatches));
+        return savedBatches;
     }
 
     @Override
@@ -113,23 +131,23 @@ public class BatchService implements IBatchService {
     }
 
     /**
-     * Método que busca a lista de Batches com estoque positovo e data de validade superior a 20 dias.
+     * Método que busca a lista de Batches com estoque positovo e data de validade superior a 20 dias, a partir do
+     * índice de estoque em memória, ordenada por data de validade.
      *
      * @return List<Batch>
      */
     @Override
     public List<BatchBuyerResponseDto> findAll() {
-        LocalDate minimumExpirationDate = LocalDate.now().plusDays(minimumExpirationDays);
-        List<Batch> batches = batchRepository.findByCurrentQuantityGreaterThanAndDueDateAfter(0, minimumExpirationDate);
+        List<BatchBuyerResponseDto> batches = stockIndex.findAll();
         if (batches.isEmpty()) {
             throw new NotFoundException("Products", "There are no products in stock");
         }
-        return mapListBatchToListDto(batches);
+        return batches;
     }
 
     /**
      * Método que busca a lista de Batches com estoque positivo e data de validade superior a 20 dias, filtrado por
-     * categoria.
+     * categoria, a partir do índice de estoque em memória.
      *
      * @param categoryCode
      * @return List<Batch>
@@ -137,14 +155,64 @@ public class BatchService implements IBatchService {
     @Override
     public List<BatchBuyerResponseDto> findBatchByCategory(String categoryCode) {
         Section.Category category = getCategory(categoryCode);
-        LocalDate minimumExpirationDate = LocalDate.now().plusDays(minimumExpirationDays);
-        List<Batch> batches = batchRepository
-                .findByCurrentQuantityGreaterThanAndDueDateAfterAndProduct_CategoryIs(0, minimumExpirationDate,
-                        category);
+        List<BatchBuyerResponseDto> batches = stockIndex.findByCategory(category);
         if (batches.isEmpty()) {
             throw new NotFoundException("Products", "There are no products in stock in the requested category");
         }
-        return mapListBatchToListDto(batches);
+        return batches;
+    }
+
+    /**
+     * Método que busca uma página de Batches disponíveis para compra, ordenada por data de validade e número do lote.
+     * A página começa logo após o cursor informado (lastDueDate, lastBatchNumber), de forma que o custo da consulta
+     * não depende de quantas páginas já foram percorridas.
+     *
+     * @param categoryCode    código da categoria, opcional.
+     * @param lastDueDate     data de validade do último lote da página anterior, opcional.
+     * @param lastBatchNumber número do último lote da página anterior.
+     * @param size            quantidade máxima de lotes na página.
+     * @return BatchBuyerPageResponseDto com os lotes e o cursor da próxima página (nulo na última página).
+     */
+    @Override
+    public BatchBuyerPageResponseDto findPage(String categoryCode, LocalDate lastDueDate, long lastBatchNumber, int size) {
+        if (size <= 0 || size > maximumPageSize)
+            throw new BadRequestException("The page size should be between 1 and " + maximumPageSize);
+
+        LocalDate minimumExpirationDate = stockIndex.getSellableAfter();
+        LocalDate cursorDueDate = lastDueDate != null ? lastDueDate : minimumExpirationDate;
+        PageRequest limit = PageRequest.of(0, size);
+
+        List<BatchBuyerResponseDto> batches = categoryCode != null
+                ? batchRepository.findSellableByCategoryAfter(minimumExpirationDate, getCategory(categoryCode),
+                        cursorDueDate, lastBatchNumber, limit)
+                : batchRepository.findSellableAfter(minimumExpirationDate, cursorDueDate, lastBatchNumber, limit);
+
+        if (batches.size() < size) {
+            return new BatchBuyerPageResponseDto(batches, null, null);
+        }
+        BatchBuyerResponseDto last = batches.get(batches.size() - 1);
+        return new BatchBuyerPageResponseDto(batches, last.getDueDate(), last.getBatchNumber());
+    }
+
+    /**
+     * Método que percorre todos os Batches disponíveis para compra diretamente do cursor do banco, entregando um a um
+     * ao consumidor. Como a consulta é uma projeção, nenhum lote fica no contexto de persistência e a memória se
+     * mantém constante.
+     *
+     * @param categoryCode código da categoria, opcional.
+     * @param consumer     função que recebe cada lote convertido.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAll(String categoryCode, Consumer<BatchBuyerResponseDto> consumer) {
+        LocalDate minimumExpirationDate = stockIndex.getSellableAfter();
+        Stream<BatchBuyerResponseDto> batches = categoryCode != null
+                ? batchRepository.streamSellableByCategory(minimumExpirationDate, getCategory(categoryCode))
+                : batchRepository.streamSellable(minimumExpirationDate);
+
+        try (batches) {
+            batches.forEach(consumer);
+        }
     }
 
     /**
@@ -160,20 +228,15 @@ public class BatchService implements IBatchService {
                 .collect(Collectors.toList());
     }
 
-    private Batch updateBatchFromDto(Batch batch, BatchRequestDto dto, Map<Long, Product> products) {
+    private static Product getProduct(BatchRequestDto dto, Map<Long, Product> products) {
         Product product = products.get(dto.getProductId());
-
-        if (product == null) {
+        if (product == null)
             throw new NotFoundException("Product");
-        }
+        return product;
+    }
 
-        batch.setProduct(product);
-        batch.setCurrentTemperature(dto.getCurrentTemperature());
-        batch.setMinimumTemperature(dto.getMinimumTemperature());
-        batch.setManufacturingDate(dto.getManufacturingDate());
-        batch.setManufacturingTime(dto.getManufacturingTime());
-        batch.setDueDate(dto.getDueDate());
-        batch.setProductPrice(dto.getProductPrice());
+    private Batch updateBatchFromDto(Batch batch, BatchRequestDto dto, Map<Long, Product> products) {
+        BatchMapper.copyAttributes(dto, batch, getProduct(dto, products));
 
         int soldProducts = batch.getInitialQuantity() - batch.getCurrentQuantity();
         batch.setCurrentQuantity(dto.getInitialQuantity() - soldProducts);
@@ -200,19 +263,12 @@ public class BatchService implements IBatchService {
         if (numberOfDays < 0)
             throw new BadRequestException("The number of days to expiration can't be negative");
 
-        Section section = sectionService.findById(sectionCode);
-
-        Manager manager = tryFindManagerById(managerId);
-        ensureManagerHasPermissionInSection(manager, section);
+        ensureManagerCanReadSection(sectionCode, managerId);
 
         LocalDate startDate = LocalDate.now();
         LocalDate endDate = LocalDate.now().plusDays(numberOfDays);
 
-        return batchRepository.findByInboundOrder_SectionAndDueDateBetweenOrderByDueDate(section, startDate, endDate)
-                .stream()
-                .filter(batch -> batch.getCurrentQuantity() > 0)
-                .map(BatchDueDateResponseDto::new)
-                .collect(Collectors.toList());
+        return batchRepository.findInStockBySectionAndDueDateBetween(sectionCode, startDate, endDate);
     }
 
     /**
@@ -232,37 +288,77 @@ public class BatchService implements IBatchService {
         LocalDate startDate = LocalDate.now();
         LocalDate endDate = LocalDate.now().plusDays(numberOfDays);
         Section.Category category = getCategory(categoryCode);
-        String orderDirection = StringUtils.trimToEmpty(orderDir);
 
-        tryFindManagerById(managerId);
+        ensureManagerExists(managerId);
 
         if (numberOfDays < 0)
             throw new BadRequestException("The number of days to expiration can't be negative");
 
-        if (!StringUtils.equalsAnyIgnoreCase(orderDirection, "ASC", "DESC"))
-            throw new BadRequestException("The order direction should be either ASC or DESC");
+        String orderDirection = getOrderDirection(orderDir);
 
-        List<Batch> batches = orderDirection.equalsIgnoreCase("ASC")
-                ? batchRepository.findByProduct_CategoryAndDueDateBetweenOrderByDueDateAsc(category, startDate, endDate)
-                : batchRepository.findByProduct_CategoryAndDueDateBetweenOrderByDueDateDesc(category, startDate, endDate);
+        return orderDirection.equals("ASC")
+                ? batchRepository.findInStockByCategoryAndManagerAndDueDateBetweenAsc(category, managerId, startDate, endDate)
+                : batchRepository.findInStockByCategoryAndManagerAndDueDateBetweenDesc(category, managerId, startDate, endDate);
+    }
 
-        return batches.stream()
-                .filter(batch -> batch.getInboundOrder().getSection().getManager().getManagerId() == managerId)
-                .filter(batch -> batch.getCurrentQuantity() > 0)
-                .map(BatchDueDateResponseDto::new)
-                .collect(Collectors.toList());
+    /**
+     * Método que retorna a ETag do catálogo de lotes disponíveis para venda, geral ou de uma categoria.
+     * Muda quando o estoque da categoria é alterado ou quando a data de corte de validade avança.
+     *
+     * @param categoryCode Código da categoria (opcional)
+     * @return ETag da resposta
+     */
+    @Override
+    public String getCatalogETag(String categoryCode) {
+        LocalDate minimumExpirationDate = stockIndex.getSellableAfter();
+        if (categoryCode == null)
+            return stockVersionService.buildETag("all", stockVersionService.getVersion(), minimumExpirationDate);
+
+        Section.Category category = getCategory(categoryCode);
+        return stockVersionService.buildETag(category, stockVersionService.getCategoryVersion(category),
+                minimumExpirationDate);
     }
 
     /**
-     * Método converte a lista de Batch para uma lista de BatchBuyerResponseDto.
+     * Método que retorna a ETag da consulta de lotes por seção e data de vencimento.
+     * Muda quando o estoque ou o representante da seção é alterado ou quando o dia vira. A permissão do representante
+     * é verificada antes, para que a ETag e o cache nunca respondam a quem não pode ver a seção.
      *
-     * @param batches
-     * @return List<BatchBuyerResponseDto>
+     * @param sectionCode  Código da seção
+     * @param numberOfDays Número de dias a partir de hoje
+     * @param managerId    ID do representante
+     * @return ETag da resposta
      */
-    private List<BatchBuyerResponseDto> mapListBatchToListDto(List<Batch> batches) {
-        return batches.stream()
-                .map(BatchBuyerResponseDto::new)
-                .collect(Collectors.toList());
+    @Override
+    public String getDueDateETag(long sectionCode, int numberOfDays, long managerId) {
+        ensureManagerCanReadSection(sectionCode, managerId);
+        return stockVersionService.buildETag("section-" + sectionCode, stockVersionService.getSectionVersion(sectionCode),
+                LocalDate.now(), numberOfDays, managerId);
+    }
+
+    /**
+     * Método que retorna a ETag da consulta de lotes por categoria e data de vencimento.
+     * Muda quando o estoque da categoria ou o representante de uma seção da categoria é alterado, ou quando o dia vira.
+     *
+     * @param categoryCode Código da categoria
+     * @param numberOfDays Número de dias a partir de hoje
+     * @param orderDir     Direção da ordenação
+     * @param managerId    ID do representante
+     * @return ETag da resposta
+     */
+    @Override
+    public String getDueDateETag(String categoryCode, int numberOfDays, String orderDir, long managerId) {
+        Section.Category category = getCategory(categoryCode);
+        ensureManagerExists(managerId);
+        return stockVersionService.buildETag(category, stockVersionService.getCategoryVersion(category),
+                LocalDate.now(), numberOfDays, getOrderDirection(orderDir), managerId);
+    }
+
+    private String getOrderDirection(String orderDir) {
+        String orderDirection = StringUtils.trimToEmpty(orderDir).toUpperCase();
+        if (!StringUtils.equalsAny(orderDirection, "ASC", "DESC"))
+            throw new BadRequestException("The order direction should be either ASC or DESC");
+        return orderDirection;
     }
 
     /**
@@ -286,6 +382,27 @@ public class BatchService implements IBatchService {
         }
     }
 
+    /**
+     * Verifica se o representante é dono da seção. Se o índice confirma, ambos existem; senão o banco decide qual
+     * erro retornar.
+     */
+    private void ensureManagerCanReadSection(long sectionCode, long managerId) {
+        if (ownershipIndex.owns(managerId, sectionCode))
+            return;
+        Section section = sectionService.findById(sectionCode);
+
+        Manager manager = tryFindManagerById(managerId);
+        ensureManagerHasPermissionInSection(manager, section);
+    }
+
+    /**
+     * Um representante com seções no índice existe; só os demais precisam ser buscados no banco.
+     */
+    private void ensureManagerExists(long managerId) {
+        if (!ownershipIndex.hasSections(managerId))
+            tryFindManagerById(managerId);
+    }
+
     private void ensureManagerHasPermissionInSection(Manager manager, Section section) {
         if (section.getManager().getManagerId() != manager.getManagerId())
             throw new UnauthorizedManagerException(manager.getName());
@@ -1,12 +1,15 @@
 package com.mercadolibre.bootcamp.projeto_integrador.service;
 
+import com.mercadolibre.bootcamp.projeto_integrador.dto.BatchBuyerPageResponseDto;
 import com.mercadolibre.bootcamp.projeto_integrador.dto.BatchBuyerResponseDto;
 import com.mercadolibre.bootcamp.projeto_integrador.dto.BatchDueDateResponseDto;
 import com.mercadolibre.bootcamp.projeto_integrador.dto.BatchRequestDto;
 import com.mercadolibre.bootcamp.projeto_integrador.model.Batch;
 import com.mercadolibre.bootcamp.projeto_integrador.model.InboundOrder;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface IBatchService {
     List<Batch> createAll(List<BatchRequestDto> batchesDto, InboundOrder order);
@@ -20,7 +23,17 @@ public interface IBatchService {
 
     List<BatchBuyerResponseDto> findBatchByCategory(String categoryCode);
 
+    BatchBuyerPageResponseDto findPage(String categoryCode, LocalDate lastDueDate, long lastBatchNumber, int size);
+
+    void streamAll(String categoryCode, Consumer<BatchBuyerResponseDto> consumer);
+
     List<BatchDueDateResponseDto> findBatchBySection(long sectionCode, int numberOfDays, long managerId);
 
     List<BatchDueDateResponseDto> findBatchByCategoryAndDueDate(String categoryCode, int numberOfDays, String orderDir, long managerId);
+
+    String getCatalogETag(String categoryCode);
+
+    String getDueDateETag(long sectionCode, int numberOfDays, long managerId);
+
+    String getDueDateETag(String categoryCode, int numberOfDays, String orderDir, long managerId);
 }
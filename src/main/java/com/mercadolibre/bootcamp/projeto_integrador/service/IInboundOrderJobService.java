@@ -0,0 +1,12 @@
+package com.mercadolibre.bootcamp.projeto_integrador.service;
+
+import com.mercadolibre.bootcamp.projeto_integrador.dto.InboundOrderJobDto;
+import com.mercadolibre.bootcamp.projeto_integrador.dto.InboundOrderRequestDto;
+
+public interface IInboundOrderJobService {
+    InboundOrderJobDto submit(InboundOrderRequestDto request, long managerId);
+
+    InboundOrderJobDto findById(String jobId, long managerId);
+
+    int evictFinishedJobs();
+}
@@ -10,6 +10,8 @@ import java.util.Map;
 public interface IProductService {
 
     public ProductResponseDto getWarehouses(long productId, long managerId);
+    List<ProductResponseDto> getWarehouses(List<Long> productIds, long managerId);
     Map<Long, Product> getProductMap(List<BatchRequestDto> batchesDto);
     ProductDetailsResponseDto getProductDetails(long productId, long managerId, String orderBy);
+    ProductDetailsResponseDto getProductDetails(long productId, long managerId, String orderBy, int page, int size);
 }
@@ -0,0 +1,23 @@
+package com.mercadolibre.bootcamp.projeto_integrador.service;
+
+import com.mercadolibre.bootcamp.projeto_integrador.dto.WarehouseResponseDto;
+import com.mercadolibre.bootcamp.projeto_integrador.model.Batch;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToIntFunction;
+
+public interface IProductStockService {
+    List<WarehouseResponseDto> findWarehouses(long productId);
+
+    Map<Long, List<WarehouseResponseDto>> findWarehouses(Collection<Long> productIds);
+
+    void addQuantities(Collection<Batch> batches, ToIntFunction<Batch> quantity);
+
+    void addQuantitiesByBatchNumber(Map<Long, Integer> quantities);
+
+    void addQuantity(long productId, long warehouseCode, int quantity);
+
+    void backfill();
+}
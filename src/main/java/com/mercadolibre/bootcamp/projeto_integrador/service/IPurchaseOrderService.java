@@ -2,15 +2,21 @@ package com.mercadolibre.bootcamp.projeto_integrador.service;
 
 import com.mercadolibre.bootcamp.projeto_integrador.dto.BatchBuyerResponseDto;
 import com.mercadolibre.bootcamp.projeto_integrador.dto.BatchPurchaseOrderRequestDto;
+import com.mercadolibre.bootcamp.projeto_integrador.dto.PurchaseOrderBulkRequestDto;
+import com.mercadolibre.bootcamp.projeto_integrador.dto.PurchaseOrderBulkResponseDto;
 import com.mercadolibre.bootcamp.projeto_integrador.dto.PurchaseOrderRequestDto;
 import com.mercadolibre.bootcamp.projeto_integrador.dto.PurchaseOrderResponseDto;
+import com.mercadolibre.bootcamp.projeto_integrador.dto.ReleasedReservationsReportDto;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface IPurchaseOrderService {
     PurchaseOrderResponseDto create (PurchaseOrderRequestDto request, long buyerId);
+    PurchaseOrderBulkResponseDto createBulk(PurchaseOrderBulkRequestDto request, long buyerId);
     PurchaseOrderResponseDto update (long purchaseOrderId, long buyerId);
     void dropProducts(long purchaseOrderId, BatchPurchaseOrderRequestDto batchDto, long buyerId);
     List<BatchBuyerResponseDto> getBatches(long buyerId, long purchaseOrderId);
-    void dropAbandonedPurchase(long dropoutTimeInMinutes);
+    List<ReleasedReservationsReportDto> dropAbandonedPurchase(long dropoutTimeInMinutes);
+    ReleasedReservationsReportDto dropExpiredPurchases(Collection<Long> purchaseOrderIds, long dropoutTimeInMinutes);
 }
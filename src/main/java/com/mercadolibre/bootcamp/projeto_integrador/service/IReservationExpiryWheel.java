@@ -0,0 +1,16 @@
+package com.mercadolibre.bootcamp.projeto_integrador.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface IReservationExpiryWheel {
+    void rebuild();
+
+    void schedule(long purchaseId, LocalDateTime updateDateTime);
+
+    void cancel(long purchaseId);
+
+    List<Long> advance(long nowMillis);
+
+    int size();
+}
@@ -0,0 +1,13 @@
+package com.mercadolibre.bootcamp.projeto_integrador.service;
+
+import com.mercadolibre.bootcamp.projeto_integrador.dto.ResponseCacheStatsDto;
+
+import java.util.function.Supplier;
+
+public interface IResponseCacheService {
+    byte[] getOrSerialize(String etag, Supplier<?> body);
+
+    void invalidateAll();
+
+    ResponseCacheStatsDto getStats();
+}
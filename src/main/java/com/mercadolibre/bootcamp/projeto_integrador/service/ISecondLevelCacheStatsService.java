@@ -0,0 +1,7 @@
+package com.mercadolibre.bootcamp.projeto_integrador.service;
+
+import com.mercadolibre.bootcamp.projeto_integrador.dto.SecondLevelCacheStatsDto;
+
+public interface ISecondLevelCacheStatsService {
+    SecondLevelCacheStatsDto getStats();
+}
@@ -0,0 +1,13 @@
+package com.mercadolibre.bootcamp.projeto_integrador.service;
+
+public interface ISectionOwnershipIndex {
+    void rebuild();
+
+    void update(long sectionCode, long managerId);
+
+    boolean owns(long managerId, long sectionCode);
+
+    boolean hasSections(long managerId);
+
+    long[] getSectionCodes(long managerId);
+}
@@ -9,4 +9,8 @@ public interface ISectionService {
     Section findById(long sectionCode);
 
     Section update(Section section, List<BatchRequestDto> batchesToInsert, long managerId);
+
+    void ensureManagerHasPermissionInSection(long managerId, Section section);
+
+    int archiveStaleBatches();
 }
@@ -0,0 +1,34 @@
+package com.mercadolibre.bootcamp.projeto_integrador.service;
+
+import com.mercadolibre.bootcamp.projeto_integrador.dto.BatchBuyerResponseDto;
+import com.mercadolibre.bootcamp.projeto_integrador.model.Section;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+public interface ISellableStockIndex {
+    void rebuild();
+
+    void update(List<BatchBuyerResponseDto> batches);
+
+    void refresh(Collection<Long> batchNumbers);
+
+    List<BatchBuyerResponseDto> findAll();
+
+    List<BatchBuyerResponseDto> findByCategory(Section.Category category);
+
+    boolean contains(long batchNumber);
+
+    boolean isSellable(long batchNumber);
+
+    boolean isReservable(long batchNumber);
+
+    LocalDate getSellableAfter();
+
+    LocalDate getReservableAfter();
+
+    void advance(LocalDate day);
+
+    List<Long> findInconsistencies();
+}
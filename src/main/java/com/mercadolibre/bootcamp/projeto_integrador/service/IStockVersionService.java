@@ -0,0 +1,17 @@
+package com.mercadolibre.bootcamp.projeto_integrador.service;
+
+import com.mercadolibre.bootcamp.projeto_integrador.model.Section;
+
+public interface IStockVersionService {
+    long getVersion();
+
+    long getCategoryVersion(Section.Category category);
+
+    long getSectionVersion(long sectionCode);
+
+    void invalidateAll();
+
+    String buildETag(Object... parts);
+
+    String getETagPrefix(Object scope);
+}
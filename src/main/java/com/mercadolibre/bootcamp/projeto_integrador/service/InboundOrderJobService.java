@@ -0,0 +1,134 @@
+package com.mercadolibre.bootcamp.projeto_integrador.service;
+
+import com.mercadolibre.bootcamp.projeto_integrador.dto.InboundOrderJobDto;
+import com.mercadolibre.bootcamp.projeto_integrador.dto.InboundOrderRequestDto;
+import com.mercadolibre.bootcamp.projeto_integrador.enums.InboundOrderJobStatus;
+import com.mercadolibre.bootcamp.projeto_integrador.exceptions.CustomError;
+import com.mercadolibre.bootcamp.projeto_integrador.exceptions.CustomException;
+import com.mercadolibre.bootcamp.projeto_integrador.exceptions.NotFoundException;
+import com.mercadolibre.bootcamp.projeto_integrador.exceptions.TooManyRequestsException;
+import com.mercadolibre.bootcamp.projeto_integrador.model.Section;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Criação assíncrona de InboundOrders.
+ * <p>
+ * Os pedidos aceitos entram em uma fila limitada atendida por um pool próprio de workers, fora das threads do Tomcat.
+ * Quando a fila está cheia o pedido é recusado com 429, em vez de acumular memória. O estado de cada job fica em
+ * memória até JOB_RETENTION_MINUTES depois de terminado.
+ */
+@Service
+public class InboundOrderJobService implements IInboundOrderJobService {
+    private static final Logger logger = LoggerFactory.getLogger(InboundOrderJobService.class);
+    public static final int WORKERS = 4;
+    public static final int QUEUE_CAPACITY = 100;
+    public static final int JOB_RETENTION_MINUTES = 60;
+
+    @Autowired
+    private IInboundOrderService inboundOrderService;
+
+    @Autowired
+    private ISectionService sectionService;
+
+    private final Map<String, InboundOrderJobDto> jobs = new ConcurrentHashMap<>();
+
+    private final ThreadPoolExecutor executor = new ThreadPoolExecutor(WORKERS, WORKERS, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(QUEUE_CAPACITY), new CustomizableThreadFactory("inbound-order-"),
+            new ThreadPoolExecutor.AbortPolicy());
+
+    /**
+     * Valida a seção e a permissão do representante e coloca o pedido na fila.
+     *
+     * @param request   pedido já validado pelo controller
+     * @param managerId id do representante
+     * @return job na fila, com o id para consulta
+     * @throws TooManyRequestsException se a fila estiver cheia
+     */
+    @Override
+    public InboundOrderJobDto submit(InboundOrderRequestDto request, long managerId) {
+        Section section = sectionService.findById(request.getSectionCode());
+        sectionService.ensureManagerHasPermissionInSection(managerId, section);
+
+        InboundOrderJobDto job = new InboundOrderJobDto();
+        job.setJobId(UUID.randomUUID().toString());
+        job.setManagerId(managerId);
+        job.setBatches(request.getBatchStock().size());
+        job.setSubmittedAt(LocalDateTime.now());
+        job.setStatus(InboundOrderJobStatus.QUEUED);
+
+        jobs.put(job.getJobId(), job);
+        try {
+            executor.execute(() -> run(job, request));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getJobId());
+            throw new TooManyRequestsException("Inbound order queue");
+        }
+        return job;
+    }
+
+    /**
+     * @return job do representante informado
+     * @throws NotFoundException se o job não existir, já tiver sido descartado ou for de outro representante
+     */
+    @Override
+    public InboundOrderJobDto findById(String jobId, long managerId) {
+        InboundOrderJobDto job = jobs.get(jobId);
+        if (job == null || job.getManagerId() != managerId)
+            throw new NotFoundException("Inbound order job");
+        return job;
+    }
+
+    /**
+     * Descarta os jobs terminados há mais de JOB_RETENTION_MINUTES.
+     *
+     * @return quantidade de jobs descartados
+     */
+    @Override
+    public int evictFinishedJobs() {
+        LocalDateTime limit = LocalDateTime.now().minusMinutes(JOB_RETENTION_MINUTES);
+        int sizeBefore = jobs.size();
+        jobs.values().removeIf(job -> job.getFinishedAt() != null && job.getFinishedAt().isBefore(limit));
+        return sizeBefore - jobs.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private void run(InboundOrderJobDto job, InboundOrderRequestDto request) {
+        job.setStartedAt(LocalDateTime.now());
+        job.setStatus(InboundOrderJobStatus.RUNNING);
+        try {
+            job.setResult(inboundOrderService.create(request, job.getManagerId()));
+            job.setFinishedAt(LocalDateTime.now());
+            job.setStatus(InboundOrderJobStatus.DONE);
+        } catch (CustomException e) {
+            finishWithError(job, new CustomError(e));
+        } catch (RuntimeException e) {
+            logger.error("Inbound order job {} failed", job.getJobId(), e);
+            finishWithError(job, new CustomError("Internal Server Error",
+                    "An internal server error has occurred.", LocalDateTime.now()));
+        }
+    }
+
+    private void finishWithError(InboundOrderJobDto job, CustomError error) {
+        job.setError(error);
+        job.setFinishedAt(LocalDateTime.now());
+        job.setStatus(InboundOrderJobStatus.FAILED);
+    }
+}
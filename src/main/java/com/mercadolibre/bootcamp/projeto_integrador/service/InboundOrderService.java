@@ -1,23 +1,47 @@
 package com.mercadolibre.bootcamp.projeto_integrador.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.mercadolibre.bootcamp.projeto_integrador.dto.BatchRequestDto;
+import com.mercadolibre.bootcamp.projeto_integrador.dto.InboundLineErrorDto;
+import com.mercadolibre.bootcamp.projeto_integrador.dto.InboundOrderIngestionReportDto;
 import com.mercadolibre.bootcamp.projeto_integrador.dto.InboundOrderRequestDto;
 import com.mercadolibre.bootcamp.projeto_integrador.dto.InboundOrderResponseDto;
+import com.mercadolibre.bootcamp.projeto_integrador.exceptions.CustomException;
+import com.mercadolibre.bootcamp.projeto_integrador.exceptions.IncompatibleCategoryException;
 import com.mercadolibre.bootcamp.projeto_integrador.exceptions.NotFoundException;
 import com.mercadolibre.bootcamp.projeto_integrador.model.Batch;
 import com.mercadolibre.bootcamp.projeto_integrador.model.InboundOrder;
+import com.mercadolibre.bootcamp.projeto_integrador.model.Product;
 import com.mercadolibre.bootcamp.projeto_integrador.model.Section;
 import com.mercadolibre.bootcamp.projeto_integrador.repository.IInboundOrderRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 public class InboundOrderService implements IInboundOrderService {
+    private static final Logger logger = LoggerFactory.getLogger(InboundOrderService.class);
+
 
     @Autowired
     private IBatchService batchService;
@@ -28,6 +52,22 @@ public class InboundOrderService implements IInboundOrderService {
     @Autowired
     private ISectionService sectionService;
 
+    @Autowired
+    private IProductService productService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Validator validator;
+
+    private final int INGESTION_CHUNK_SIZE = 500;
+    private final int MAXIMUM_REPORTED_ERRORS = 1000;
+    public static final int MAXIMUM_LINE_BYTES = 16 * 1024;
+
     /**
      * Método que faz a criação da InboundOrder com novos lotes
      * @param request InboundOrderRequestDto
@@ -39,11 +79,7 @@ public class InboundOrderService implements IInboundOrderService {
         Section section = sectionService.findById(request.getSectionCode());
         sectionService.update(section, request.getBatchStock(), managerId);
 
-        InboundOrder order = new InboundOrder();
-        order.setSection(section);
-        order.setOrderDate(LocalDate.now());
-
-        inboundOrderRepository.save(order);
+        InboundOrder order = saveOrder(section);
 
         List<Batch> batches = batchService.createAll(request.getBatchStock(), order);
 
@@ -72,4 +108,175 @@ public class InboundOrderService implements IInboundOrderService {
 
         return new InboundOrderResponseDto(savedBatches);
     }
+
+    /**
+     * Cria uma InboundOrder a partir de um fluxo NDJSON, com um BatchRequestDto por linha.
+     * As linhas são lidas uma a uma, guardando no máximo MAXIMUM_LINE_BYTES bytes de cada (linhas maiores são recusadas
+     * sem serem guardadas inteiras), e inseridas em blocos de até INGESTION_CHUNK_SIZE lotes, cada bloco em sua própria
+     * transação e com as mesmas verificações de categoria e espaço da seção feitas na criação. Linhas inválidas e blocos
+     * recusados não interrompem a leitura: são informados no relatório, com o número da linha.
+     * A ordem de entrada é criada junto com o primeiro bloco inserido.
+     *
+     * @param sectionCode código da seção que recebe os lotes
+     * @param batches     corpo da requisição, em NDJSON
+     * @param managerId   id do representante
+     * @return relatório com a ordem criada, os lotes inseridos e os erros por linha
+     */
+    @Override
+    public InboundOrderIngestionReportDto ingest(long sectionCode, InputStream batches, long managerId) {
+        Section section = sectionService.findById(sectionCode);
+        sectionService.ensureManagerHasPermissionInSection(managerId, section);
+
+        InboundOrderIngestionReportDto report = new InboundOrderIngestionReportDto();
+        ObjectReader reader = objectMapper.readerFor(BatchRequestDto.class);
+        Map<Long, BatchRequestDto> chunk = new LinkedHashMap<>();
+        long lineNumber = 0;
+
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        try (InputStream input = new BufferedInputStream(batches)) {
+            long lineLength;
+            while ((lineLength = readLine(input, line)) != -1) {
+                lineNumber++;
+                byte[] content = line.toByteArray();
+                if (isBlank(content))
+                    continue;
+                report.setReceivedLines(report.getReceivedLines() + 1);
+
+                if (lineLength > MAXIMUM_LINE_BYTES) {
+                    reject(report, lineNumber, "The line exceeds " + MAXIMUM_LINE_BYTES + " bytes");
+                    continue;
+                }
+                BatchRequestDto dto = parseLine(reader, content, lineNumber, report);
+                if (dto == null)
+                    continue;
+                chunk.put(lineNumber, dto);
+                if (chunk.size() == INGESTION_CHUNK_SIZE) {
+                    insertChunk(section, chunk, managerId, report);
+                    chunk.clear();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (!chunk.isEmpty())
+            insertChunk(section, chunk, managerId, report);
+
+        return report;
+    }
+
+    /**
+     * Lê a próxima linha do fluxo para o buffer, guardando no máximo MAXIMUM_LINE_BYTES bytes. O restante de uma linha
+     * maior é lido e descartado, então a memória usada não depende do tamanho da linha.
+     *
+     * @return o tamanho da linha em bytes, que pode passar do limite, ou -1 no fim do fluxo
+     */
+    private static long readLine(InputStream input, ByteArrayOutputStream line) throws IOException {
+        line.reset();
+        long length = 0;
+        int read;
+        while ((read = input.read()) != -1 && read != '\n') {
+            if (length++ < MAXIMUM_LINE_BYTES)
+                line.write(read);
+        }
+        return read == -1 && length == 0 ? -1 : length;
+    }
+
+    private static boolean isBlank(byte[] line) {
+        for (byte character : line) {
+            if (!Character.isWhitespace(character))
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Converte e valida uma linha. Linhas com JSON inválido ou que não passam nas validações do DTO são recusadas.
+     *
+     * @return o DTO da linha, ou null quando ela foi recusada
+     */
+    private BatchRequestDto parseLine(ObjectReader reader, byte[] line, long lineNumber,
+                                      InboundOrderIngestionReportDto report) throws IOException {
+        BatchRequestDto dto;
+        try {
+            dto = reader.readValue(line);
+        } catch (JsonProcessingException e) {
+            reject(report, lineNumber, "Invalid JSON: " + e.getOriginalMessage());
+            return null;
+        }
+
+        Set<ConstraintViolation<BatchRequestDto>> violations = validator.validate(dto);
+        if (!violations.isEmpty()) {
+            reject(report, lineNumber, violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .distinct()
+                    .collect(Collectors.joining(" | ")));
+            return null;
+        }
+        return dto;
+    }
+
+    /**
+     * Insere um bloco de lotes em uma transação. Lotes de produtos inexistentes ou de categoria incompatível com a
+     * seção são recusados individualmente; se a seção recusar o restante do bloco (por exemplo, por falta de espaço)
+     * ou se o banco recusar a gravação, todas as suas linhas são recusadas com o mesmo erro e os próximos blocos
+     * continuam sendo inseridos.
+     *
+     * @param chunk lotes validados, indexados pelo número da linha
+     */
+    private void insertChunk(Section section, Map<Long, BatchRequestDto> chunk, long managerId,
+                             InboundOrderIngestionReportDto report) {
+        Map<Long, Product> products = productService.getProductMap(new ArrayList<>(chunk.values()));
+        Map<Long, BatchRequestDto> accepted = new LinkedHashMap<>();
+
+        chunk.forEach((lineNumber, dto) -> {
+            Product product = products.get(dto.getProductId());
+            if (product == null)
+                reject(report, lineNumber, new NotFoundException("Product").getMessage());
+            else if (!product.getCategory().equals(section.getCategory()))
+                reject(report, lineNumber,
+                        new IncompatibleCategoryException(List.of(product.getProductName())).getMessage());
+            else
+                accepted.put(lineNumber, dto);
+        });
+        if (accepted.isEmpty())
+            return;
+
+        List<BatchRequestDto> batchesToInsert = new ArrayList<>(accepted.values());
+        try {
+            List<Batch> savedBatches = transactionTemplate.execute(status -> {
+                Section currentSection = sectionService.update(
+                        sectionService.findById(section.getSectionCode()), batchesToInsert, managerId);
+                InboundOrder order = report.getOrderNumber() == 0
+                        ? saveOrder(currentSection)
+                        : inboundOrderRepository.findById(report.getOrderNumber())
+                                .orElseThrow(() -> new NotFoundException("Inbound Order"));
+                return batchService.createAll(batchesToInsert, order);
+            });
+            report.setOrderNumber(savedBatches.get(0).getInboundOrder().getOrderNumber());
+            report.setInsertedBatches(report.getInsertedBatches() + savedBatches.size());
+        } catch (CustomException e) {
+            accepted.keySet().forEach(lineNumber -> reject(report, lineNumber, e.getMessage()));
+        } catch (RuntimeException e) {
+            logger.warn("Could not store an ingestion chunk of section {}", section.getSectionCode(), e);
+            accepted.keySet().forEach(lineNumber -> reject(report, lineNumber, "The batches could not be stored"));
+        }
+    }
+
+    /**
+     * Conta uma linha recusada. Apenas os primeiros MAXIMUM_REPORTED_ERRORS erros são detalhados, para que o relatório
+     * não cresça com o tamanho do fluxo.
+     */
+    private void reject(InboundOrderIngestionReportDto report, long lineNumber, String message) {
+        report.setRejectedLines(report.getRejectedLines() + 1);
+        if (report.getErrors().size() < MAXIMUM_REPORTED_ERRORS)
+            report.getErrors().add(new InboundLineErrorDto(lineNumber, message));
+    }
+
+    private InboundOrder saveOrder(Section section) {
+        InboundOrder order = new InboundOrder();
+        order.setSection(section);
+        order.setOrderDate(LocalDate.now());
+        inboundOrderRepository.save(order);
+        return order;
+    }
 }
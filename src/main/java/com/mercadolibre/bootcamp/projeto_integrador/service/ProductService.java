@@ -9,6 +9,9 @@ import com.mercadolibre.bootcamp.projeto_integrador.repository.IBatchRepository;
 import com.mercadolibre.bootcamp.projeto_integrador.repository.IManagerRepository;
 import com.mercadolibre.bootcamp.projeto_integrador.repository.IProductRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
@@ -21,12 +24,16 @@ import com.mercadolibre.bootcamp.projeto_integrador.exceptions.EmptyStockExcepti
 import com.mercadolibre.bootcamp.projeto_integrador.model.Product;
 import org.apache.commons.lang3.StringUtils;
 
-import java.util.Comparator;
+import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 public class ProductService implements IProductService {
+    private final int maximumProductsPerRequest = 100;
+    private final int maximumPageSize = 1000;
+
     @Autowired
     private IProductRepository productRepository;
 
@@ -39,90 +46,154 @@ public class ProductService implements IProductService {
     @Autowired
     private IManagerService managerService;
 
+    @Autowired
+    private IProductStockService productStockService;
+
+    @Autowired
+    private ISectionOwnershipIndex ownershipIndex;
+
     /**
-     * Metodo que retorna todos armazens que contenham um determinado item com as quantidades totais.
+     * Metodo que retorna todos armazens que contenham um determinado item com as quantidades totais, lidas dos
+     * totais por produto e armazém mantidos a cada alteração de estoque.
      * @param productId long representando o id do produto
      * @return ProductResponseDto contendo o id do produto com uma lista de códigos de armazens com quantidades do produto.
      */
     @Override
     public ProductResponseDto getWarehouses(long productId, long managerId) {
-        managerService.findById(managerId);
-        List<Batch> batchList = batchRepository.findAllByProduct(productRepository.findById(productId).orElseThrow(() -> new NotFoundException("Product")));
-        List<WarehouseResponseDto> warehouses = new ArrayList<>();
-
-        batchList.stream()
-                .collect(Collectors.groupingBy(b -> b.getInboundOrder().getSection().getWarehouse().getWarehouseCode(),
-                        Collectors.summingInt(b -> b.getCurrentQuantity())))
-                .forEach((warehouseCode, totalQuantity) -> warehouses.add(new WarehouseResponseDto(warehouseCode, totalQuantity)));
-        return new ProductResponseDto(productId, warehouses);
+        ensureManagerExists(managerId);
+        if (!productRepository.existsById(productId))
+            throw new NotFoundException("Product");
+        return new ProductResponseDto(productId, productStockService.findWarehouses(productId));
     }
 
     /**
-     * Método que retorna os detalhes do produto.
+     * Metodo que retorna os armazens de vários produtos de uma vez, com uma única leitura dos totais por produto e
+     * armazém.
+     * @param productIds lista de ids dos produtos, sem repetições
+     * @return Lista de ProductResponseDto na ordem dos ids recebidos, inclusive para produtos sem estoque.
+     * @throws BadRequestException Caso a lista esteja vazia ou passe do limite de produtos.
+     * @throws NotFoundException Caso algum dos produtos não exista.
+     */
+    @Override
+    public List<ProductResponseDto> getWarehouses(List<Long> productIds, long managerId) {
+        ensureManagerExists(managerId);
+        Set<Long> distinctProductIds = new LinkedHashSet<>(productIds);
+        if (distinctProductIds.isEmpty() || distinctProductIds.size() > maximumProductsPerRequest)
+            throw new BadRequestException("The number of products should be between 1 and " + maximumProductsPerRequest);
+        if (productRepository.countByProductIdIn(distinctProductIds) != distinctProductIds.size())
+            throw new NotFoundException("Product");
+
+        Map<Long, List<WarehouseResponseDto>> warehouses = productStockService.findWarehouses(distinctProductIds);
+        return distinctProductIds.stream()
+                .map(productId -> new ProductResponseDto(productId, warehouses.getOrDefault(productId, List.of())))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Método que retorna os detalhes do produto, com todos os lotes guardados nas seções do representante. O filtro e
+     * a ordenação são aplicados no banco; a resposta vem como uma única página, sem próxima.
      *
      * @param productId ID do produto
      * @param managerId ID do representante
+     * @param orderBy   L: batchNumber, Q: currentQuantity, V: dueDate. Sem ordenação, usa o batchNumber.
      * @return Detalhes do produto
+     * @throws BadRequestException Caso a ordenação seja inválida.
+     * @throws EmptyStockException Caso o representante não tenha lotes do produto.
      */
     @Override
     public ProductDetailsResponseDto getProductDetails(long productId, long managerId, String orderBy) {
         ensureManagerExists(managerId);
+        Sort sort = getSort(orderBy);
+
         Product product = productRepository.findById(productId).orElseThrow(() -> new NotFoundException("product"));
-        List<BatchResponseDto> batches = batchRepository.findAllByProduct(product)
-                .stream()
-                .filter(batch -> batch.getInboundOrder().getSection().getManager().getManagerId() == managerId)
+        List<Batch> batches = batchRepository.findByProductAndManager(productId, managerId, sort);
+
+        if (batches.isEmpty())
+            throw new EmptyStockException(product.getProductName());
+
+        List<BatchResponseDto> batchStock = batches.stream()
                 .map(BatchResponseDto::new)
                 .collect(Collectors.toList());
+        return new ProductDetailsResponseDto(productId, batchStock, 0, batchStock.size(), false);
+    }
 
-        if (batches.isEmpty())
+    /**
+     * Método que retorna os detalhes do produto, com uma página dos lotes guardados nas seções do representante.
+     * O filtro, a ordenação e o limite são aplicados no banco, então o tempo de resposta depende do tamanho da página
+     * e não da quantidade de lotes do produto.
+     *
+     * @param productId ID do produto
+     * @param managerId ID do representante
+     * @param orderBy   L: batchNumber, Q: currentQuantity, V: dueDate. Sem ordenação, usa o batchNumber.
+     * @param page      Número da página, a partir de 0
+     * @param size      Quantidade de lotes por página
+     * @return Detalhes do produto
+     * @throws BadRequestException Caso a ordenação ou a paginação sejam inválidas.
+     * @throws EmptyStockException Caso o representante não tenha lotes do produto.
+     */
+    @Override
+    public ProductDetailsResponseDto getProductDetails(long productId, long managerId, String orderBy, int page, int size) {
+        ensureManagerExists(managerId);
+        Sort sort = getSort(orderBy);
+        if (page < 0)
+            throw new BadRequestException("The page number can't be negative");
+        if (size <= 0 || size > maximumPageSize)
+            throw new BadRequestException("The page size should be between 1 and " + maximumPageSize);
+
+        Product product = productRepository.findById(productId).orElseThrow(() -> new NotFoundException("product"));
+        Slice<Batch> batches = batchRepository.findByProductAndManager(productId, managerId, PageRequest.of(page, size, sort));
+
+        if (page == 0 && batches.isEmpty())
             throw new EmptyStockException(product.getProductName());
 
-        return new ProductDetailsResponseDto(productId, sortBatches(batches, orderBy));
+        List<BatchResponseDto> batchStock = batches.stream()
+                .map(BatchResponseDto::new)
+                .collect(Collectors.toList());
+        return new ProductDetailsResponseDto(productId, batchStock, page, size, batches.hasNext());
     }
 
     /**
-     * Ordena uma lista de Batch de acordo com o parâmetro recebido.
+     * Converte o parâmetro de ordenação na ordenação da consulta, desempatando pelo número do lote.
      *
-     * @param batches lista de lotes
      * @param orderBy L: batchNumber, Q: currentQuantity, V: dueDate.
-     * @return Lista ordenada de batches.
+     * @return Ordenação da consulta.
      * @throws BadRequestException Caso o parâmetro seja inválido.
      */
-    private List<BatchResponseDto> sortBatches(List<BatchResponseDto> batches, String orderBy) throws BadRequestException {
+    private Sort getSort(String orderBy) throws BadRequestException {
         if (StringUtils.isBlank(orderBy))
-            return batches;
+            return Sort.by("batchNumber");
 
         switch (orderBy.toUpperCase()) {
             case "L":
-                return batches.stream()
-                        .sorted(Comparator.comparing(BatchResponseDto::getBatchNumber))
-                        .collect(Collectors.toList());
+                return Sort.by("batchNumber");
             case "Q":
-                return batches.stream()
-                        .sorted(Comparator.comparing(BatchResponseDto::getCurrentQuantity))
-                        .collect(Collectors.toList());
+                return Sort.by("currentQuantity", "batchNumber");
             case "V":
-                return batches.stream()
-                        .sorted(Comparator.comparing(BatchResponseDto::getDueDate))
-                        .collect(Collectors.toList());
+                return Sort.by("dueDate", "batchNumber");
             default:
                 throw new BadRequestException("Parâmetro de ordenação inválido. L: batchNumber, Q: currentQuantity, V: dueDate");
         }
     }
 
+    /**
+     * Um representante com seções no índice de donos de seção existe; só os demais precisam ser buscados no banco.
+     * @param managerId ID do representante
+     * @throws ManagerNotFoundException Caso o representante não exista.
+     */
     private void ensureManagerExists(long managerId) {
-        managerService.findById(managerId);
+        if (!ownershipIndex.hasSections(managerId))
+            managerService.findById(managerId);
     }
 
     /**
-     * Retorna mapa de produtos por ID
+     * Retorna mapa de produtos por ID, lendo do cache de segundo nível os produtos que já estão nele
      * @param batchesDto Lotes enviados no pedido de entrada
      * @return Mapa de produtos com identificador como chave
      */
     @Override
     public Map<Long, Product> getProductMap(List<BatchRequestDto> batchesDto) {
         return productRepository
-                .findAllById(batchesDto.stream().map(BatchRequestDto::getProductId).collect(Collectors.toList()))
+                .findAllCachedById(batchesDto.stream().map(BatchRequestDto::getProductId).collect(Collectors.toList()))
                 .stream()
                 .collect(Collectors.toMap(Product::getProductId, product -> product));
     }
@@ -0,0 +1,138 @@
+package com.mercadolibre.bootcamp.projeto_integrador.service;
+
+import com.mercadolibre.bootcamp.projeto_integrador.dto.BatchLocationDto;
+import com.mercadolibre.bootcamp.projeto_integrador.dto.ProductWarehouseQuantityDto;
+import com.mercadolibre.bootcamp.projeto_integrador.dto.WarehouseResponseDto;
+import com.mercadolibre.bootcamp.projeto_integrador.model.Batch;
+import com.mercadolibre.bootcamp.projeto_integrador.model.ProductWarehouseStock;
+import com.mercadolibre.bootcamp.projeto_integrador.repository.IProductWarehouseStockRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToIntFunction;
+
+/**
+ * Totais em estoque por produto e armazém (ProductWarehouseStock), usados pela consulta de armazéns de um produto.
+ * <p>
+ * Cada alteração de quantidade de lote soma a diferença ao total correspondente na mesma transação, com um UPDATE
+ * relativo por produto e armazém, então transações concorrentes nunca perdem atualizações. Quando o total ainda não
+ * existe, ele é criado na mesma transação já com a diferença dela; os lotes gravados antes desta tabela entram pelo
+ * backfill da inicialização. Assim a reserva nunca abre uma segunda transação nem pede outra conexão ao pool
+ * enquanto segura o lock do lote.
+ */
+@Service
+public class ProductStockService implements IProductStockService {
+    @Autowired
+    private IProductWarehouseStockRepository stockRepository;
+
+    private final Set<ProductWarehouseStock.Key> knownKeys = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Retorna os armazéns onde o produto tem lotes, com a quantidade total em cada um, em uma única leitura.
+     *
+     * @param productId ID do produto
+     * @return Armazéns ordenados pelo código
+     */
+    @Override
+    public List<WarehouseResponseDto> findWarehouses(long productId) {
+        return stockRepository.findWarehousesByProductId(productId);
+    }
+
+    /**
+     * Retorna os armazéns de vários produtos em uma única leitura.
+     *
+     * @param productIds IDs dos produtos
+     * @return Armazéns ordenados pelo código, por ID do produto. Produtos sem lotes não aparecem no mapa.
+     */
+    @Override
+    public Map<Long, List<WarehouseResponseDto>> findWarehouses(Collection<Long> productIds) {
+        Map<Long, List<WarehouseResponseDto>> warehouses = new HashMap<>();
+        for (ProductWarehouseQuantityDto stock : stockRepository.findByProductIdIn(productIds)) {
+            warehouses.computeIfAbsent(stock.getProductId(), productId -> new ArrayList<>())
+                    .add(new WarehouseResponseDto(stock.getWarehouseCode(), Math.toIntExact(stock.getQuantity())));
+        }
+        return warehouses;
+    }
+
+    /**
+     * Soma aos totais a quantidade de cada lote informado. Deve ser chamado na transação que alterou os lotes.
+     *
+     * @param batches  Lotes com produto e ordem de entrada preenchidos
+     * @param quantity Diferença de quantidade de cada lote
+     */
+    @Override
+    public void addQuantities(Collection<Batch> batches, ToIntFunction<Batch> quantity) {
+        Map<ProductWarehouseStock.Key, Integer> quantities = new HashMap<>();
+        for (Batch batch : batches) {
+            ProductWarehouseStock.Key key = new ProductWarehouseStock.Key(batch.getProduct().getProductId(),
+                    batch.getInboundOrder().getSection().getWarehouse().getWarehouseCode());
+            quantities.merge(key, quantity.applyAsInt(batch), Integer::sum);
+        }
+        quantities.forEach(this::addQuantity);
+    }
+
+    /**
+     * Soma aos totais a diferença de quantidade de cada lote, buscando o produto e o armazém dos lotes em uma única
+     * consulta. Deve ser chamado na transação que alterou os lotes.
+     *
+     * @param quantities Diferença de quantidade por número do lote
+     */
+    @Override
+    public void addQuantitiesByBatchNumber(Map<Long, Integer> quantities) {
+        if (quantities.isEmpty())
+            return;
+
+        Map<ProductWarehouseStock.Key, Integer> quantitiesByKey = new HashMap<>();
+        for (BatchLocationDto location : stockRepository.findLocationsByBatchNumberIn(quantities.keySet())) {
+            ProductWarehouseStock.Key key = new ProductWarehouseStock.Key(location.getProductId(), location.getWarehouseCode());
+            quantitiesByKey.merge(key, quantities.get(location.getBatchNumber()), Integer::sum);
+        }
+        quantitiesByKey.forEach(this::addQuantity);
+    }
+
+    /**
+     * Soma ao total do produto no armazém a diferença de quantidade, quando o produto e o armazém do lote já são
+     * conhecidos. Deve ser chamado na transação que alterou o lote.
+     *
+     * @param productId     ID do produto
+     * @param warehouseCode Código do armazém
+     * @param quantity      Diferença de quantidade
+     */
+    @Override
+    public void addQuantity(long productId, long warehouseCode, int quantity) {
+        addQuantity(new ProductWarehouseStock.Key(productId, warehouseCode), quantity);
+    }
+
+    /**
+     * Cria os totais que ainda não existem a partir da tabela de lotes, como nas bases criadas antes desta tabela.
+     * Os totais existentes não são alterados.
+     */
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        for (ProductWarehouseQuantityDto total : stockRepository.sumBatchQuantityByProductAndWarehouse()) {
+            ProductWarehouseStock.Key key = new ProductWarehouseStock.Key(total.getProductId(), total.getWarehouseCode());
+            if (!stockRepository.existsById(key))
+                stockRepository.insertIfAbsent(key.getProductId(), key.getWarehouseCode(),
+                        Math.toIntExact(total.getQuantity()));
+            knownKeys.add(key);
+        }
+    }
+
+    private void addQuantity(ProductWarehouseStock.Key key, int quantity) {
+        if (quantity == 0)
+            return;
+        // Na primeira alteração da chave o INSERT vem antes do UPDATE: no MySQL, um UPDATE que não encontra a linha
+        // bloqueia o intervalo do índice, e duas transações que depois tentam o INSERT entram em deadlock.
+        if (knownKeys.add(key) && stockRepository.insertIfAbsent(key.getProductId(), key.getWarehouseCode(), quantity))
+            return;
+        // O total pode ter sido apagado depois de conhecido, como quando as tabelas são truncadas.
+        if (stockRepository.addQuantity(key.getProductId(), key.getWarehouseCode(), quantity) == 0
+                && !stockRepository.insertIfAbsent(key.getProductId(), key.getWarehouseCode(), quantity))
+            stockRepository.addQuantity(key.getProductId(), key.getWarehouseCode(), quantity);
+    }
+}
@@ -1,10 +1,10 @@
 package com.mercadolibre.bootcamp.projeto_integrador.service;
 
-import com.mercadolibre.bootcamp.projeto_integrador.dto.BatchBuyerResponseDto;
-import com.mercadolibre.bootcamp.projeto_integrador.dto.BatchPurchaseOrderRequestDto;
-import com.mercadolibre.bootcamp.projeto_integrador.dto.PurchaseOrderRequestDto;
-import com.mercadolibre.bootcamp.projeto_integrador.dto.PurchaseOrderResponseDto;
+import com.mercadolibre.bootcamp.projeto_integrador.dto.*;
 import com.mercadolibre.bootcamp.projeto_integrador.enums.OrderStatus;
+import com.mercadolibre.bootcamp.projeto_integrador.enums.ReservationStatus;
+import com.mercadolibre.bootcamp.projeto_integrador.event.PurchaseOrderTouchedEvent;
+import com.mercadolibre.bootcamp.projeto_integrador.event.StockChangedEvent;
 import com.mercadolibre.bootcamp.projeto_integrador.exceptions.*;
 import com.mercadolibre.bootcamp.projeto_integrador.model.Batch;
 import com.mercadolibre.bootcamp.projeto_integrador.model.BatchPurchaseOrder;
@@ -12,15 +12,18 @@ import com.mercadolibre.bootcamp.projeto_integrador.model.Buyer;
 import com.mercadolibre.bootcamp.projeto_integrador.model.PurchaseOrder;
 import com.mercadolibre.bootcamp.projeto_integrador.repository.*;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -41,6 +44,20 @@ public class PurchaseOrderService implements IPurchaseOrderService {
     @Autowired
     IBatchPurchaseOrderRepository batchPurchaseOrderRepository;
 
+    @Autowired
+    ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    ISellableStockIndex stockIndex;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    IProductStockService productStockService;
+
+    private final int ABANDONED_PURCHASE_CHUNK_SIZE = 500;
+
     /**
      * Método que cria um carrinho (PurchaseOrder) novo ou insere/atualiza itens em um carrinho existente.
      *
@@ -59,6 +76,67 @@ public class PurchaseOrderService implements IPurchaseOrderService {
                 mapListBatchPurchaseToListDto(purchaseOrder.getBatchPurchaseOrders()));
     }
 
+    /**
+     * Método que adiciona vários itens ao carrinho de uma vez. Os lotes são carregados em uma única consulta e as
+     * reservas são enviadas em um único batch de UPDATEs condicionais, então itens sem estoque não impedem a reserva
+     * dos demais.
+     *
+     * @param request objeto PurchaseOrderBulkRequestDto.
+     * @param buyerId identificador do comprador.
+     * @return carrinho atualizado e o resultado da reserva de cada item, na ordem da requisição.
+     */
+    @Transactional
+    @Override
+    public PurchaseOrderBulkResponseDto createBulk(PurchaseOrderBulkRequestDto request, long buyerId) {
+        Buyer buyer = findBuyer(buyerId);
+        PurchaseOrder purchaseOrder = updateStockToPurchase(getPurchaseOrder(buyer, request.getOrderStatus()));
+
+        List<BatchPurchaseOrderRequestDto> lines = request.getBatches();
+        Map<Long, Batch> batches = batchRepository.findAllWithSectionByBatchNumberIn(lines.stream()
+                        .map(BatchPurchaseOrderRequestDto::getBatchNumber)
+                        .collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(Batch::getBatchNumber, Function.identity()));
+        List<BatchPurchaseOrderRequestDto> foundLines = lines.stream()
+                .filter(line -> batches.containsKey(line.getBatchNumber()))
+                .collect(Collectors.toList());
+        int[] updatedRows = foundLines.isEmpty()
+                ? new int[0]
+                : batchRepository.reserveAll(foundLines, stockIndex.getReservableAfter());
+
+        List<BatchReservationResultDto> results = new ArrayList<>();
+        List<BatchPurchaseOrderRequestDto> reservedLines = new ArrayList<>();
+        int foundLineIndex = 0;
+        for (BatchPurchaseOrderRequestDto line : lines) {
+            ReservationStatus status = ReservationStatus.NOT_FOUND;
+            if (batches.containsKey(line.getBatchNumber()))
+                status = updatedRows[foundLineIndex++] > 0 ? ReservationStatus.RESERVED : ReservationStatus.OUT_OF_STOCK;
+            if (status == ReservationStatus.RESERVED)
+                reservedLines.add(line);
+            results.add(new BatchReservationResultDto(line.getBatchNumber(), line.getQuantity(), status));
+        }
+
+        if (!reservedLines.isEmpty()) {
+            saveBatchPurchaseOrders(reservedLines, batches, purchaseOrder);
+            productStockService.addQuantitiesByBatchNumber(reservedLines.stream()
+                    .collect(Collectors.toMap(BatchPurchaseOrderRequestDto::getBatchNumber, line -> -line.getQuantity(),
+                            Integer::sum)));
+            Set<Long> reservedBatchNumbers = reservedLines.stream()
+                    .map(BatchPurchaseOrderRequestDto::getBatchNumber)
+                    .collect(Collectors.toSet());
+            eventPublisher.publishEvent(StockChangedEvent.of(
+                    batchRepository.findBuyerDtoByBatchNumberIn(reservedBatchNumbers),
+                    reservedBatchNumbers.stream().map(batches::get).collect(Collectors.toList())));
+            purchaseOrder.setReserved(true);
+        }
+
+        List<BatchPurchaseOrder> purchaseLines = purchaseOrder.getBatchPurchaseOrders() == null
+                ? List.of()
+                : purchaseOrder.getBatchPurchaseOrders();
+        return new PurchaseOrderBulkResponseDto(purchaseOrder.getPurchaseId(), purchaseOrder.getOrderStatus(),
+                sumTotalPrice(purchaseLines), mapListBatchPurchaseToListDto(purchaseLines), results);
+    }
+
     /**
      * Método que atualiza o carrinho (PurchaseOrder) para fechado.
      *
@@ -77,7 +155,7 @@ public class PurchaseOrderService implements IPurchaseOrderService {
         if (currentQuantityOfBatchPurchases == initialQuantityOfBatchPurchases) {
             foundOrder.setOrderStatus(OrderStatus.CLOSED);
         }
-        foundOrder.setUpdateDateTime(LocalDateTime.now());
+        touch(foundOrder);
         purchaseOrderRepository.save(foundOrder);
 
         return new PurchaseOrderResponseDto(foundOrder.getPurchaseId(),
@@ -101,7 +179,7 @@ public class PurchaseOrderService implements IPurchaseOrderService {
             returnToStock(deleteBatchPurchase);
         }
         batchPurchaseOrderRepository.delete(deleteBatchPurchase);
-        purchaseOrder.setUpdateDateTime(LocalDateTime.now());
+        touch(purchaseOrder);
         purchaseOrderRepository.save(purchaseOrder);
     }
 
@@ -126,22 +204,81 @@ public class PurchaseOrderService implements IPurchaseOrderService {
 
     /**
      * Método que devolve para o estoque os produtos dos carrinhos (PurchaseOrder) abandonados há mais de 1 horas.
+     * Os carrinhos são processados em blocos de ABANDONED_PURCHASE_CHUNK_SIZE, cada um na sua própria transação,
+     * para que um acúmulo grande não carregue tudo em memória nem segure os bloqueios por muito tempo.
+     *
+     * @param dropoutTimeInMinutes Tempo sem atualização para o carrinho ser considerado abandonado
+     * @return Relatório de cada bloco processado
+     */
+    @Override
+    public List<ReleasedReservationsReportDto> dropAbandonedPurchase(long dropoutTimeInMinutes) {
+        LocalDateTime abandonedBefore = LocalDateTime.now().minusMinutes(dropoutTimeInMinutes);
+        List<ReleasedReservationsReportDto> reports = new ArrayList<>();
+        long lastPurchaseId = 0;
+        while (true) {
+            long after = lastPurchaseId;
+            ReleasedReservationsReportDto report = transactionTemplate.execute(status -> releaseReservations(
+                    purchaseOrderRepository.findAbandonedForUpdate(OrderStatus.OPENED, abandonedBefore, after,
+                            PageRequest.of(0, ABANDONED_PURCHASE_CHUNK_SIZE))));
+            if (report == null || report.getPurchaseOrders() == 0)
+                break;
+            reports.add(report);
+            lastPurchaseId = report.getLastPurchaseId();
+            if (report.getPurchaseOrders() < ABANDONED_PURCHASE_CHUNK_SIZE)
+                break;
+        }
+        return reports;
+    }
+
+    /**
+     * Método que devolve para o estoque os produtos dos carrinhos informados, entre os que continuam abertos,
+     * reservados e sem atualização há mais do tempo informado. Carrinhos tocados depois de expirarem são ignorados.
+     *
+     * @param purchaseOrderIds     IDs dos carrinhos expirados
+     * @param dropoutTimeInMinutes Tempo sem atualização para o carrinho ser considerado abandonado
+     * @return Relatório do bloco processado
      */
     @Transactional
     @Override
-    public void dropAbandonedPurchase(long dropoutTimeInMinutes) {
-        List<PurchaseOrder> abandonedPurchaseOrders = purchaseOrderRepository
-                .findByOrderStatusAndIsReservedAndUpdateDateTimeBefore(OrderStatus.OPENED, true, LocalDateTime.now().minusMinutes(dropoutTimeInMinutes));
-        List<BatchPurchaseOrder> batchPurchaseOrders = abandonedPurchaseOrders.stream()
-                .map(PurchaseOrder::getBatchPurchaseOrders)
-                .collect(ArrayList::new, List::addAll, List::addAll);
-
-        batchPurchaseOrders.stream().forEach(batch -> returnToStock(batch));
-        abandonedPurchaseOrders.forEach(purchaseOrder -> purchaseOrder.setReserved(false));
+    public ReleasedReservationsReportDto dropExpiredPurchases(Collection<Long> purchaseOrderIds, long dropoutTimeInMinutes) {
+        return releaseReservations(purchaseOrderRepository.findAbandonedForUpdate(OrderStatus.OPENED,
+                LocalDateTime.now().minusMinutes(dropoutTimeInMinutes), purchaseOrderIds));
+    }
+
+    /**
+     * Devolve o estoque reservado pelos carrinhos informados, já bloqueados pela transação corrente, com um UPDATE
+     * agregado por lote e um único UPDATE para marcar os carrinhos como não reservados.
+     */
+    private ReleasedReservationsReportDto releaseReservations(List<Long> purchaseIds) {
+        long start = System.nanoTime();
+        if (purchaseIds.isEmpty())
+            return new ReleasedReservationsReportDto(0, 0, 0, 0, 0, 0);
+
+        List<BatchQuantityDto> quantities = batchPurchaseOrderRepository.sumQuantityByBatch(purchaseIds);
+        if (!quantities.isEmpty()) {
+            batchRepository.releaseAll(quantities);
+            productStockService.addQuantitiesByBatchNumber(quantities.stream()
+                    .collect(Collectors.toMap(BatchQuantityDto::getBatchNumber,
+                            quantity -> Math.toIntExact(quantity.getQuantity()))));
+            List<Long> batchNumbers = quantities.stream()
+                    .map(BatchQuantityDto::getBatchNumber)
+                    .collect(Collectors.toList());
+            eventPublisher.publishEvent(new StockChangedEvent(batchRepository.findBuyerDtoByBatchNumberIn(batchNumbers),
+                    new HashSet<>(batchRepository.findSectionCodesByBatchNumberIn(batchNumbers))));
+        }
+        purchaseOrderRepository.releaseReservations(purchaseIds);
+
+        return new ReleasedReservationsReportDto(purchaseIds.get(0), purchaseIds.get(purchaseIds.size() - 1),
+                purchaseIds.size(),
+                quantities.stream().mapToLong(BatchQuantityDto::getBatchPurchaseOrders).sum(),
+                quantities.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
     }
 
     private BatchPurchaseOrder returnToStock(BatchPurchaseOrder batchPurchaseOrder) {
-        batchPurchaseOrder.getBatch().setCurrentQuantity(batchPurchaseOrder.getBatch().getCurrentQuantity() + batchPurchaseOrder.getQuantity());
+        long batchNumber = batchPurchaseOrder.getBatch().getBatchNumber();
+        batchRepository.releaseStock(batchNumber, batchPurchaseOrder.getQuantity());
+        publishStockChange(batchNumber, batchPurchaseOrder.getQuantity());
         return batchPurchaseOrder;
     }
 
@@ -155,20 +292,26 @@ public class PurchaseOrderService implements IPurchaseOrderService {
             purchaseOrderRepository.save(purchaseOrder);
         }
         purchaseOrder.setOrderStatus(orderStatus);
-        purchaseOrder.setUpdateDateTime(LocalDateTime.now());
+        touch(purchaseOrder);
         return purchaseOrder;
     }
 
+    /**
+     * Atualiza a data de atualização do carrinho, adiando a expiração da sua reserva.
+     */
+    private void touch(PurchaseOrder purchaseOrder) {
+        purchaseOrder.setUpdateDateTime(LocalDateTime.now());
+        eventPublisher.publishEvent(new PurchaseOrderTouchedEvent(purchaseOrder.getPurchaseId(),
+                purchaseOrder.getOrderStatus(), purchaseOrder.getUpdateDateTime()));
+    }
+
     private PurchaseOrder getPurchaseInStock(BatchPurchaseOrderRequestDto batchDto, PurchaseOrder purchase) {
         purchase = updateStockToPurchase(purchase);
-        Optional<Batch> batchFound = batchRepository.findOneByBatchNumberAndCurrentQuantityGreaterThanEqualAndDueDateAfterOrderByDueDate(batchDto.getBatchNumber(),
-                batchDto.getQuantity(), LocalDate.now().plusDays(21));
 
-        if (batchFound.isEmpty()) throw new BatchOutOfStockException(batchDto.getBatchNumber());
+        if (!reserveBatch(batchDto.getBatchNumber(), batchDto.getQuantity()))
+            throw new BatchOutOfStockException(batchDto.getBatchNumber());
 
-        batchFound.get().setCurrentQuantity(batchFound.get().getCurrentQuantity() - batchDto.getQuantity());
-
-        purchase = saveBatchPurchaseOrder(batchFound.get(), batchDto, purchase);
+        purchase = saveBatchPurchaseOrder(findBatchById(batchDto.getBatchNumber()), batchDto, purchase);
         purchase.setReserved(true);
         return purchase;
     }
@@ -188,17 +331,34 @@ public class PurchaseOrderService implements IPurchaseOrderService {
         return purchase;
     }
 
+    /**
+     * Reserva a quantidade no lote com um UPDATE condicional, que só é aplicado se houver estoque suficiente e o lote
+     * ainda estiver dentro da validade. Lotes do índice de estoque que já passaram da data de reserva são recusados
+     * sem ir ao banco.
+     *
+     * @return true se a reserva foi feita
+     */
     private boolean reserveBatch(long batchNumber, int quantity) {
-        Optional<Batch> batchFound = batchRepository.findOneByBatchNumberAndCurrentQuantityGreaterThanEqualAndDueDateAfterOrderByDueDate(batchNumber,
-                quantity, LocalDate.now().plusDays(21));
+        if (stockIndex.contains(batchNumber) && !stockIndex.isReservable(batchNumber))
+            return false;
 
-        if (batchFound.isEmpty()) {
+        if (batchRepository.reserveStock(batchNumber, quantity, stockIndex.getReservableAfter()) == 0)
             return false;
-        }
-        batchFound.get().setCurrentQuantity(batchFound.get().getCurrentQuantity() - quantity);
+
+        publishStockChange(batchNumber, -quantity);
         return true;
     }
 
+    /**
+     * Depois de um UPDATE direto na quantidade do lote, lê o estado atual com uma única projeção e com ela soma a
+     * diferença ao total do produto no armazém e publica o evento de estoque.
+     */
+    private void publishStockChange(long batchNumber, int quantity) {
+        BatchStockSnapshotDto snapshot = batchRepository.findStockSnapshot(batchNumber);
+        productStockService.addQuantity(snapshot.getProductId(), snapshot.getWarehouseCode(), quantity);
+        eventPublisher.publishEvent(StockChangedEvent.of(snapshot));
+    }
+
     private void deleteOutOfStockBatchPurchase(List<BatchPurchaseOrder> allBatchPurchases, List<BatchPurchaseOrder> batchPurchasesReserved) {
         List<BatchPurchaseOrder> batchPurchases = allBatchPurchases.stream()
                 .filter(bp -> !batchPurchasesReserved.contains(bp))
@@ -207,7 +367,11 @@ public class PurchaseOrderService implements IPurchaseOrderService {
     }
 
     private BigDecimal sumTotalPrice(PurchaseOrder purchase) {
-        return purchase.getBatchPurchaseOrders().stream()
+        return sumTotalPrice(purchase.getBatchPurchaseOrders());
+    }
+
+    private BigDecimal sumTotalPrice(List<BatchPurchaseOrder> batchPurchaseOrders) {
+        return batchPurchaseOrders.stream()
                 .map(batchPurchaseOrder -> batchPurchaseOrder.getUnitPrice().multiply(new BigDecimal(batchPurchaseOrder.getQuantity())))
                 .reduce(BigDecimal.ZERO, BigDecimal::add);
     }
@@ -218,10 +382,7 @@ public class PurchaseOrderService implements IPurchaseOrderService {
         try {
             batchPurchaseOrder = findBatchPurchaseOrder(purchase, batch);
         } catch (NotFoundException ex) {
-            batchPurchaseOrder = new BatchPurchaseOrder();
-            batchPurchaseOrder.setPurchaseOrder(purchase);
-            batchPurchaseOrder.setBatch(batch);
-            batchPurchaseOrder.setUnitPrice(batch.getProductPrice());
+            batchPurchaseOrder = newBatchPurchaseOrder(batch, purchase);
         }
         batchPurchaseOrder.setQuantity(batchPurchaseOrder.getQuantity() + batchDto.getQuantity());
         batchPurchaseOrderRepository.save(batchPurchaseOrder);
@@ -235,6 +396,41 @@ public class PurchaseOrderService implements IPurchaseOrderService {
         return purchase;
     }
 
+    /**
+     * Soma as quantidades reservadas aos itens do carrinho, criando os que ainda não existem, e salva todos de uma vez.
+     * Os itens existentes são localizados pela lista já carregada do carrinho, sem uma consulta por lote.
+     */
+    private void saveBatchPurchaseOrders(List<BatchPurchaseOrderRequestDto> lines, Map<Long, Batch> batches,
+                                         PurchaseOrder purchase) {
+        if (purchase.getBatchPurchaseOrders() == null) {
+            purchase.setBatchPurchaseOrders(new ArrayList<>());
+        }
+        Map<Long, BatchPurchaseOrder> batchPurchaseOrders = purchase.getBatchPurchaseOrders().stream()
+                .collect(Collectors.toMap(batchPurchase -> batchPurchase.getBatch().getBatchNumber(),
+                        Function.identity(), (first, second) -> first));
+        Map<Long, BatchPurchaseOrder> changedBatchPurchaseOrders = new LinkedHashMap<>();
+
+        for (BatchPurchaseOrderRequestDto line : lines) {
+            BatchPurchaseOrder batchPurchaseOrder = batchPurchaseOrders.computeIfAbsent(line.getBatchNumber(),
+                    batchNumber -> {
+                        BatchPurchaseOrder newBatchPurchase = newBatchPurchaseOrder(batches.get(batchNumber), purchase);
+                        purchase.getBatchPurchaseOrders().add(newBatchPurchase);
+                        return newBatchPurchase;
+                    });
+            batchPurchaseOrder.setQuantity(batchPurchaseOrder.getQuantity() + line.getQuantity());
+            changedBatchPurchaseOrders.put(line.getBatchNumber(), batchPurchaseOrder);
+        }
+        batchPurchaseOrderRepository.saveAll(changedBatchPurchaseOrders.values());
+    }
+
+    private BatchPurchaseOrder newBatchPurchaseOrder(Batch batch, PurchaseOrder purchase) {
+        BatchPurchaseOrder batchPurchaseOrder = new BatchPurchaseOrder();
+        batchPurchaseOrder.setPurchaseOrder(purchase);
+        batchPurchaseOrder.setBatch(batch);
+        batchPurchaseOrder.setUnitPrice(batch.getProductPrice());
+        return batchPurchaseOrder;
+    }
+
     private PurchaseOrder findPurchaseOrder(long purchaseOrderId, long buyerId) {
         Optional<PurchaseOrder> foundOrder = purchaseOrderRepository.findById(purchaseOrderId);
         if (foundOrder.isEmpty()) throw new NotFoundException("Purchase order");
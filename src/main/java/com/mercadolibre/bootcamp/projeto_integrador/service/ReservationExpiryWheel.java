@@ -0,0 +1,149 @@
+package com.mercadolibre.bootcamp.projeto_integrador.service;
+
+import com.mercadolibre.bootcamp.projeto_integrador.dto.ReservedPurchaseOrderDto;
+import com.mercadolibre.bootcamp.projeto_integrador.enums.OrderStatus;
+import com.mercadolibre.bootcamp.projeto_integrador.event.PurchaseOrderTouchedEvent;
+import com.mercadolibre.bootcamp.projeto_integrador.repository.IPurchaseOrderRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Roda de tempo (hashed timing wheel) com o prazo de expiração da reserva de cada carrinho aberto.
+ * <p>
+ * O tempo é dividido em ticks de um segundo e cada tick cai em uma das posições da roda, que dá uma volta a cada
+ * WHEEL_SIZE ticks. Agendar um carrinho custa O(1): ele entra na posição do tick do seu prazo. A cada tick só a
+ * posição atual é percorrida, e os carrinhos cujo prazo já passou vão para uma fila de expirados, entregue em lotes
+ * de no máximo MAXIMUM_EXPIRED_PER_TICK para que a devolução do estoque seja constante e sem picos.
+ * <p>
+ * Quando um carrinho é tocado de novo, o prazo novo é registrado e a entrada antiga é ignorada ao ser encontrada.
+ * A roda é montada a partir dos carrinhos reservados na inicialização; quem devolve o estoque ainda confere no banco
+ * se o carrinho continua abandonado, então uma entrada desatualizada nunca libera um carrinho ativo.
+ */
+@Service
+public class ReservationExpiryWheel implements IReservationExpiryWheel {
+    public static final long RESERVATION_TIMEOUT_MINUTES = 60;
+    private static final long TICK_MILLIS = 1000;
+    private static final int WHEEL_SIZE = 512;
+    private static final int MAXIMUM_EXPIRED_PER_TICK = 100;
+
+    @Autowired
+    private IPurchaseOrderRepository purchaseOrderRepository;
+
+    private final List<Map<Long, Long>> slots = new ArrayList<>(WHEEL_SIZE);
+    private final Map<Long, Long> deadlines = new ConcurrentHashMap<>();
+    private final Queue<Long> expired = new ConcurrentLinkedQueue<>();
+    private volatile long currentTick = System.currentTimeMillis() / TICK_MILLIS;
+
+    public ReservationExpiryWheel() {
+        for (int i = 0; i < WHEEL_SIZE; i++)
+            slots.add(new ConcurrentHashMap<>());
+    }
+
+    /**
+     * Remonta a roda com os carrinhos abertos e reservados do banco.
+     */
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        slots.forEach(Map::clear);
+        deadlines.clear();
+        expired.clear();
+        currentTick = System.currentTimeMillis() / TICK_MILLIS;
+        for (ReservedPurchaseOrderDto purchaseOrder : purchaseOrderRepository.findReservedByOrderStatus(OrderStatus.OPENED))
+            schedule(purchaseOrder.getPurchaseId(), purchaseOrder.getUpdateDateTime());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPurchaseOrderTouched(PurchaseOrderTouchedEvent event) {
+        if (event.getOrderStatus() == OrderStatus.OPENED)
+            schedule(event.getPurchaseId(), event.getUpdateDateTime());
+        else
+            cancel(event.getPurchaseId());
+    }
+
+    /**
+     * Agenda (ou reagenda) a expiração da reserva do carrinho para RESERVATION_TIMEOUT_MINUTES após a data informada.
+     *
+     * @param purchaseId     ID do carrinho
+     * @param updateDateTime Data da última atualização do carrinho
+     */
+    @Override
+    public void schedule(long purchaseId, LocalDateTime updateDateTime) {
+        long deadline = updateDateTime.plusMinutes(RESERVATION_TIMEOUT_MINUTES)
+                .atZone(ZoneId.systemDefault())
+                .toInstant()
+                .toEpochMilli();
+        long deadlineTick = (deadline + TICK_MILLIS - 1) / TICK_MILLIS;
+
+        if (deadlineTick <= currentTick) {
+            deadlines.remove(purchaseId);
+            expired.add(purchaseId);
+            return;
+        }
+        deadlines.put(purchaseId, deadline);
+        slots.get(slotOf(deadlineTick)).put(purchaseId, deadline);
+
+        // A roda pode ter passado pela posição enquanto a entrada era inserida.
+        if (deadlineTick <= currentTick && deadlines.remove(purchaseId, deadline))
+            expired.add(purchaseId);
+    }
+
+    @Override
+    public void cancel(long purchaseId) {
+        deadlines.remove(purchaseId);
+    }
+
+    /**
+     * Avança a roda até o instante informado e retorna o próximo lote de carrinhos expirados.
+     * Se a roda ficou parada por mais de uma volta, cada posição é percorrida uma única vez.
+     *
+     * @param nowMillis Instante atual em milissegundos
+     * @return IDs dos carrinhos expirados, no máximo MAXIMUM_EXPIRED_PER_TICK
+     */
+    @Override
+    public synchronized List<Long> advance(long nowMillis) {
+        long nowTick = nowMillis / TICK_MILLIS;
+        long firstTick = Math.max(currentTick + 1, nowTick - WHEEL_SIZE + 1);
+        for (long tick = firstTick; tick <= nowTick; tick++)
+            expireSlot(slots.get(slotOf(tick)), nowMillis);
+        currentTick = Math.max(currentTick, nowTick);
+
+        List<Long> batch = new ArrayList<>();
+        Long purchaseId;
+        while (batch.size() < MAXIMUM_EXPIRED_PER_TICK && (purchaseId = expired.poll()) != null) {
+            if (!batch.contains(purchaseId))
+                batch.add(purchaseId);
+        }
+        return batch;
+    }
+
+    @Override
+    public int size() {
+        return deadlines.size();
+    }
+
+    private void expireSlot(Map<Long, Long> slot, long nowMillis) {
+        Iterator<Map.Entry<Long, Long>> entries = slot.entrySet().iterator();
+        while (entries.hasNext()) {
+            Map.Entry<Long, Long> entry = entries.next();
+            if (entry.getValue() > nowMillis)
+                continue;
+            entries.remove();
+            if (deadlines.remove(entry.getKey(), entry.getValue()))
+                expired.add(entry.getKey());
+        }
+    }
+
+    private static int slotOf(long tick) {
+        return (int) (tick & (WHEEL_SIZE - 1));
+    }
+}
@@ -0,0 +1,149 @@
+package com.mercadolibre.bootcamp.projeto_integrador.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mercadolibre.bootcamp.projeto_integrador.dto.BatchBuyerResponseDto;
+import com.mercadolibre.bootcamp.projeto_integrador.dto.ResponseCacheStatsDto;
+import com.mercadolibre.bootcamp.projeto_integrador.event.StockChangedEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.UncheckedIOException;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Cache das respostas JSON já serializadas dos endpoints de consulta de lotes.
+ * <p>
+ * A chave é a ETag da resposta, que já identifica o endpoint, os parâmetros normalizados e a versão do estoque, então
+ * uma entrada nunca é servida depois que o estoque que ela mostra muda. Os StockChangedEvent removem as entradas das
+ * categorias e seções alteradas para liberar memória.
+ * <p>
+ * O cache é limitado pelo total de bytes guardados: as entradas menos usadas são descartadas até o total voltar a
+ * caber em MAXIMUM_CACHED_BYTES, e respostas maiores que MAXIMUM_RESPONSE_BYTES são servidas sem serem guardadas.
+ */
+@Service
+public class ResponseCacheService implements IResponseCacheService {
+    public static final long MAXIMUM_CACHED_BYTES = 64L * 1024 * 1024;
+    public static final int MAXIMUM_RESPONSE_BYTES = 4 * 1024 * 1024;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private IStockVersionService stockVersionService;
+
+    private final Map<String, byte[]> responses = new LinkedHashMap<>(16, 0.75f, true);
+    private long cachedBytes;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong bytesSaved = new AtomicLong();
+
+    /**
+     * Retorna o corpo serializado da resposta identificada pela ETag, serializando e guardando caso ainda não esteja
+     * no cache. Exceções lançadas pelo fornecedor do corpo são propagadas sem criar entrada.
+     *
+     * @param etag ETag da resposta
+     * @param body Fornecedor do corpo da resposta
+     * @return JSON da resposta em UTF-8
+     */
+    @Override
+    public byte[] getOrSerialize(String etag, Supplier<?> body) {
+        byte[] response;
+        synchronized (responses) {
+            response = responses.get(etag);
+        }
+        if (response != null) {
+            hits.incrementAndGet();
+            bytesSaved.addAndGet(response.length);
+            return response;
+        }
+
+        misses.incrementAndGet();
+        response = serialize(body.get());
+        if (response.length > MAXIMUM_RESPONSE_BYTES)
+            return response;
+        synchronized (responses) {
+            byte[] replaced = responses.put(etag, response);
+            cachedBytes += response.length - (replaced == null ? 0 : replaced.length);
+            evictLeastRecentlyUsed();
+        }
+        return response;
+    }
+
+    /**
+     * Remove as respostas que mostram o estoque alterado: o catálogo geral, as consultas das categorias dos lotes e as
+     * consultas das seções onde eles estão guardados.
+     *
+     * @param event Evento de alteração de estoque
+     */
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockChanged(StockChangedEvent event) {
+        List<String> prefixes = new ArrayList<>();
+        prefixes.add(stockVersionService.getETagPrefix("all"));
+        event.getBatches().stream()
+                .map(BatchBuyerResponseDto::getCategory)
+                .filter(Objects::nonNull)
+                .distinct()
+                .forEach(category -> prefixes.add(stockVersionService.getETagPrefix(category)));
+        event.getSectionCodes()
+                .forEach(sectionCode -> prefixes.add(stockVersionService.getETagPrefix("section-" + sectionCode)));
+
+        synchronized (responses) {
+            Iterator<Map.Entry<String, byte[]>> entries = responses.entrySet().iterator();
+            while (entries.hasNext()) {
+                Map.Entry<String, byte[]> entry = entries.next();
+                if (prefixes.stream().anyMatch(entry.getKey()::startsWith)) {
+                    cachedBytes -= entry.getValue().length;
+                    entries.remove();
+                }
+            }
+        }
+    }
+
+    @Override
+    public void invalidateAll() {
+        synchronized (responses) {
+            responses.clear();
+            cachedBytes = 0;
+        }
+    }
+
+    @Override
+    public ResponseCacheStatsDto getStats() {
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        int entries;
+        long bytes;
+        synchronized (responses) {
+            entries = responses.size();
+            bytes = cachedBytes;
+        }
+        double hitRate = hitCount + missCount == 0 ? 0 : (double) hitCount / (hitCount + missCount);
+        return new ResponseCacheStatsDto(hitCount, missCount, hitRate, bytesSaved.get(), entries, bytes);
+    }
+
+    /**
+     * Descarta as entradas menos usadas até o total guardado caber no limite. Deve ser chamado com o lock do mapa.
+     */
+    private void evictLeastRecentlyUsed() {
+        Iterator<byte[]> eldest = responses.values().iterator();
+        while (cachedBytes > MAXIMUM_CACHED_BYTES && eldest.hasNext()) {
+            cachedBytes -= eldest.next().length;
+            eldest.remove();
+        }
+    }
+
+    private byte[] serialize(Object body) {
+        try {
+            return objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
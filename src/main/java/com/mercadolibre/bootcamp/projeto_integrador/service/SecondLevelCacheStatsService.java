@@ -0,0 +1,72 @@
+package com.mercadolibre.bootcamp.projeto_integrador.service;
+
+import com.mercadolibre.bootcamp.projeto_integrador.dto.CacheRegionStatsDto;
+import com.mercadolibre.bootcamp.projeto_integrador.dto.SecondLevelCacheStatsDto;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Estatísticas do cache de segundo nível do Hibernate, lidas do Statistics da SessionFactory. Os números só são
+ * coletados com stats.second-level-cache.enabled=true (ou hibernate.generate_statistics=true); sem eles, todos os
+ * contadores ficam zerados.
+ * <p>
+ * A propriedade própria liga a coleta depois que a SessionFactory é criada. Com hibernate.generate_statistics o
+ * Hibernate também registraria o log "Session Metrics" de cada sessão, que não é necessário para estes contadores.
+ */
+@Service
+public class SecondLevelCacheStatsService implements ISecondLevelCacheStatsService {
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Value("${stats.second-level-cache.enabled:false}")
+    private boolean statisticsEnabled;
+
+    @PostConstruct
+    void enableStatistics() {
+        if (statisticsEnabled)
+            getStatistics().setStatisticsEnabled(true);
+    }
+
+    @Override
+    public SecondLevelCacheStatsDto getStats() {
+        Statistics statistics = getStatistics();
+
+        List<CacheRegionStatsDto> regions = Arrays.stream(statistics.getSecondLevelCacheRegionNames())
+                .sorted()
+                .map(region -> toRegionStats(region, statistics.getCacheRegionStatistics(region)))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+
+        long hits = statistics.getSecondLevelCacheHitCount();
+        long misses = statistics.getSecondLevelCacheMissCount();
+        double hitRate = hits + misses == 0 ? 0 : (double) hits / (hits + misses);
+        return new SecondLevelCacheStatsDto(hits, misses, statistics.getSecondLevelCachePutCount(), hitRate,
+                statistics.getQueryCacheHitCount(), statistics.getQueryCacheMissCount(),
+                statistics.getQueryCachePutCount(), regions);
+    }
+
+    private Statistics getStatistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    /**
+     * O JCache não informa quantas entradas a região tem; nesse caso entries vem como -1.
+     */
+    private static CacheRegionStatsDto toRegionStats(String region, CacheRegionStatistics statistics) {
+        if (statistics == null)
+            return null;
+        return new CacheRegionStatsDto(region, statistics.getHitCount(), statistics.getMissCount(),
+                statistics.getPutCount(), Math.max(statistics.getElementCountInMemory(), -1));
+    }
+}
@@ -0,0 +1,139 @@
+package com.mercadolibre.bootcamp.projeto_integrador.service;
+
+import com.mercadolibre.bootcamp.projeto_integrador.dto.SectionOwnerDto;
+import com.mercadolibre.bootcamp.projeto_integrador.event.SectionChangedEvent;
+import com.mercadolibre.bootcamp.projeto_integrador.repository.ISectionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Índice em memória de qual representante é dono de cada seção, usado nas verificações de permissão para que elas
+ * não consultem o banco.
+ * <p>
+ * O dono de cada seção fica em um long[] indexado pelo código da seção (0 quando a seção não existe), e as seções de
+ * cada representante ficam em um long[] ordenado. As duas estruturas são imutáveis depois de publicadas: cada
+ * alteração monta uma cópia nova, o que é barato porque seções mudam raramente.
+ * <p>
+ * É montado a partir do banco na inicialização e mantido atualizado pelos SectionChangedEvent publicados após o
+ * commit das transações que gravam seções.
+ */
+@Service
+public class SectionOwnershipIndex implements ISectionOwnershipIndex {
+    /**
+     * Seções com código acima deste limite não são indexadas e caem na verificação pelo banco.
+     */
+    public static final long MAXIMUM_INDEXED_SECTION_CODE = 1 << 24;
+
+    private static final long[] NO_SECTIONS = new long[0];
+
+    @Autowired
+    private ISectionRepository sectionRepository;
+
+    private volatile long[] ownerBySectionCode = NO_SECTIONS;
+    private volatile Map<Long, long[]> sectionCodesByManager = Map.of();
+
+    /**
+     * Recarrega o índice a partir da tabela de seções. Os leitores continuam enxergando o índice anterior até a troca.
+     */
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        List<SectionOwnerDto> sections = sectionRepository.findAllOwners()
+                .stream()
+                .filter(section -> isIndexable(section.getSectionCode()))
+                .collect(Collectors.toList());
+
+        long maxSectionCode = sections.stream().mapToLong(SectionOwnerDto::getSectionCode).max().orElse(-1);
+        long[] owners = new long[(int) (maxSectionCode + 1)];
+        for (SectionOwnerDto section : sections) {
+            owners[(int) section.getSectionCode()] = section.getManagerId();
+        }
+        publish(owners);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSectionChanged(SectionChangedEvent event) {
+        update(event.getSectionCode(), event.getManagerId());
+    }
+
+    /**
+     * Registra o dono atual da seção.
+     *
+     * @param sectionCode código da seção.
+     * @param managerId   ID do representante, ou 0 quando a seção foi removida.
+     */
+    @Override
+    public synchronized void update(long sectionCode, long managerId) {
+        long[] owners = ownerBySectionCode;
+        if (isIndexable(sectionCode) && ownerOf(owners, sectionCode) != managerId)
+            publish(withOwner(owners, sectionCode, managerId));
+    }
+
+    /**
+     * Verifica, sem consultar o banco, se o representante é dono da seção.
+     */
+    @Override
+    public boolean owns(long managerId, long sectionCode) {
+        return managerId > 0 && ownerOf(ownerBySectionCode, sectionCode) == managerId;
+    }
+
+    /**
+     * Verifica, sem consultar o banco, se o representante é dono de alguma seção, o que também garante que ele existe.
+     */
+    @Override
+    public boolean hasSections(long managerId) {
+        return sectionCodesByManager.containsKey(managerId);
+    }
+
+    /**
+     * @return códigos das seções do representante, em ordem crescente.
+     */
+    @Override
+    public long[] getSectionCodes(long managerId) {
+        return sectionCodesByManager.getOrDefault(managerId, NO_SECTIONS).clone();
+    }
+
+    private void publish(long[] owners) {
+        Map<Long, Integer> sectionCount = new HashMap<>();
+        for (long managerId : owners) {
+            if (managerId > 0)
+                sectionCount.merge(managerId, 1, Integer::sum);
+        }
+
+        Map<Long, long[]> newSectionCodesByManager = new HashMap<>();
+        sectionCount.forEach((managerId, count) -> newSectionCodesByManager.put(managerId, new long[count]));
+        Map<Long, Integer> filled = new HashMap<>();
+        for (int sectionCode = 0; sectionCode < owners.length; sectionCode++) {
+            long managerId = owners[sectionCode];
+            if (managerId > 0)
+                newSectionCodesByManager.get(managerId)[filled.merge(managerId, 1, Integer::sum) - 1] = sectionCode;
+        }
+
+        ownerBySectionCode = owners;
+        sectionCodesByManager = newSectionCodesByManager;
+    }
+
+    private static long[] withOwner(long[] owners, long sectionCode, long managerId) {
+        int index = (int) sectionCode;
+        long[] newOwners = Arrays.copyOf(owners, Math.max(owners.length, index + 1));
+        newOwners[index] = managerId;
+        return newOwners;
+    }
+
+    private static long ownerOf(long[] owners, long sectionCode) {
+        return sectionCode >= 0 && sectionCode < owners.length ? owners[(int) sectionCode] : 0;
+    }
+
+    private static boolean isIndexable(long sectionCode) {
+        return sectionCode >= 0 && sectionCode <= MAXIMUM_INDEXED_SECTION_CODE;
+    }
+}
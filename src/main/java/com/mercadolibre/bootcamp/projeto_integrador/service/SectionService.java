@@ -1,6 +1,7 @@
 package com.mercadolibre.bootcamp.projeto_integrador.service;
 
 import com.mercadolibre.bootcamp.projeto_integrador.dto.BatchRequestDto;
+import com.mercadolibre.bootcamp.projeto_integrador.enums.OrderStatus;
 import com.mercadolibre.bootcamp.projeto_integrador.exceptions.IncompatibleCategoryException;
 import com.mercadolibre.bootcamp.projeto_integrador.exceptions.MaxSizeException;
 import com.mercadolibre.bootcamp.projeto_integrador.exceptions.NotFoundException;
@@ -8,10 +9,14 @@ import com.mercadolibre.bootcamp.projeto_integrador.exceptions.UnauthorizedManag
 import com.mercadolibre.bootcamp.projeto_integrador.model.Manager;
 import com.mercadolibre.bootcamp.projeto_integrador.model.Product;
 import com.mercadolibre.bootcamp.projeto_integrador.model.Section;
+import com.mercadolibre.bootcamp.projeto_integrador.repository.IBatchRepository;
 import com.mercadolibre.bootcamp.projeto_integrador.repository.ISectionRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -27,6 +32,17 @@ public class SectionService implements ISectionService {
     @Autowired
     private IProductService productService;
 
+    @Autowired
+    private IBatchRepository batchRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ISectionOwnershipIndex ownershipIndex;
+
+    private final int ARCHIVE_CHUNK_SIZE = 500;
+
     @Override
     public Section findById(long sectionCode) {
         return sectionRepository.findById(sectionCode).orElseThrow(() -> new NotFoundException("Section"));
@@ -40,11 +56,43 @@ public class SectionService implements ISectionService {
         ensureSectionHasCompatibleCategory(section, products);
         ensureSectionHasSpace(section, batchesToInsert.size());
 
-        sectionRepository.save(section);
-
         return section;
     }
 
+    /**
+     * Arquiva os lotes vencidos ou esgotados e libera os slots que eles ocupavam nas seções.
+     * As seções são processadas uma a uma, em blocos de até ARCHIVE_CHUNK_SIZE lotes, cada bloco em uma transação
+     * curta que arquiva os lotes e desconta o total de currentBatches em um único UPDATE.
+     *
+     * @return quantidade de lotes arquivados
+     */
+    @Override
+    public int archiveStaleBatches() {
+        LocalDate today = LocalDate.now();
+        int archivedBatches = 0;
+
+        for (long sectionCode : sectionRepository.findAllSectionCodes()) {
+            int archivedInChunk;
+            do {
+                archivedInChunk = transactionTemplate.execute(status -> archiveChunk(sectionCode, today));
+                archivedBatches += archivedInChunk;
+            } while (archivedInChunk == ARCHIVE_CHUNK_SIZE);
+        }
+        return archivedBatches;
+    }
+
+    private int archiveChunk(long sectionCode, LocalDate today) {
+        List<Long> batchNumbers = batchRepository.findArchivableBySection(sectionCode, today, OrderStatus.OPENED,
+                PageRequest.of(0, ARCHIVE_CHUNK_SIZE));
+        if (batchNumbers.isEmpty())
+            return 0;
+
+        int archived = batchRepository.archiveAll(batchNumbers, today);
+        if (archived > 0)
+            sectionRepository.releaseSlots(sectionCode, archived);
+        return archived;
+    }
+
     /**
      * Garante que a seção pode acomodar todos os produtos fornecidos.
      * @param section Seção dos lotes
@@ -63,11 +111,16 @@ public class SectionService implements ISectionService {
     }
 
     /**
-     * Garante que o gerente tem permissão para lidar na seção fornecida.
+     * Garante que o gerente tem permissão para lidar na seção fornecida. O índice de donos de seção responde sem
+     * consultar o banco; o representante só é buscado quando o índice não confirma a permissão.
      * @param managerId ID do gerente
      * @param section Seção dos lotes
      */
-    private void ensureManagerHasPermissionInSection(long managerId, Section section) {
+    @Override
+    public void ensureManagerHasPermissionInSection(long managerId, Section section) {
+        if (ownershipIndex.owns(managerId, section.getSectionCode()))
+            return;
+
         Manager manager = managerService.findById(managerId);
 
         if (section.getManager().getManagerId() != managerId)
@@ -76,16 +129,18 @@ public class SectionService implements ISectionService {
 
     /**
      * Metodo que verifica se uma seção tem slots disponiveis para um ou mais novos lotes, e já atualiza o número de
-     * slots utilizados.
+     * slots utilizados. A verificação e a atualização são feitas juntas no banco, então o objeto Section recebido não
+     * é alterado e seu currentBatches deixa de refletir o banco.
      *
      * @param section    objeto Section.
      * @param batchCount quantos novos lotes estão sendo alocados.
      */
     private void ensureSectionHasSpace(Section section, int batchCount){
-        if (section.getAvailableSlots() < batchCount) {
+        if (batchCount == 0)
+            return;
+        if (sectionRepository.reserveSlots(section.getSectionCode(), batchCount) == 0) {
             throw new MaxSizeException("Section");
         }
-        section.setCurrentBatches(section.getCurrentBatches() + batchCount);
     }
 
 }
@@ -0,0 +1,287 @@
+package com.mercadolibre.bootcamp.projeto_integrador.service;
+
+import com.mercadolibre.bootcamp.projeto_integrador.dto.BatchBuyerResponseDto;
+import com.mercadolibre.bootcamp.projeto_integrador.event.StockChangedEvent;
+import com.mercadolibre.bootcamp.projeto_integrador.model.Section;
+import com.mercadolibre.bootcamp.projeto_integrador.repository.IBatchRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Modelo de leitura em memória dos lotes com estoque positivo e ainda dentro da validade.
+ * <p>
+ * Os lotes ficam em baldes diários, um por data de validade, e dentro de cada balde são separados por categoria e
+ * ordenados pelo número do lote. Quando o dia vira, os baldes que venceram são descartados inteiros e as datas de
+ * corte de venda (hoje + 20 dias) e de reserva (hoje + 21 dias) avançam, sem precisar varrer os lotes.
+ * <p>
+ * É montado a partir do banco na inicialização e mantido atualizado pelos StockChangedEvent publicados após o
+ * commit das transações que alteram o estoque, relendo os lotes de cada evento.
+ */
+@Service
+public class SellableStockIndex implements ISellableStockIndex {
+    public static final int MINIMUM_SELLABLE_DAYS = 20;
+    public static final int MINIMUM_RESERVABLE_DAYS = 21;
+
+    private static final Comparator<BatchBuyerResponseDto> BY_BATCH_NUMBER =
+            Comparator.comparingLong(BatchBuyerResponseDto::getBatchNumber);
+
+    @Autowired
+    private IBatchRepository batchRepository;
+
+    private volatile LocalDate today = LocalDate.now();
+    private volatile NavigableMap<LocalDate, DayBucket> buckets = new ConcurrentSkipListMap<>();
+    private volatile Map<Long, BatchBuyerResponseDto> batchesByNumber = new ConcurrentHashMap<>();
+
+    /**
+     * Recarrega o índice a partir da tabela de lotes. Os leitores continuam enxergando o índice anterior até a troca.
+     */
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        LocalDate currentDay = LocalDate.now();
+        NavigableMap<LocalDate, DayBucket> newBuckets = new ConcurrentSkipListMap<>();
+        Map<Long, BatchBuyerResponseDto> newBatchesByNumber = new ConcurrentHashMap<>();
+
+        for (BatchBuyerResponseDto batch : batchRepository.findSellable(currentDay)) {
+            newBuckets.computeIfAbsent(batch.getDueDate(), dueDate -> new DayBucket()).add(batch);
+            newBatchesByNumber.put(batch.getBatchNumber(), batch);
+        }
+
+        today = currentDay;
+        buckets = newBuckets;
+        batchesByNumber = newBatchesByNumber;
+    }
+
+    /**
+     * Os eventos de transações concorrentes podem chegar fora da ordem dos commits, então a cópia carregada pelo
+     * evento não é aplicada: o estado dos lotes é relido do banco.
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockChanged(StockChangedEvent event) {
+        refresh(event.getBatches().stream()
+                .map(BatchBuyerResponseDto::getBatchNumber)
+                .collect(Collectors.toSet()));
+    }
+
+    /**
+     * Relê do banco o estado dos lotes informados e o aplica ao índice. A leitura acontece dentro do lock, então cada
+     * atualização enxerga pelo menos os commits vistos pela anterior e um estado antigo nunca sobrescreve um mais
+     * novo. Lotes que não existem mais são removidos.
+     *
+     * @param batchNumbers números dos lotes alterados.
+     */
+    @Override
+    public synchronized void refresh(Collection<Long> batchNumbers) {
+        if (batchNumbers.isEmpty())
+            return;
+
+        List<BatchBuyerResponseDto> current = batchRepository.findBuyerDtoByBatchNumberIn(batchNumbers);
+        Set<Long> found = current.stream()
+                .map(BatchBuyerResponseDto::getBatchNumber)
+                .collect(Collectors.toSet());
+        batchNumbers.stream()
+                .filter(batchNumber -> !found.contains(batchNumber))
+                .map(batchesByNumber::remove)
+                .filter(Objects::nonNull)
+                .forEach(this::removeFromBucket);
+        update(current);
+    }
+
+    /**
+     * Substitui o estado dos lotes informados. Lotes sem estoque ou vencidos são removidos do índice.
+     *
+     * @param batches estado atual dos lotes.
+     */
+    @Override
+    public synchronized void update(List<BatchBuyerResponseDto> batches) {
+        rollOverIfNeeded();
+        for (BatchBuyerResponseDto batch : batches) {
+            BatchBuyerResponseDto previous = batchesByNumber.remove(batch.getBatchNumber());
+            if (previous != null)
+                removeFromBucket(previous);
+
+            if (batch.getQuantity() > 0 && batch.getDueDate().isAfter(today)) {
+                buckets.computeIfAbsent(batch.getDueDate(), dueDate -> new DayBucket()).add(batch);
+                batchesByNumber.put(batch.getBatchNumber(), batch);
+            }
+        }
+    }
+
+    /**
+     * Retorna os lotes de todas as categorias disponíveis para venda, ordenados por validade e número do lote.
+     */
+    @Override
+    public List<BatchBuyerResponseDto> findAll() {
+        rollOverIfNeeded();
+        List<BatchBuyerResponseDto> batches = new ArrayList<>();
+        for (DayBucket bucket : buckets.tailMap(getSellableAfter(), false).values()) {
+            bucket.addAllTo(batches);
+        }
+        return batches;
+    }
+
+    /**
+     * Retorna os lotes da categoria disponíveis para venda, ordenados por validade e número do lote.
+     */
+    @Override
+    public List<BatchBuyerResponseDto> findByCategory(Section.Category category) {
+        rollOverIfNeeded();
+        List<BatchBuyerResponseDto> batches = new ArrayList<>();
+        for (DayBucket bucket : buckets.tailMap(getSellableAfter(), false).values()) {
+            batches.addAll(bucket.get(category));
+        }
+        return batches;
+    }
+
+    @Override
+    public boolean contains(long batchNumber) {
+        return batchesByNumber.containsKey(batchNumber);
+    }
+
+    /**
+     * Verifica, sem consultar o banco, se o lote está disponível para venda no catálogo.
+     */
+    @Override
+    public boolean isSellable(long batchNumber) {
+        BatchBuyerResponseDto batch = batchesByNumber.get(batchNumber);
+        return batch != null && batch.getDueDate().isAfter(getSellableAfter());
+    }
+
+    /**
+     * Verifica, sem consultar o banco, se o lote ainda está dentro da validade mínima para ser reservado.
+     */
+    @Override
+    public boolean isReservable(long batchNumber) {
+        BatchBuyerResponseDto batch = batchesByNumber.get(batchNumber);
+        return batch != null && batch.getDueDate().isAfter(getReservableAfter());
+    }
+
+    /**
+     * @return data de validade a partir da qual (exclusive) um lote aparece no catálogo.
+     */
+    @Override
+    public LocalDate getSellableAfter() {
+        rollOverIfNeeded();
+        return today.plusDays(MINIMUM_SELLABLE_DAYS);
+    }
+
+    /**
+     * @return data de validade a partir da qual (exclusive) um lote pode ser reservado.
+     */
+    @Override
+    public LocalDate getReservableAfter() {
+        rollOverIfNeeded();
+        return today.plusDays(MINIMUM_RESERVABLE_DAYS);
+    }
+
+    /**
+     * Avança o dia corrente do índice, descartando inteiros os baldes com validade até o novo dia (inclusive).
+     *
+     * @param day novo dia corrente.
+     */
+    @Override
+    public synchronized void advance(LocalDate day) {
+        if (!day.isAfter(today))
+            return;
+
+        NavigableMap<LocalDate, DayBucket> expired = buckets.headMap(day, true);
+        expired.values().forEach(bucket -> bucket.forEach(batch -> batchesByNumber.remove(batch.getBatchNumber())));
+        expired.clear();
+        today = day;
+    }
+
+    /**
+     * Compara o índice com a tabela de lotes.
+     *
+     * @return números dos lotes cuja quantidade ou validade diverge, que faltam ou que sobram no índice.
+     */
+    @Override
+    public List<Long> findInconsistencies() {
+        rollOverIfNeeded();
+        Map<Long, BatchBuyerResponseDto> indexed = batchesByNumber;
+        Map<Long, BatchBuyerResponseDto> expected = batchRepository.findSellable(today)
+                .stream()
+                .collect(Collectors.toMap(BatchBuyerResponseDto::getBatchNumber, Function.identity()));
+
+        Set<Long> divergent = new TreeSet<>();
+        expected.forEach((batchNumber, batch) -> {
+            BatchBuyerResponseDto found = indexed.get(batchNumber);
+            if (found == null || found.getQuantity() != batch.getQuantity() || !found.getDueDate().equals(batch.getDueDate()))
+                divergent.add(batchNumber);
+        });
+        indexed.keySet().stream()
+                .filter(batchNumber -> !expected.containsKey(batchNumber))
+                .forEach(divergent::add);
+
+        return new ArrayList<>(divergent);
+    }
+
+    private void rollOverIfNeeded() {
+        LocalDate currentDay = LocalDate.now();
+        if (currentDay.isAfter(today))
+            advance(currentDay);
+    }
+
+    private void removeFromBucket(BatchBuyerResponseDto batch) {
+        DayBucket bucket = buckets.get(batch.getDueDate());
+        if (bucket == null)
+            return;
+        bucket.remove(batch);
+        if (bucket.isEmpty())
+            buckets.remove(batch.getDueDate());
+    }
+
+    /**
+     * Lotes de uma mesma data de validade, separados por categoria e ordenados pelo número do lote.
+     */
+    private static class DayBucket {
+        private final Map<Section.Category, NavigableMap<Long, BatchBuyerResponseDto>> batchesByCategory =
+                new EnumMap<>(Section.Category.class);
+
+        DayBucket() {
+            for (Section.Category category : Section.Category.values()) {
+                batchesByCategory.put(category, new ConcurrentSkipListMap<>());
+            }
+        }
+
+        void add(BatchBuyerResponseDto batch) {
+            batchesByCategory.get(batch.getCategory()).put(batch.getBatchNumber(), batch);
+        }
+
+        void remove(BatchBuyerResponseDto batch) {
+            batchesByCategory.get(batch.getCategory()).remove(batch.getBatchNumber());
+        }
+
+        Collection<BatchBuyerResponseDto> get(Section.Category category) {
+            return batchesByCategory.get(category).values();
+        }
+
+        boolean isEmpty() {
+            return batchesByCategory.values().stream().allMatch(Map::isEmpty);
+        }
+
+        void forEach(Consumer<BatchBuyerResponseDto> action) {
+            batchesByCategory.values().forEach(batches -> batches.values().forEach(action));
+        }
+
+        void addAllTo(List<BatchBuyerResponseDto> target) {
+            int start = target.size();
+            forEach(target::add);
+            target.subList(start, target.size()).sort(BY_BATCH_NUMBER);
+        }
+    }
+}
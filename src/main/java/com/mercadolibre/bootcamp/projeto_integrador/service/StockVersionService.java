@@ -0,0 +1,122 @@
+package com.mercadolibre.bootcamp.projeto_integrador.service;
+
+import com.mercadolibre.bootcamp.projeto_integrador.dto.BatchBuyerResponseDto;
+import com.mercadolibre.bootcamp.projeto_integrador.event.SectionChangedEvent;
+import com.mercadolibre.bootcamp.projeto_integrador.event.StockChangedEvent;
+import com.mercadolibre.bootcamp.projeto_integrador.model.Section;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Contadores de versão do estoque, um geral, um por categoria e um por seção, que só crescem.
+ * <p>
+ * Cada StockChangedEvent incrementa o contador geral, o das categorias dos lotes alterados e o das seções onde eles
+ * estão guardados. Cada SectionChangedEvent incrementa o contador da seção e o da sua categoria, porque as consultas
+ * por vencimento dependem de quem é o representante da seção. As versões compõem as ETags dos endpoints de consulta
+ * de lotes, então uma resposta só muda de ETag quando o que ela mostra pode ter mudado.
+ * <p>
+ * A época é o instante de inicialização da aplicação, para que uma ETag emitida antes de um restart nunca coincida
+ * com uma emitida depois, e é trocada em invalidateAll quando o estoque muda por fora dos serviços.
+ */
+@Service
+public class StockVersionService implements IStockVersionService {
+    private final AtomicLong epoch = new AtomicLong(System.currentTimeMillis());
+    private final AtomicLong version = new AtomicLong();
+    private final Map<Section.Category, AtomicLong> categoryVersions = new EnumMap<>(Section.Category.class);
+    private final Map<Long, AtomicLong> sectionVersions = new ConcurrentHashMap<>();
+
+    public StockVersionService() {
+        for (Section.Category category : Section.Category.values())
+            categoryVersions.put(category, new AtomicLong());
+    }
+
+    /**
+     * Incrementa as versões afetadas depois do commit. Roda depois da atualização do índice de estoque em memória,
+     * para que uma versão nova nunca seja servida junto com o catálogo antigo.
+     *
+     * @param event Evento de alteração de estoque
+     */
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockChanged(StockChangedEvent event) {
+        event.getBatches().stream()
+                .map(BatchBuyerResponseDto::getCategory)
+                .filter(Objects::nonNull)
+                .distinct()
+                .forEach(category -> categoryVersions.get(category).incrementAndGet());
+        event.getSectionCodes()
+                .forEach(sectionCode -> sectionVersions.computeIfAbsent(sectionCode, code -> new AtomicLong())
+                        .incrementAndGet());
+        version.incrementAndGet();
+    }
+
+    /**
+     * Incrementa as versões da seção e da sua categoria depois do commit de uma gravação de seção, como a troca do
+     * representante.
+     *
+     * @param event Evento de alteração de seção
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSectionChanged(SectionChangedEvent event) {
+        if (event.getCategory() != null)
+            categoryVersions.get(event.getCategory()).incrementAndGet();
+        sectionVersions.computeIfAbsent(event.getSectionCode(), code -> new AtomicLong()).incrementAndGet();
+    }
+
+    @Override
+    public long getVersion() {
+        return version.get();
+    }
+
+    @Override
+    public long getCategoryVersion(Section.Category category) {
+        return categoryVersions.get(category).get();
+    }
+
+    @Override
+    public long getSectionVersion(long sectionCode) {
+        AtomicLong sectionVersion = sectionVersions.get(sectionCode);
+        return sectionVersion == null ? 0 : sectionVersion.get();
+    }
+
+    /**
+     * Invalida todas as ETags já emitidas, para quando o estoque for alterado sem passar pelos serviços.
+     */
+    @Override
+    public void invalidateAll() {
+        epoch.incrementAndGet();
+    }
+
+    /**
+     * Monta uma ETag forte a partir da época atual e das partes informadas.
+     *
+     * @param parts Versões e parâmetros que identificam a resposta
+     * @return ETag entre aspas
+     */
+    @Override
+    public String buildETag(Object... parts) {
+        StringBuilder etag = new StringBuilder("\"").append(Long.toHexString(epoch.get()));
+        for (Object part : parts)
+            etag.append('-').append(part);
+        return etag.append('"').toString();
+    }
+
+    /**
+     * Retorna o início comum das ETags atuais cuja primeira parte é o escopo informado.
+     *
+     * @param scope Primeira parte da ETag, como a categoria ou "section-{código}"
+     * @return Prefixo das ETags do escopo
+     */
+    @Override
+    public String getETagPrefix(Object scope) {
+        return "\"" + Long.toHexString(epoch.get()) + "-" + scope + "-";
+    }
+}
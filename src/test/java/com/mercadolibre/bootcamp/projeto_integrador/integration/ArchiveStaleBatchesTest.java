@@ -0,0 +1,101 @@
+package com.mercadolibre.bootcamp.projeto_integrador.integration;
+
+import com.mercadolibre.bootcamp.projeto_integrador.dto.BatchPurchaseOrderRequestDto;
+import com.mercadolibre.bootcamp.projeto_integrador.dto.BatchRequestDto;
+import com.mercadolibre.bootcamp.projeto_integrador.integration.listeners.ResetDatabase;
+import com.mercadolibre.bootcamp.projeto_integrador.model.*;
+import com.mercadolibre.bootcamp.projeto_integrador.service.IPurchaseOrderService;
+import com.mercadolibre.bootcamp.projeto_integrador.service.ISectionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ResetDatabase
+class ArchiveStaleBatchesTest extends BaseControllerTest {
+    @Autowired
+    private ISectionService sectionService;
+    @Autowired
+    private IPurchaseOrderService purchaseOrderService;
+
+    private Manager manager;
+    private Section section;
+    private InboundOrder order;
+    private Batch inStockBatch;
+    private Batch depletedBatch;
+    private Batch expiredBatch;
+    private Batch reservedBatch;
+
+    @BeforeEach
+    void setup() {
+        manager = getSavedManager();
+        section = getSavedFreshSection(getSavedWarehouse(), manager, 10);
+        order = getSavedInboundOrder(section);
+        Product product = getSavedFreshProduct();
+
+        inStockBatch = getSavedBatch(product, order);
+        depletedBatch = getSavedBatch(product, order);
+        depletedBatch.setCurrentQuantity(0);
+        batchRepository.save(depletedBatch);
+        expiredBatch = getSavedBatch(LocalDate.now().minusDays(1), product, order);
+
+        // Esgotado por um carrinho ainda aberto, que pode devolver o estoque ao lote.
+        reservedBatch = getSavedBatch(LocalDate.now().plusDays(30), product, order);
+        purchaseOrderService.create(newPurchaseOrderRequestDto(new BatchPurchaseOrderRequestDto(
+                reservedBatch.getBatchNumber(), reservedBatch.getCurrentQuantity())), getSavedBuyer().getBuyerId());
+
+        section.setCurrentBatches(4);
+        sectionRepository.save(section);
+    }
+
+    @Test
+    void archiveStaleBatches_releasesSlotsOfDepletedAndExpiredBatches() {
+        int archivedBatches = sectionService.archiveStaleBatches();
+
+        assertThat(archivedBatches).isEqualTo(2);
+        assertThat(sectionRepository.findById(section.getSectionCode()).get().getCurrentBatches()).isEqualTo(2);
+        assertThat(isArchived(depletedBatch)).isTrue();
+        assertThat(isArchived(expiredBatch)).isTrue();
+        assertThat(isArchived(inStockBatch)).isFalse();
+        assertThat(isArchived(reservedBatch)).isFalse();
+        assertThat(batchRepository.findById(reservedBatch.getBatchNumber()).get().getCurrentQuantity()).isZero();
+    }
+
+    @Test
+    void archiveStaleBatches_archivesNothing_whenRunTwice() {
+        sectionService.archiveStaleBatches();
+
+        assertThat(sectionService.archiveStaleBatches()).isZero();
+        assertThat(sectionRepository.findById(section.getSectionCode()).get().getCurrentBatches()).isEqualTo(2);
+    }
+
+    @Test
+    void updateInboundOrder_returnsBadRequest_whenBatchIsArchived() throws Exception {
+        sectionService.archiveStaleBatches();
+        depletedBatch.setInitialQuantity(30);
+
+        mockMvc.perform(put("/api/v1/fresh-products/inboundorder")
+                        .param("orderNumber", String.valueOf(order.getOrderNumber()))
+                        .content(asJsonString(getValidInboundOrderRequestDto(section,
+                                modelMapper.map(depletedBatch, BatchRequestDto.class))))
+                        .header("Manager-Id", manager.getManagerId())
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Unable to update archived batches"));
+    }
+
+    private boolean isArchived(Batch batch) {
+        return batchRepository.findById(batch.getBatchNumber()).get().isArchived();
+    }
+}
@@ -0,0 +1,95 @@
+package com.mercadolibre.bootcamp.projeto_integrador.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.mercadolibre.bootcamp.projeto_integrador.integration.listeners.ResetDatabase;
+import com.mercadolibre.bootcamp.projeto_integrador.model.Manager;
+import com.mercadolibre.bootcamp.projeto_integrador.model.Product;
+import com.mercadolibre.bootcamp.projeto_integrador.model.Section;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ResetDatabase
+class AsyncInboundOrderTest extends BaseControllerTest {
+    private Manager manager;
+    private Section section;
+    private Product product;
+
+    @BeforeEach
+    void setup() {
+        manager = getSavedManager();
+        section = getSavedFreshSection(getSavedWarehouse(), manager);
+        product = getSavedFreshProduct();
+    }
+
+    @Test
+    void createInboundOrderAsync_returnsAcceptedAndFinishesJob_whenIsGivenAValidInput() throws Exception {
+        String response = mockMvc.perform(post("/api/v1/fresh-products/inboundorder")
+                        .param("async", "true")
+                        .content(asJsonString(getValidInboundOrderRequestDto(section, getValidBatchRequest(product))))
+                        .header("Manager-Id", manager.getManagerId())
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.batches").value(1))
+                .andReturn().getResponse().getContentAsString();
+        String jobId = objectMapper.readTree(response).get("jobId").asText();
+
+        JsonNode job = awaitFinished(jobId);
+
+        assertThat(job.get("status").asText()).isEqualTo("DONE");
+        assertThat(job.get("result").get("batchStock")).hasSize(1);
+        assertThat(batchRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void createInboundOrderAsync_returnsBadRequest_whenIsGivenAnInvalidInput() throws Exception {
+        mockMvc.perform(post("/api/v1/fresh-products/inboundorder")
+                        .param("async", "true")
+                        .content(asJsonString(getValidInboundOrderRequestDto(section, getInvalidBatchRequestDto(product))))
+                        .header("Manager-Id", manager.getManagerId())
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void createInboundOrderAsync_returnsForbidden_whenManagerIsNotResponsibleForSection() throws Exception {
+        mockMvc.perform(post("/api/v1/fresh-products/inboundorder")
+                        .param("async", "true")
+                        .content(asJsonString(getValidInboundOrderRequestDto(section, getValidBatchRequest(product))))
+                        .header("Manager-Id", getSavedManager().getManagerId())
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void getInboundOrderJob_returnsNotFound_whenJobDoesNotExist() throws Exception {
+        mockMvc.perform(get("/api/v1/fresh-products/inboundorder/jobs/{jobId}", "unknown")
+                        .header("Manager-Id", manager.getManagerId()))
+                .andExpect(status().isNotFound());
+    }
+
+    private JsonNode awaitFinished(String jobId) throws Exception {
+        for (int i = 0; i < 500; i++) {
+            String response = mockMvc.perform(get("/api/v1/fresh-products/inboundorder/jobs/{jobId}", jobId)
+                            .header("Manager-Id", manager.getManagerId()))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            JsonNode job = objectMapper.readTree(response);
+            String status = job.get("status").asText();
+            if (status.equals("DONE") || status.equals("FAILED"))
+                return job;
+            Thread.sleep(10);
+        }
+        throw new AssertionError("Job " + jobId + " did not finish");
+    }
+}
@@ -7,6 +7,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MvcResult;
 
@@ -15,7 +16,9 @@ import java.time.format.DateTimeFormatter;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.not;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -90,6 +93,60 @@ public class BatchControllerTest extends BaseControllerTest {
         assertThat(batchNumber2).isIn(batch1.getBatchNumber(), batch2.getBatchNumber());
     }
 
+    @Test
+    void findBatchBySection_returnNotModified_whenETagMatches() throws Exception {
+        getSavedBatch(getSavedFreshProduct(), order);
+
+        String etag = mockMvc.perform(get("/api/v1/fresh-products/due-date")
+                        .queryParam("sectionCode", String.valueOf(section.getSectionCode()))
+                        .queryParam("numberOfDays", "10")
+                        .header("Manager-Id", manager.getManagerId()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/v1/fresh-products/due-date")
+                        .queryParam("sectionCode", String.valueOf(section.getSectionCode()))
+                        .queryParam("numberOfDays", "10")
+                        .header("Manager-Id", manager.getManagerId())
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(get("/api/v1/fresh-products/due-date")
+                        .queryParam("sectionCode", String.valueOf(section.getSectionCode()))
+                        .queryParam("numberOfDays", "10")
+                        .header("Manager-Id", forbiddenManager.getManagerId())
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void findBatchBySection_returnForbidden_whenSectionWasReassignedAfterETag() throws Exception {
+        getSavedBatch(getSavedFreshProduct(), order);
+        String etag = mockMvc.perform(get("/api/v1/fresh-products/due-date")
+                        .queryParam("sectionCode", String.valueOf(section.getSectionCode()))
+                        .queryParam("numberOfDays", "10")
+                        .header("Manager-Id", manager.getManagerId()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        section.setManager(forbiddenManager);
+        sectionRepository.save(section);
+
+        mockMvc.perform(get("/api/v1/fresh-products/due-date")
+                        .queryParam("sectionCode", String.valueOf(section.getSectionCode()))
+                        .queryParam("numberOfDays", "10")
+                        .header("Manager-Id", manager.getManagerId())
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/v1/fresh-products/due-date")
+                        .queryParam("sectionCode", String.valueOf(section.getSectionCode()))
+                        .queryParam("numberOfDays", "10")
+                        .header("Manager-Id", forbiddenManager.getManagerId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(etag)))
+                .andExpect(jsonPath("$").value(hasSize(1)));
+    }
+
     @Test
     void findBatchBySection_returnError_whenGivenSectionCodeThatDoesNotExist() throws Exception {
         mockMvc.perform(get("/api/v1/fresh-products/due-date")
@@ -0,0 +1,105 @@
+package com.mercadolibre.bootcamp.projeto_integrador.integration;
+
+import com.mercadolibre.bootcamp.projeto_integrador.dto.BatchBuyerPageResponseDto;
+import com.mercadolibre.bootcamp.projeto_integrador.dto.BatchBuyerResponseDto;
+import com.mercadolibre.bootcamp.projeto_integrador.integration.listeners.ResetDatabase;
+import com.mercadolibre.bootcamp.projeto_integrador.model.InboundOrder;
+import com.mercadolibre.bootcamp.projeto_integrador.model.Manager;
+import com.mercadolibre.bootcamp.projeto_integrador.model.Product;
+import com.mercadolibre.bootcamp.projeto_integrador.model.Section;
+import com.mercadolibre.bootcamp.projeto_integrador.service.IBatchService;
+import com.mercadolibre.bootcamp.projeto_integrador.service.ISellableStockIndex;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ResetDatabase
+class CatalogQueryCountTest extends BaseControllerTest {
+    @Autowired
+    private IBatchService batchService;
+    @Autowired
+    private ISellableStockIndex stockIndex;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private InboundOrder inboundOrder;
+
+    @BeforeEach
+    void setup() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        Manager manager = getSavedManager();
+        Section section = getSavedFreshSection(getSavedWarehouse(), manager, 500);
+        inboundOrder = getSavedInboundOrder(section);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 50})
+    void findSellable_issuesSingleStatement_forAnyNumberOfBatches(int batchCount) {
+        saveBatchesOfDistinctProducts(batchCount);
+        statistics.clear();
+
+        List<BatchBuyerResponseDto> batches = batchRepository.findSellable(LocalDate.now().plusDays(20));
+
+        assertThat(batches).hasSize(batchCount);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 50})
+    void findSellableByCategory_issuesSingleStatement_forAnyNumberOfBatches(int batchCount) {
+        saveBatchesOfDistinctProducts(batchCount);
+        statistics.clear();
+
+        List<BatchBuyerResponseDto> batches = batchRepository
+                .findSellableByCategory(LocalDate.now().plusDays(20), Section.Category.FRESH);
+
+        assertThat(batches).hasSize(batchCount);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 50})
+    void findPage_issuesSingleStatement_forAnyNumberOfBatches(int batchCount) {
+        saveBatchesOfDistinctProducts(batchCount);
+        statistics.clear();
+
+        BatchBuyerPageResponseDto page = batchService.findPage(null, null, 0, 100);
+
+        assertThat(page.getBatches()).hasSize(batchCount);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 50})
+    void findAll_issuesNoStatement_whenAnsweredFromStockIndex(int batchCount) {
+        saveBatchesOfDistinctProducts(batchCount);
+        stockIndex.rebuild();
+        statistics.clear();
+
+        List<BatchBuyerResponseDto> batches = batchService.findAll();
+
+        assertThat(batches).hasSize(batchCount);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    private void saveBatchesOfDistinctProducts(int batchCount) {
+        for (int i = 0; i < batchCount; i++) {
+            Product product = getSavedFreshProduct();
+            getSavedBatch(LocalDate.now().plusDays(30 + i), product, inboundOrder);
+        }
+    }
+}
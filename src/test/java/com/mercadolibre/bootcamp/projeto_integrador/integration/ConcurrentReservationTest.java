@@ -0,0 +1,95 @@
+package com.mercadolibre.bootcamp.projeto_integrador.integration;
+
+import com.mercadolibre.bootcamp.projeto_integrador.dto.BatchPurchaseOrderRequestDto;
+import com.mercadolibre.bootcamp.projeto_integrador.dto.BatchRequestDto;
+import com.mercadolibre.bootcamp.projeto_integrador.exceptions.BatchOutOfStockException;
+import com.mercadolibre.bootcamp.projeto_integrador.integration.listeners.ResetDatabase;
+import com.mercadolibre.bootcamp.projeto_integrador.model.*;
+import com.mercadolibre.bootcamp.projeto_integrador.repository.IBatchPurchaseOrderRepository;
+import com.mercadolibre.bootcamp.projeto_integrador.service.IPurchaseOrderService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ResetDatabase
+class ConcurrentReservationTest extends BaseControllerTest {
+    private static final int BUYERS = 50;
+    private static final int RESERVATIONS_PER_BUYER = 40;
+    private static final int INITIAL_QUANTITY = 1000;
+
+    @Autowired
+    private IPurchaseOrderService purchaseOrderService;
+
+    @Autowired
+    private IBatchPurchaseOrderRepository batchPurchaseOrderRepository;
+
+    private Batch batch;
+    private List<Buyer> buyers;
+
+    @BeforeEach
+    void setup() {
+        Section section = getSavedFreshSection(getSavedWarehouse(), getSavedManager());
+        Product product = getSavedFreshProduct();
+        BatchRequestDto batchRequest = getValidBatchRequest(product);
+        batchRequest.setInitialQuantity(INITIAL_QUANTITY);
+        batch = getSavedBatch(batchRequest, getSavedInboundOrder(section), product);
+
+        buyers = new ArrayList<>();
+        for (int i = 0; i < BUYERS; i++)
+            buyers.add(getSavedBuyer());
+    }
+
+    @Test
+    void create_neverOversells_whenBuyersReserveSameBatchConcurrently() throws Exception {
+        // Arrange
+        AtomicInteger reserved = new AtomicInteger();
+        AtomicInteger outOfStock = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        List<Future<?>> results = new ArrayList<>();
+
+        for (Buyer buyer : buyers) {
+            results.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < RESERVATIONS_PER_BUYER; i++) {
+                    try {
+                        purchaseOrderService.create(newPurchaseOrderRequestDto(
+                                new BatchPurchaseOrderRequestDto(batch.getBatchNumber(), 1)), buyer.getBuyerId());
+                        reserved.incrementAndGet();
+                    } catch (BatchOutOfStockException e) {
+                        outOfStock.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+
+        // Act
+        start.countDown();
+        for (Future<?> result : results)
+            result.get(2, TimeUnit.MINUTES);
+        executor.shutdown();
+
+        // Assert
+        int reservedInOrders = batchPurchaseOrderRepository.findAll().stream()
+                .mapToInt(BatchPurchaseOrder::getQuantity)
+                .sum();
+        Batch batchAfterReservations = batchRepository.findById(batch.getBatchNumber()).get();
+
+        assertThat(reserved.get()).isEqualTo(INITIAL_QUANTITY);
+        assertThat(outOfStock.get()).isEqualTo(BUYERS * RESERVATIONS_PER_BUYER - INITIAL_QUANTITY);
+        assertThat(reservedInOrders).isEqualTo(INITIAL_QUANTITY);
+        assertThat(batchAfterReservations.getCurrentQuantity()).isZero();
+    }
+}
@@ -0,0 +1,92 @@
+package com.mercadolibre.bootcamp.projeto_integrador.integration;
+
+import com.mercadolibre.bootcamp.projeto_integrador.dto.BatchRequestDto;
+import com.mercadolibre.bootcamp.projeto_integrador.exceptions.MaxSizeException;
+import com.mercadolibre.bootcamp.projeto_integrador.integration.listeners.ResetDatabase;
+import com.mercadolibre.bootcamp.projeto_integrador.model.Manager;
+import com.mercadolibre.bootcamp.projeto_integrador.model.Product;
+import com.mercadolibre.bootcamp.projeto_integrador.model.Section;
+import com.mercadolibre.bootcamp.projeto_integrador.service.IInboundOrderService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ResetDatabase
+class ConcurrentSectionSlotTest extends BaseControllerTest {
+    private static final int MAX_BATCHES = 60;
+    private static final int ORDERS = 200;
+    private static final int THREADS = 16;
+
+    @Autowired
+    private IInboundOrderService inboundOrderService;
+
+    private Manager manager;
+    private Section section;
+    private Product product;
+
+    @BeforeEach
+    void setup() {
+        manager = getSavedManager();
+        section = getSavedFreshSection(getSavedWarehouse(), manager, MAX_BATCHES);
+        product = getSavedFreshProduct();
+    }
+
+    @Test
+    void create_neverOverfillsSection_whenManagersInsertIntoSameSectionConcurrently() throws Exception {
+        // Arrange
+        int initialBatches = section.getCurrentBatches();
+        AtomicInteger accepted = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> results = new ArrayList<>();
+
+        for (int i = 0; i < ORDERS; i++) {
+            // Metade dos pedidos com um lote e metade com dois, para que nem todo pedido caiba no espaço restante.
+            int batchesPerOrder = i % 2 + 1;
+            results.add(executor.submit(() -> {
+                start.await();
+                try {
+                    inboundOrderService.create(getValidInboundOrderRequestDtoWithBatchList(section,
+                            newBatchRequests(batchesPerOrder)), manager.getManagerId());
+                    accepted.addAndGet(batchesPerOrder);
+                } catch (MaxSizeException e) {
+                    rejected.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+
+        // Act
+        start.countDown();
+        for (Future<?> result : results)
+            result.get(2, TimeUnit.MINUTES);
+        executor.shutdown();
+
+        // Assert
+        int currentBatches = sectionRepository.findById(section.getSectionCode()).get().getCurrentBatches();
+        assertThat(rejected.get()).isPositive();
+        assertThat(currentBatches).isEqualTo(initialBatches + accepted.get());
+        assertThat(currentBatches).isLessThanOrEqualTo(MAX_BATCHES);
+        assertThat(currentBatches).isGreaterThanOrEqualTo(MAX_BATCHES - 1);
+        assertThat(batchRepository.count()).isEqualTo(accepted.get());
+    }
+
+    private List<BatchRequestDto> newBatchRequests(int count) {
+        List<BatchRequestDto> batches = new ArrayList<>();
+        for (int i = 0; i < count; i++)
+            batches.add(getValidBatchRequest(product));
+        return batches;
+    }
+}
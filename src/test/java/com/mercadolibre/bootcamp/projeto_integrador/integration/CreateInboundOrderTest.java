@@ -8,8 +8,11 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.MediaType;
 
+import java.util.List;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
@@ -104,12 +107,12 @@ public class CreateInboundOrderTest extends BaseControllerTest {
                 .header("Manager-Id", manager.getManagerId())
                 .contentType(MediaType.APPLICATION_JSON));
 
-        Batch batch1 = batchRepository.findById(1L).orElse(null);
-        Batch batch2 = batchRepository.findById(2L).orElse(null);
+        List<Batch> batches = batchRepository.findAll(Sort.by("batchNumber"));
 
         // Assert
-        assertThat(batch1).isNotNull();
-        assertThat(batch2).isNotNull();
+        assertThat(batches).hasSize(2);
+        Batch batch1 = batches.get(0);
+        Batch batch2 = batches.get(1);
         assertThat(batch1.getCurrentTemperature()).isEqualTo(FIRST_BATCH_TEMPERATURE);
         assertThat(batch2.getCurrentTemperature()).isEqualTo(SECOND_BATCH_TEMPERATURE);
     }
@@ -0,0 +1,136 @@
+package com.mercadolibre.bootcamp.projeto_integrador.integration;
+
+import com.mercadolibre.bootcamp.projeto_integrador.integration.listeners.ResetDatabase;
+import com.mercadolibre.bootcamp.projeto_integrador.model.InboundOrder;
+import com.mercadolibre.bootcamp.projeto_integrador.model.Manager;
+import com.mercadolibre.bootcamp.projeto_integrador.model.Product;
+import com.mercadolibre.bootcamp.projeto_integrador.model.Section;
+import com.mercadolibre.bootcamp.projeto_integrador.model.Warehouse;
+import com.mercadolibre.bootcamp.projeto_integrador.service.IBatchService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Mede a consulta de lotes por categoria e validade de um representante enquanto a categoria cresce de 10 mil para
+ * 1 milhão de lotes de outro representante. Executar com -Dbenchmark=true.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ResetDatabase
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class DueDateReportBenchmarkTest extends BaseControllerTest {
+    private static final Logger logger = LoggerFactory.getLogger(DueDateReportBenchmarkTest.class);
+    private static final int OWN_BATCHES = 1_000;
+    private static final int SMALL_CATEGORY = 10_000;
+    private static final int LARGE_CATEGORY = 1_000_000;
+    private static final int INSERT_CHUNK = 10_000;
+    private static final int DAYS = 30;
+    private static final String SQL_INSERT_BATCH = "INSERT INTO batch (batch_number, product_id, order_number, " +
+            "current_quantity, initial_quantity, current_temperature, minimum_temperature, due_date, " +
+            "manufacturing_date, manufacturing_time, product_price, archived) " +
+            "VALUES (NEXT VALUE FOR batch_sequence, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, FALSE)";
+
+    @Autowired
+    private IBatchService batchService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Manager ownManager;
+    private Section ownSection;
+    private InboundOrder ownOrder;
+    private InboundOrder otherOrder;
+    private Product product;
+
+    @BeforeEach
+    void setup() {
+        Warehouse warehouse = getSavedWarehouse();
+        ownManager = getSavedManager();
+        ownSection = getSavedFreshSection(warehouse, ownManager, OWN_BATCHES);
+        ownOrder = getSavedInboundOrder(ownSection);
+        otherOrder = getSavedInboundOrder(getSavedFreshSection(warehouse, getSavedManager(), LARGE_CATEGORY));
+        product = getSavedFreshProduct();
+    }
+
+    @Test
+    void findBatchByCategoryAndDueDate_latencyDoesNotScaleWithCategorySize() {
+        insertBatches(ownOrder, OWN_BATCHES);
+        insertBatches(otherOrder, SMALL_CATEGORY);
+        long smallCategoryNanos = measure(this::findOwnBatchesByCategory);
+        long smallSectionNanos = measure(this::findOwnBatchesBySection);
+
+        insertBatches(otherOrder, LARGE_CATEGORY - SMALL_CATEGORY);
+        long largeCategoryNanos = measure(this::findOwnBatchesByCategory);
+        long largeSectionNanos = measure(this::findOwnBatchesBySection);
+
+        logger.info("by category: {} ms with {} batches, {} ms with {} batches",
+                toMillis(smallCategoryNanos), SMALL_CATEGORY, toMillis(largeCategoryNanos), LARGE_CATEGORY);
+        logger.info("by section: {} ms with {} batches, {} ms with {} batches",
+                toMillis(smallSectionNanos), SMALL_CATEGORY, toMillis(largeSectionNanos), LARGE_CATEGORY);
+
+        // A categoria cresceu 100 vezes; a consulta deve continuar proporcional aos lotes do representante.
+        assertThat(largeCategoryNanos).isLessThan(smallCategoryNanos * 5 + 20_000_000L);
+        assertThat(largeSectionNanos).isLessThan(smallSectionNanos * 5 + 20_000_000L);
+    }
+
+    private int findOwnBatchesByCategory() {
+        return batchService.findBatchByCategoryAndDueDate("FS", DAYS, "ASC", ownManager.getManagerId()).size();
+    }
+
+    private int findOwnBatchesBySection() {
+        return batchService.findBatchBySection(ownSection.getSectionCode(), DAYS, ownManager.getManagerId()).size();
+    }
+
+    /**
+     * @return mediana de 21 execuções, após 5 de aquecimento
+     */
+    private long measure(Supplier<Integer> query) {
+        for (int i = 0; i < 5; i++)
+            assertThat(query.get()).isPositive();
+
+        long[] samples = new long[21];
+        for (int i = 0; i < samples.length; i++) {
+            long start = System.nanoTime();
+            query.get();
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        return samples[samples.length / 2];
+    }
+
+    private void insertBatches(InboundOrder order, int count) {
+        LocalDate today = LocalDate.now();
+        Timestamp manufacturingTime = Timestamp.valueOf(LocalDateTime.now().minusDays(1));
+        for (int inserted = 0; inserted < count; inserted += INSERT_CHUNK) {
+            List<Object[]> rows = new ArrayList<>();
+            for (int i = inserted; i < Math.min(count, inserted + INSERT_CHUNK); i++) {
+                rows.add(new Object[]{product.getProductId(), order.getOrderNumber(), i % 10, 10, 2.0f, 1.0f,
+                        Date.valueOf(today.plusDays(i % (2 * DAYS))), Date.valueOf(today.minusDays(1)),
+                        manufacturingTime, BigDecimal.TEN});
+            }
+            jdbcTemplate.batchUpdate(SQL_INSERT_BATCH, rows);
+        }
+    }
+
+    private static String toMillis(long nanos) {
+        return String.format("%.2f", nanos / 1e6);
+    }
+}
@@ -0,0 +1,131 @@
+package com.mercadolibre.bootcamp.projeto_integrador.integration;
+
+import com.mercadolibre.bootcamp.projeto_integrador.enums.OrderStatus;
+import com.mercadolibre.bootcamp.projeto_integrador.integration.listeners.ResetDatabase;
+import com.mercadolibre.bootcamp.projeto_integrador.model.*;
+import com.mercadolibre.bootcamp.projeto_integrador.repository.IBatchPurchaseOrderRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Fixa o número de comandos SQL de cada endpoint que carrega entidades, para que uma associação carregada fora do
+ * plano de busca (N+1) apareça como falha. O cache de segundo nível é esvaziado antes de cada chamada, então os
+ * números são os de um cache frio.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ResetDatabase
+class EntityFetchQueryCountTest extends BaseControllerTest {
+    @Autowired
+    private IBatchPurchaseOrderRepository batchPurchaseOrderRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Manager manager;
+
+    @BeforeEach
+    void setup() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        manager = getSavedManager();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 50})
+    void getProductDetails_issuesTwoStatements_forBatchesInDistinctWarehouses(int batchCount) throws Exception {
+        Product product = getSavedFreshProduct();
+        for (int i = 0; i < batchCount; i++)
+            getSavedBatch(product, getSavedInboundOrder(getSavedFreshSection(getSavedWarehouse(), manager)));
+        entityManagerFactory.getCache().evictAll();
+        statistics.clear();
+
+        mockMvc.perform(get("/api/v1/fresh-products/list")
+                        .param("productId", String.valueOf(product.getProductId()))
+                        .header("Manager-Id", manager.getManagerId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.batchStock", hasSize(batchCount)));
+
+        // Produto e a página de lotes com ordem de entrada e seção; o representante é confirmado pelo índice de seções.
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 50})
+    void getProductsPurchaseOrder_issuesTwoStatements_forAnyNumberOfItems(int itemCount) throws Exception {
+        Buyer buyer = getSavedBuyer();
+        PurchaseOrder purchaseOrder = getSavedPurchaseOrder(buyer, itemCount);
+        entityManagerFactory.getCache().evictAll();
+        statistics.clear();
+
+        mockMvc.perform(get("/api/v1/fresh-products/orders")
+                        .param("purchaseOrderId", String.valueOf(purchaseOrder.getPurchaseId()))
+                        .header("Buyer-Id", buyer.getBuyerId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(itemCount)));
+
+        // Comprador e o carrinho com itens, lotes e produtos.
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 50})
+    void updatePurchaseOrder_issuesTwoStatements_forAnyNumberOfItems(int itemCount) throws Exception {
+        Buyer buyer = getSavedBuyer();
+        PurchaseOrder purchaseOrder = getSavedPurchaseOrder(buyer, itemCount);
+        entityManagerFactory.getCache().evictAll();
+        statistics.clear();
+
+        mockMvc.perform(put("/api/v1/fresh-products/orders")
+                        .param("purchaseOrderId", String.valueOf(purchaseOrder.getPurchaseId()))
+                        .header("Buyer-Id", buyer.getBuyerId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.orderStatus").value(OrderStatus.CLOSED.toString()));
+
+        // O carrinho com itens, lotes e produtos, e o UPDATE que o fecha.
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    /**
+     * Carrinho já reservado, com um item por lote e um produto diferente por lote.
+     */
+    private PurchaseOrder getSavedPurchaseOrder(Buyer buyer, int itemCount) {
+        InboundOrder inboundOrder = getSavedInboundOrder(getSavedFreshSection(getSavedWarehouse(), manager,
+                itemCount));
+
+        PurchaseOrder purchaseOrder = new PurchaseOrder();
+        purchaseOrder.setBuyer(buyer);
+        purchaseOrder.setDate(LocalDate.now());
+        purchaseOrder.setUpdateDateTime(LocalDateTime.now());
+        purchaseOrder.setOrderStatus(OrderStatus.OPENED);
+        purchaseOrder.setReserved(true);
+        purchaseOrderRepository.save(purchaseOrder);
+
+        for (int i = 0; i < itemCount; i++) {
+            Batch batch = getSavedBatch(LocalDate.now().plusDays(30), getSavedFreshProduct(), inboundOrder);
+            BatchPurchaseOrder item = new BatchPurchaseOrder();
+            item.setPurchaseOrder(purchaseOrder);
+            item.setBatch(batch);
+            item.setUnitPrice(batch.getProductPrice());
+            item.setQuantity(1);
+            batchPurchaseOrderRepository.save(item);
+        }
+        return purchaseOrder;
+    }
+}
@@ -1,20 +1,35 @@
 package com.mercadolibre.bootcamp.projeto_integrador.integration;
 
+import com.mercadolibre.bootcamp.projeto_integrador.dto.BatchPurchaseOrderRequestDto;
+import com.mercadolibre.bootcamp.projeto_integrador.dto.BatchRequestDto;
 import com.mercadolibre.bootcamp.projeto_integrador.dto.InboundOrderRequestDto;
+import com.mercadolibre.bootcamp.projeto_integrador.dto.PurchaseOrderRequestDto;
+import com.mercadolibre.bootcamp.projeto_integrador.dto.ResponseCacheStatsDto;
 import com.mercadolibre.bootcamp.projeto_integrador.integration.listeners.ResetDatabase;
+import com.mercadolibre.bootcamp.projeto_integrador.model.Batch;
 import com.mercadolibre.bootcamp.projeto_integrador.model.Manager;
 import com.mercadolibre.bootcamp.projeto_integrador.model.Product;
 import com.mercadolibre.bootcamp.projeto_integrador.model.Section;
 import com.mercadolibre.bootcamp.projeto_integrador.model.Warehouse;
 import com.mercadolibre.bootcamp.projeto_integrador.service.IInboundOrderService;
+import com.mercadolibre.bootcamp.projeto_integrador.service.IResponseCacheService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -32,6 +47,9 @@ class FreshProductsControllerTest extends BaseControllerTest {
     @Autowired
     IInboundOrderService service;
 
+    @Autowired
+    IResponseCacheService responseCache;
+
     @BeforeEach
     public void setup() {
         warehouse = getSavedWarehouse();
@@ -39,22 +57,96 @@ class FreshProductsControllerTest extends BaseControllerTest {
         section = getSavedSection(warehouse, manager, Section.Category.FRESH);
         product = getSavedProduct(Section.Category.FRESH);
         validInboundOrderRequest = getValidInboundOrderRequestDtoWithBatchList(section, getValidListBatchRequest(product));
-        validInboundOrderRequest.getBatchStock().get(0).setBatchNumber(1);
-        validInboundOrderRequest.getBatchStock().get(1).setBatchNumber(2);
     }
 
     @Test
-    void findBatches_returnAll_whenCategoryNotInformed() throws Exception {
-        service.create(validInboundOrderRequest, manager.getManagerId());
+    void findBatches_returnAllOrderedByDueDate_whenCategoryNotInformed() throws Exception {
+        createInboundOrder();
         mockMvc.perform(get("/api/v1/fresh-products"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.length()").value(validInboundOrderRequest.getBatchStock().size()))
                 .andExpect(jsonPath("$[0].batchNumber")
-                        .value(validInboundOrderRequest.getBatchStock().get(0).getBatchNumber()))
+                        .value(validInboundOrderRequest.getBatchStock().get(1).getBatchNumber()))
                 .andExpect(jsonPath("$[1].batchNumber")
+                        .value(validInboundOrderRequest.getBatchStock().get(0).getBatchNumber()));
+    }
+
+    @Test
+    void findBatches_reflectsReservation_whenBatchIsPurchased() throws Exception {
+        createInboundOrder();
+        BatchRequestDto reservedBatch = validInboundOrderRequest.getBatchStock().get(0);
+        PurchaseOrderRequestDto order = newPurchaseOrderRequestDto(
+                new BatchPurchaseOrderRequestDto(reservedBatch.getBatchNumber(), reservedBatch.getInitialQuantity()));
+
+        mockMvc.perform(post("/api/v1/fresh-products/orders")
+                        .content(asJsonString(order))
+                        .header("Buyer-Id", getSavedBuyer().getBuyerId())
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/api/v1/fresh-products"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].batchNumber")
                         .value(validInboundOrderRequest.getBatchStock().get(1).getBatchNumber()));
     }
 
+    @Test
+    void findBatches_returnNotModified_whenETagMatchesAndStockDidNotChange() throws Exception {
+        createInboundOrder();
+        String etag = mockMvc.perform(get("/api/v1/fresh-products").param("category", "FS"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/v1/fresh-products").param("category", "FS")
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void findBatches_returnNewETag_whenStockChanged() throws Exception {
+        createInboundOrder();
+        String etag = mockMvc.perform(get("/api/v1/fresh-products"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        BatchRequestDto reservedBatch = validInboundOrderRequest.getBatchStock().get(0);
+        PurchaseOrderRequestDto order = newPurchaseOrderRequestDto(
+                new BatchPurchaseOrderRequestDto(reservedBatch.getBatchNumber(), 1));
+
+        mockMvc.perform(post("/api/v1/fresh-products/orders")
+                        .content(asJsonString(order))
+                        .header("Buyer-Id", getSavedBuyer().getBuyerId())
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/api/v1/fresh-products").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(etag)))
+                .andExpect(jsonPath("$.length()").value(2));
+    }
+
+    @Test
+    void findBatches_serveCachedResponse_whenRequestedAgain() throws Exception {
+        createInboundOrder();
+        ResponseCacheStatsDto before = responseCache.getStats();
+
+        byte[] first = mockMvc.perform(get("/api/v1/fresh-products"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+        byte[] second = mockMvc.perform(get("/api/v1/fresh-products"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        ResponseCacheStatsDto after = responseCache.getStats();
+        assertThat(second).isEqualTo(first);
+        assertThat(after.getMisses() - before.getMisses()).isEqualTo(1);
+        assertThat(after.getHits() - before.getHits()).isEqualTo(1);
+        assertThat(after.getBytesSaved() - before.getBytesSaved()).isEqualTo(second.length);
+    }
+
     @Test
     void findBatches_returnNotFoundException_whenBatchNotExist() throws Exception {
         mockMvc.perform(get("/api/v1/fresh-products"))
@@ -65,14 +157,14 @@ class FreshProductsControllerTest extends BaseControllerTest {
 
     @Test
     void findBatches_returnBatchesFresh_whenCategoryInformed() throws Exception {
-        service.create(validInboundOrderRequest, manager.getManagerId());
+        createInboundOrder();
         mockMvc.perform(get("/api/v1/fresh-products").param("category", "FS"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.length()").value(validInboundOrderRequest.getBatchStock().size()))
                 .andExpect(jsonPath("$[0].batchNumber")
-                        .value(validInboundOrderRequest.getBatchStock().get(0).getBatchNumber()))
-                .andExpect(jsonPath("$[1].batchNumber")
                         .value(validInboundOrderRequest.getBatchStock().get(1).getBatchNumber()))
+                .andExpect(jsonPath("$[1].batchNumber")
+                        .value(validInboundOrderRequest.getBatchStock().get(0).getBatchNumber()))
                 .andExpect(jsonPath("$[0].category").value("FRESH"))
                 .andExpect(jsonPath("$[1].category").value("FRESH"));
     }
@@ -92,4 +184,63 @@ class FreshProductsControllerTest extends BaseControllerTest {
                 .andExpect(jsonPath("$.name", containsString("Bad request")))
                 .andExpect(jsonPath("$.message", containsString("Invalid category, try again with one of the options")));
     }
+
+    @Test
+    void findBatchesPage_returnBatchesAfterCursor_whenSizeInformed() throws Exception {
+        createInboundOrder();
+        BatchRequestDto firstByDueDate = validInboundOrderRequest.getBatchStock().get(1);
+        BatchRequestDto secondByDueDate = validInboundOrderRequest.getBatchStock().get(0);
+
+        mockMvc.perform(get("/api/v1/fresh-products").param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.batches.length()").value(1))
+                .andExpect(jsonPath("$.batches[0].batchNumber").value(firstByDueDate.getBatchNumber()))
+                .andExpect(jsonPath("$.nextBatchNumber").value(firstByDueDate.getBatchNumber()))
+                .andExpect(jsonPath("$.nextDueDate").value(firstByDueDate.getDueDate().toString()));
+
+        mockMvc.perform(get("/api/v1/fresh-products")
+                        .param("size", "2")
+                        .param("lastDueDate", firstByDueDate.getDueDate().toString())
+                        .param("lastBatchNumber", String.valueOf(firstByDueDate.getBatchNumber())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.batches.length()").value(1))
+                .andExpect(jsonPath("$.batches[0].batchNumber").value(secondByDueDate.getBatchNumber()))
+                .andExpect(jsonPath("$.nextBatchNumber").doesNotExist());
+    }
+
+    @Test
+    void findBatchesPage_returnBadRequestException_whenInvalidSize() throws Exception {
+        mockMvc.perform(get("/api/v1/fresh-products").param("size", "0"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", containsString("The page size should be between 1 and")));
+    }
+
+    @Test
+    void streamBatches_returnAll_whenCategoryNotInformed() throws Exception {
+        createInboundOrder();
+        mockMvc.perform(get("/api/v1/fresh-products/stream"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(validInboundOrderRequest.getBatchStock().size()))
+                .andExpect(jsonPath("$[0].batchNumber")
+                        .value(validInboundOrderRequest.getBatchStock().get(1).getBatchNumber()))
+                .andExpect(jsonPath("$[1].batchNumber")
+                        .value(validInboundOrderRequest.getBatchStock().get(0).getBatchNumber()));
+    }
+
+    @Test
+    void streamBatches_returnBadRequestException_whenInvalidCategory() throws Exception {
+        mockMvc.perform(get("/api/v1/fresh-products/stream").param("category", "ab"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", containsString("Invalid category, try again with one of the options")));
+    }
+
+    /**
+     * Os números dos lotes vêm da sequência, que não volta ao início entre os testes; a requisição passa a guardar os
+     * números gerados para as asserções.
+     */
+    private void createInboundOrder() {
+        List<Batch> batches = service.create(validInboundOrderRequest, manager.getManagerId()).getBatchStock();
+        for (int i = 0; i < batches.size(); i++)
+            validInboundOrderRequest.getBatchStock().get(i).setBatchNumber(batches.get(i).getBatchNumber());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,65 @@
+package com.mercadolibre.bootcamp.projeto_integrador.integration;
+
+import com.mercadolibre.bootcamp.projeto_integrador.dto.BatchRequestDto;
+import com.mercadolibre.bootcamp.projeto_integrador.dto.InboundOrderResponseDto;
+import com.mercadolibre.bootcamp.projeto_integrador.integration.listeners.ResetDatabase;
+import com.mercadolibre.bootcamp.projeto_integrador.model.Manager;
+import com.mercadolibre.bootcamp.projeto_integrador.model.Product;
+import com.mercadolibre.bootcamp.projeto_integrador.model.Section;
+import com.mercadolibre.bootcamp.projeto_integrador.service.IInboundOrderService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ResetDatabase
+class InboundOrderBatchInsertTest extends BaseControllerTest {
+    private static final int BATCHES = 1_000;
+
+    @Autowired
+    private IInboundOrderService inboundOrderService;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Manager manager;
+    private Section section;
+    private Product product;
+
+    @BeforeEach
+    void setup() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        manager = getSavedManager();
+        // A seção gerada já começa com um lote ocupado.
+        section = getSavedFreshSection(getSavedWarehouse(), manager, BATCHES + 1);
+        product = getSavedFreshProduct();
+    }
+
+    @Test
+    void create_insertsBatchesInJdbcBatches_whenOrderHasManyBatches() {
+        List<BatchRequestDto> batches = new ArrayList<>();
+        for (int i = 0; i < BATCHES; i++)
+            batches.add(getValidBatchRequest(product));
+        statistics.clear();
+
+        InboundOrderResponseDto response = inboundOrderService.create(
+                getValidInboundOrderRequestDtoWithBatchList(section, batches), manager.getManagerId());
+
+        assertThat(response.getBatchStock()).hasSize(BATCHES);
+        assertThat(batchRepository.count()).isEqualTo(BATCHES);
+        assertThat(statistics.getEntityInsertCount()).isGreaterThanOrEqualTo(BATCHES);
+        // Sem batch JDBC seria ao menos um statement por lote.
+        assertThat(statistics.getPrepareStatementCount()).isLessThan(BATCHES / 5);
+    }
+}
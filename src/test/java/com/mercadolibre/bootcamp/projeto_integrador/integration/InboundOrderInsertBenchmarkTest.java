@@ -0,0 +1,92 @@
+package com.mercadolibre.bootcamp.projeto_integrador.integration;
+
+import com.mercadolibre.bootcamp.projeto_integrador.dto.BatchRequestDto;
+import com.mercadolibre.bootcamp.projeto_integrador.dto.InboundOrderRequestDto;
+import com.mercadolibre.bootcamp.projeto_integrador.model.Manager;
+import com.mercadolibre.bootcamp.projeto_integrador.model.Product;
+import com.mercadolibre.bootcamp.projeto_integrador.model.Section;
+import com.mercadolibre.bootcamp.projeto_integrador.service.IInboundOrderService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Mede a vazão de criação de ordens de entrada com 5 mil lotes. Executar com -Dbenchmark=true; por padrão usa o H2
+ * dos testes. Para medir no MySQL, informar também spring.datasource.url, spring.datasource.username,
+ * spring.datasource.password e spring.datasource.driver-class-name apontando para uma base já criada pela aplicação.
+ * Não usa @ResetDatabase, que é específico do H2: cada execução cria o próprio setor e produto.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class InboundOrderInsertBenchmarkTest extends BaseControllerTest {
+    private static final Logger logger = LoggerFactory.getLogger(InboundOrderInsertBenchmarkTest.class);
+    private static final int BATCHES_PER_ORDER = 5_000;
+    private static final int WARMUP_ORDERS = 3;
+    private static final int MEASURED_ORDERS = 10;
+
+    @Autowired
+    private IInboundOrderService inboundOrderService;
+    @Autowired
+    private DataSource dataSource;
+
+    private Manager manager;
+    private InboundOrderRequestDto request;
+
+    @BeforeEach
+    void setup() {
+        manager = getSavedManager();
+        // A seção gerada já começa com um lote ocupado.
+        Section section = getSavedFreshSection(getSavedWarehouse(), manager,
+                BATCHES_PER_ORDER * (WARMUP_ORDERS + MEASURED_ORDERS) + 1);
+        Product product = getSavedFreshProduct();
+
+        List<BatchRequestDto> batches = new ArrayList<>();
+        for (int i = 0; i < BATCHES_PER_ORDER; i++)
+            batches.add(getValidBatchRequest(product));
+        request = getValidInboundOrderRequestDtoWithBatchList(section, batches);
+    }
+
+    @Test
+    void create_throughputFor5kBatchOrders() throws SQLException {
+        for (int i = 0; i < WARMUP_ORDERS; i++)
+            createOrder();
+
+        long[] samples = new long[MEASURED_ORDERS];
+        for (int i = 0; i < samples.length; i++) {
+            long start = System.nanoTime();
+            createOrder();
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        long median = samples[samples.length / 2];
+
+        logger.info("{}: {} batches per order, median {} ms, {} batches/s", getDatabaseName(),
+                BATCHES_PER_ORDER, Math.round(median / 1e6), Math.round(BATCHES_PER_ORDER / (median / 1e9)));
+    }
+
+    private void createOrder() {
+        assertThat(inboundOrderService.create(request, manager.getManagerId()).getBatchStock())
+                .hasSize(BATCHES_PER_ORDER);
+    }
+
+    private String getDatabaseName() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            return connection.getMetaData().getDatabaseProductName();
+        }
+    }
+}
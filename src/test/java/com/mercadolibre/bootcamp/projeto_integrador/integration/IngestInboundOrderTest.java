@@ -0,0 +1,151 @@
+package com.mercadolibre.bootcamp.projeto_integrador.integration;
+
+import com.mercadolibre.bootcamp.projeto_integrador.dto.BatchRequestDto;
+import com.mercadolibre.bootcamp.projeto_integrador.integration.listeners.ResetDatabase;
+import com.mercadolibre.bootcamp.projeto_integrador.model.*;
+import com.mercadolibre.bootcamp.projeto_integrador.service.InboundOrderService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ResetDatabase
+class IngestInboundOrderTest extends BaseControllerTest {
+    private static final int LINES = 1_200;
+
+    private Manager manager;
+    private Section section;
+    private Product product;
+
+    @BeforeEach
+    void setup() {
+        manager = getSavedManager();
+        section = getSavedFreshSection(getSavedWarehouse(), manager, LINES + 1);
+        product = getSavedFreshProduct();
+    }
+
+    @Test
+    void ingestInboundOrder_insertsAllBatchesInOneOrder_whenStreamHasSeveralChunks() throws Exception {
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < LINES; i++)
+            body.append(asJsonString(getValidBatchRequest(product))).append('\n');
+
+        ingest(section, manager, body.toString())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.receivedLines").value(LINES))
+                .andExpect(jsonPath("$.insertedBatches").value(LINES))
+                .andExpect(jsonPath("$.rejectedLines").value(0))
+                .andExpect(jsonPath("$.errors").isEmpty());
+
+        assertThat(inboundOrderRepository.findAll()).hasSize(1);
+        assertThat(batchRepository.count()).isEqualTo(LINES);
+        assertThat(sectionRepository.findById(section.getSectionCode()).get().getCurrentBatches()).isEqualTo(LINES + 1);
+    }
+
+    @Test
+    void ingestInboundOrder_reportsLineErrors_whenSomeLinesAreInvalid() throws Exception {
+        BatchRequestDto invalidBatch = getValidBatchRequest(product);
+        invalidBatch.setInitialQuantity(-1);
+        String body = asJsonString(getValidBatchRequest(product)) + "\n"
+                + "{not json\n"
+                + "\n"
+                + asJsonString(invalidBatch) + "\n"
+                + asJsonString(getBatchRequest(999)) + "\n"
+                + asJsonString(getValidBatchRequest(getSavedProduct(Section.Category.FROZEN))) + "\n"
+                + asJsonString(getValidBatchRequest(product));
+
+        ingest(section, manager, body)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.receivedLines").value(6))
+                .andExpect(jsonPath("$.insertedBatches").value(2))
+                .andExpect(jsonPath("$.rejectedLines").value(4))
+                .andExpect(jsonPath("$.errors[0].line").value(2))
+                .andExpect(jsonPath("$.errors[1].line").value(4))
+                .andExpect(jsonPath("$.errors[1].message").value("A quantidade inicial deve ser maior ou igual a 0"))
+                .andExpect(jsonPath("$.errors[2].line").value(5))
+                .andExpect(jsonPath("$.errors[2].message").value("There is no product with the specified id"))
+                .andExpect(jsonPath("$.errors[3].line").value(6));
+
+        assertThat(batchRepository.count()).isEqualTo(2);
+    }
+
+    @Test
+    void ingestInboundOrder_rejectsLine_whenLineExceedsMaximumSize() throws Exception {
+        String hugeLine = "{\"productId\": \"" + "1".repeat(InboundOrderService.MAXIMUM_LINE_BYTES) + "\"}";
+        String body = hugeLine + "\n" + asJsonString(getValidBatchRequest(product)) + "\n" + hugeLine;
+
+        ingest(section, manager, body)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.receivedLines").value(3))
+                .andExpect(jsonPath("$.insertedBatches").value(1))
+                .andExpect(jsonPath("$.rejectedLines").value(2))
+                .andExpect(jsonPath("$.errors[0].line").value(1))
+                .andExpect(jsonPath("$.errors[0].message")
+                        .value("The line exceeds " + InboundOrderService.MAXIMUM_LINE_BYTES + " bytes"))
+                .andExpect(jsonPath("$.errors[1].line").value(3));
+    }
+
+    @Test
+    void ingestInboundOrder_rejectsChunk_whenSectionHasNoSpace() throws Exception {
+        Section smallSection = getSavedFreshSection(getSavedWarehouse(), manager, 2);
+        String line = asJsonString(getValidBatchRequest(product)) + "\n";
+
+        ingest(smallSection, manager, line + line + line)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.orderNumber").value(0))
+                .andExpect(jsonPath("$.insertedBatches").value(0))
+                .andExpect(jsonPath("$.rejectedLines").value(3))
+                .andExpect(jsonPath("$.errors[0].message").value("Section does not have enough space"));
+
+        assertThat(inboundOrderRepository.findAll()).isEmpty();
+        assertThat(batchRepository.count()).isZero();
+    }
+
+    @Test
+    void ingestInboundOrder_rejectsOnlyFailedChunk_whenDatabaseRefusesABatch() throws Exception {
+        // O preço passa na validação do DTO, mas não cabe na coluna; a linha fica no último bloco do fluxo.
+        BatchRequestDto invalidBatch = getValidBatchRequest(product);
+        invalidBatch.setProductPrice(new BigDecimal("100000000"));
+        StringBuilder body = new StringBuilder();
+        for (int i = 1; i < LINES; i++)
+            body.append(asJsonString(getValidBatchRequest(product))).append('\n');
+        body.append(asJsonString(invalidBatch));
+
+        ingest(section, manager, body.toString())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.insertedBatches").value(1000))
+                .andExpect(jsonPath("$.rejectedLines").value(LINES - 1000))
+                .andExpect(jsonPath("$.errors[0].line").value(1001))
+                .andExpect(jsonPath("$.errors[0].message").value("The batches could not be stored"));
+
+        assertThat(batchRepository.count()).isEqualTo(1000);
+        assertThat(sectionRepository.findById(section.getSectionCode()).get().getCurrentBatches()).isEqualTo(1001);
+    }
+
+    @Test
+    void ingestInboundOrder_returnsForbidden_whenManagerIsNotResponsibleForSection() throws Exception {
+        ingest(section, getSavedManager(), asJsonString(getValidBatchRequest(product)))
+                .andExpect(status().isForbidden());
+
+        assertThat(batchRepository.count()).isZero();
+    }
+
+    private ResultActions ingest(Section targetSection, Manager requestManager, String body) throws Exception {
+        return mockMvc.perform(post("/api/v1/fresh-products/inboundorder/stream")
+                .param("sectionCode", String.valueOf(targetSection.getSectionCode()))
+                .header("Manager-Id", requestManager.getManagerId())
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .content(body));
+    }
+}
@@ -4,9 +4,13 @@ import com.mercadolibre.bootcamp.projeto_integrador.dto.BatchPurchaseOrderReques
 import com.mercadolibre.bootcamp.projeto_integrador.dto.BatchRequestDto;
 import com.mercadolibre.bootcamp.projeto_integrador.dto.PurchaseOrderRequestDto;
 import com.mercadolibre.bootcamp.projeto_integrador.dto.PurchaseOrderResponseDto;
+import com.mercadolibre.bootcamp.projeto_integrador.dto.ReleasedReservationsReportDto;
 import com.mercadolibre.bootcamp.projeto_integrador.job.ScheduledJob;
 import com.mercadolibre.bootcamp.projeto_integrador.model.*;
 import com.mercadolibre.bootcamp.projeto_integrador.repository.IBatchPurchaseOrderRepository;
+import com.mercadolibre.bootcamp.projeto_integrador.service.IPurchaseOrderService;
+import com.mercadolibre.bootcamp.projeto_integrador.service.IReservationExpiryWheel;
+import com.mercadolibre.bootcamp.projeto_integrador.service.ReservationExpiryWheel;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -16,6 +20,7 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MvcResult;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -28,6 +33,10 @@ public class JobTest extends BaseControllerTest {
     private ScheduledJob jobs;
     @Autowired
     private IBatchPurchaseOrderRepository batchPurchaseOrderRepository;
+    @Autowired
+    private IReservationExpiryWheel reservationExpiry;
+    @Autowired
+    private IPurchaseOrderService purchaseOrderService;
 
     private Manager manager;
     private Section freshSection;
@@ -116,4 +125,86 @@ public class JobTest extends BaseControllerTest {
         Batch batchAfterJob = batchRepository.findById(batchOfFreshSaved.getBatchNumber()).get();
         assertThat(batchAfterJob.getCurrentQuantity()).isEqualTo(initialQuantity);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void expireReservations_dropPurchase_whenReservationDeadlinePassed() throws Exception {
+        // Arrange
+        BatchPurchaseOrderRequestDto batch = new BatchPurchaseOrderRequestDto();
+        batch.setBatchNumber(batchOfFreshSaved.getBatchNumber());
+        batch.setQuantity(10);
+        PurchaseOrderRequestDto order = newPurchaseOrderRequestDto(batch);
+
+        MvcResult response = mockMvc.perform(post("/api/v1/fresh-products/orders")
+                .content(asJsonString(order))
+                .header("Buyer-Id", buyer.getBuyerId())
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().is2xxSuccessful())
+                .andReturn();
+
+        String json = response.getResponse().getContentAsString();
+        long orderId = objectMapper.readValue(json, PurchaseOrderResponseDto.class).getPurchaseOrderId();
+        PurchaseOrder purchaseOrder = purchaseOrderRepository.findById(orderId).get();
+        purchaseOrder.setUpdateDateTime(LocalDateTime.now().minusHours(2));
+        purchaseOrderRepository.save(purchaseOrder);
+        reservationExpiry.rebuild();
+
+        // Act
+        jobs.expireReservations();
+
+        // Assert
+        // O agendador também avança a roda a cada segundo e pode ter pego o carrinho antes desta chamada.
+        PurchaseOrder orderAfterJob = purchaseOrderRepository.findById(orderId).get();
+        for (int attempt = 0; attempt < 50 && orderAfterJob.isReserved(); attempt++) {
+            Thread.sleep(100);
+            orderAfterJob = purchaseOrderRepository.findById(orderId).get();
+        }
+        assertThat(orderAfterJob.isReserved()).isFalse();
+        Batch batchAfterJob = batchRepository.findById(batchOfFreshSaved.getBatchNumber()).get();
+        assertThat(batchAfterJob.getCurrentQuantity()).isEqualTo(initialQuantity);
+    }
+
+    @Test
+    public void dropAbandonedPurchase_reportReleasedChunks_whenAbandonedPurchases() throws Exception {
+        // Arrange
+        Buyer otherBuyer = getSavedBuyer();
+        long firstOrderId = postAbandonedPurchase(buyer, 10);
+        long secondOrderId = postAbandonedPurchase(otherBuyer, 5);
+
+        // Act
+        List<ReleasedReservationsReportDto> reports = purchaseOrderService
+                .dropAbandonedPurchase(ReservationExpiryWheel.RESERVATION_TIMEOUT_MINUTES);
+
+        // Assert
+        assertThat(reports).isNotEmpty();
+        assertThat(reports.stream().mapToInt(ReleasedReservationsReportDto::getPurchaseOrders).sum())
+                .isGreaterThanOrEqualTo(2);
+        assertThat(reports).allSatisfy(report -> {
+            assertThat(report.getPurchaseOrders()).isPositive();
+            assertThat(report.getFirstPurchaseId()).isLessThanOrEqualTo(report.getLastPurchaseId());
+            assertThat(report.getDurationMillis()).isNotNegative();
+        });
+        assertThat(purchaseOrderRepository.findById(firstOrderId).get().isReserved()).isFalse();
+        assertThat(purchaseOrderRepository.findById(secondOrderId).get().isReserved()).isFalse();
+        Batch batchAfterJob = batchRepository.findById(batchOfFreshSaved.getBatchNumber()).get();
+        assertThat(batchAfterJob.getCurrentQuantity()).isEqualTo(initialQuantity);
+    }
+
+    private long postAbandonedPurchase(Buyer purchaseBuyer, int quantity) throws Exception {
+        PurchaseOrderRequestDto order = newPurchaseOrderRequestDto(
+                new BatchPurchaseOrderRequestDto(batchOfFreshSaved.getBatchNumber(), quantity));
+
+        MvcResult response = mockMvc.perform(post("/api/v1/fresh-products/orders")
+                .content(asJsonString(order))
+                .header("Buyer-Id", purchaseBuyer.getBuyerId())
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().is2xxSuccessful())
+                .andReturn();
+
+        String json = response.getResponse().getContentAsString();
+        long orderId = objectMapper.readValue(json, PurchaseOrderResponseDto.class).getPurchaseOrderId();
+        PurchaseOrder purchaseOrder = purchaseOrderRepository.findById(orderId).get();
+        purchaseOrder.setUpdateDateTime(LocalDateTime.now().minusHours(2));
+        purchaseOrderRepository.save(purchaseOrder);
+        return orderId;
+    }
+}
@@ -15,6 +15,8 @@ import java.util.Comparator;
 import java.util.List;
 
 import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.everyItem;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -42,13 +44,11 @@ class ProductControllerTest extends BaseControllerTest {
         product = getSavedProduct(Section.Category.FROZEN);
         batches = getValidListBatchRequest(product);
         validInboundOrderRequest = getValidInboundOrderRequestDtoWithBatchList(section, batches);
-        validInboundOrderRequest.getBatchStock().get(0).setBatchNumber(1);
-        validInboundOrderRequest.getBatchStock().get(1).setBatchNumber(2);
     }
 
     @Test
     void getProductDetails_returnProductWithBatches_whenValidProduct() throws Exception {
-        service.create(validInboundOrderRequest, manager.getManagerId());
+        createInboundOrder();
         long biggerBatchNumber = validInboundOrderRequest.getBatchStock().get(1).getBatchNumber();
         long smallerBatchNumber = validInboundOrderRequest.getBatchStock().get(0).getBatchNumber();
         mockMvc.perform(get("/api/v1/fresh-products/list")
@@ -84,7 +84,7 @@ class ProductControllerTest extends BaseControllerTest {
 
     @Test
     void getProductDetails_returnOrderedByBatchNumber_whenValidProduct() throws Exception {
-        service.create(validInboundOrderRequest, manager.getManagerId());
+        createInboundOrder();
         long biggerBatchNumber = validInboundOrderRequest.getBatchStock().get(1).getBatchNumber();
         long smallerBatchNumber = validInboundOrderRequest.getBatchStock().get(0).getBatchNumber();
         mockMvc.perform(get("/api/v1/fresh-products/list")
@@ -101,7 +101,7 @@ class ProductControllerTest extends BaseControllerTest {
 
     @Test
     void getProductDetails_returnOrderedByCurrentQuantity_whenValidProduct() throws Exception {
-        service.create(validInboundOrderRequest, manager.getManagerId());
+        createInboundOrder();
         long biggerCurrentQuantity = batches.stream()
                 .max(Comparator.comparing(BatchRequestDto::getInitialQuantity))
                 .get().getInitialQuantity();
@@ -123,7 +123,7 @@ class ProductControllerTest extends BaseControllerTest {
 
     @Test
     void getProductDetails_returnOrderedByDueDate_whenValidProduct() throws Exception {
-        service.create(validInboundOrderRequest, manager.getManagerId());
+        createInboundOrder();
         String closestDueDate = String.valueOf(batches.stream()
                 .min(Comparator.comparing(BatchRequestDto::getDueDate))
                 .get().getDueDate());
@@ -145,7 +145,7 @@ class ProductControllerTest extends BaseControllerTest {
 
     @Test
     void getProductDetails_returnBadRequestException_whenInvalidOrderParameter() throws Exception {
-        service.create(validInboundOrderRequest, manager.getManagerId());
+        createInboundOrder();
         mockMvc.perform(get("/api/v1/fresh-products/list")
                         .param("productId", String.valueOf(product.getProductId()))
                         .param("orderBy", "ab")
@@ -153,4 +153,87 @@ class ProductControllerTest extends BaseControllerTest {
                 .andExpect(status().isBadRequest())
                 .andExpect(jsonPath("$.message", containsString("Parâmetro de ordenação inválido")));
     }
-}
\ No newline at end of file
+
+    @Test
+    void getProductDetails_returnOnePagePerRequest_whenPageSizeIsSmallerThanStock() throws Exception {
+        createInboundOrder();
+        String closestDueDate = String.valueOf(batches.stream()
+                .min(Comparator.comparing(BatchRequestDto::getDueDate))
+                .get().getDueDate());
+        String farthestDueDate = String.valueOf(batches.stream()
+                .max(Comparator.comparing(BatchRequestDto::getDueDate))
+                .get().getDueDate());
+
+        mockMvc.perform(get("/api/v1/fresh-products/list")
+                        .param("productId", String.valueOf(product.getProductId()))
+                        .param("orderBy", "v")
+                        .param("size", "1")
+                        .header("Manager-Id", manager.getManagerId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.batchStock.length()").value(1))
+                .andExpect(jsonPath("$.batchStock[0].dueDate").value(closestDueDate))
+                .andExpect(jsonPath("$.hasNext").value(true));
+
+        mockMvc.perform(get("/api/v1/fresh-products/list")
+                        .param("productId", String.valueOf(product.getProductId()))
+                        .param("orderBy", "v")
+                        .param("page", "1")
+                        .param("size", "1")
+                        .header("Manager-Id", manager.getManagerId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.batchStock.length()").value(1))
+                .andExpect(jsonPath("$.batchStock[0].dueDate").value(farthestDueDate))
+                .andExpect(jsonPath("$.hasNext").value(false));
+    }
+
+    @Test
+    void getProductDetails_returnAllBatchesInOnePage_whenPageSizeIsNotGiven() throws Exception {
+        createInboundOrder();
+
+        mockMvc.perform(get("/api/v1/fresh-products/list")
+                        .param("productId", String.valueOf(product.getProductId()))
+                        .header("Manager-Id", manager.getManagerId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.batchStock.length()").value(batches.size()))
+                .andExpect(jsonPath("$.size").value(batches.size()))
+                .andExpect(jsonPath("$.hasNext").value(false));
+    }
+
+    @Test
+    void getProductDetails_returnBadRequestException_whenPageIsGivenWithoutSize() throws Exception {
+        createInboundOrder();
+
+        mockMvc.perform(get("/api/v1/fresh-products/list")
+                        .param("productId", String.valueOf(product.getProductId()))
+                        .param("page", "1")
+                        .header("Manager-Id", manager.getManagerId()))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getProductDetails_returnOnlyManagerBatches_whenOtherManagerStoresSameProduct() throws Exception {
+        createInboundOrder();
+        Manager otherManager = getSavedManager();
+        Section otherSection = getSavedSection(warehouse, otherManager, Section.Category.FROZEN);
+        service.create(getValidInboundOrderRequestDtoWithBatchList(otherSection, getValidListBatchRequest(product)),
+                otherManager.getManagerId());
+
+        mockMvc.perform(get("/api/v1/fresh-products/list")
+                        .param("productId", String.valueOf(product.getProductId()))
+                        .header("Manager-Id", manager.getManagerId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.batchStock.length()").value(batches.size()))
+                .andExpect(jsonPath("$.batchStock[*].section.sectionCode",
+                        everyItem(equalTo((int) section.getSectionCode()))));
+    }
+
+    /**
+     * Os números dos lotes vêm da sequência, que não volta ao início entre os testes; a requisição passa a guardar os
+     * números gerados para as asserções.
+     */
+    private void createInboundOrder() {
+        List<Batch> savedBatches = service.create(validInboundOrderRequest, manager.getManagerId()).getBatchStock();
+        for (int i = 0; i < savedBatches.size(); i++)
+            validInboundOrderRequest.getBatchStock().get(i).setBatchNumber(savedBatches.get(i).getBatchNumber());
+    }
+}
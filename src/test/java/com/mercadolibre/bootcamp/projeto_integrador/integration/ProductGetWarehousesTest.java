@@ -1,18 +1,25 @@
 package com.mercadolibre.bootcamp.projeto_integrador.integration;
 
+import com.mercadolibre.bootcamp.projeto_integrador.dto.BatchPurchaseOrderRequestDto;
 import com.mercadolibre.bootcamp.projeto_integrador.dto.InboundOrderRequestDto;
+import com.mercadolibre.bootcamp.projeto_integrador.dto.InboundOrderResponseDto;
 import com.mercadolibre.bootcamp.projeto_integrador.integration.listeners.ResetDatabase;
+import com.mercadolibre.bootcamp.projeto_integrador.model.Batch;
 import com.mercadolibre.bootcamp.projeto_integrador.model.Manager;
 import com.mercadolibre.bootcamp.projeto_integrador.model.Product;
 import com.mercadolibre.bootcamp.projeto_integrador.model.Section;
 import com.mercadolibre.bootcamp.projeto_integrador.model.Warehouse;
 import com.mercadolibre.bootcamp.projeto_integrador.service.IInboundOrderService;
+import com.mercadolibre.bootcamp.projeto_integrador.service.IPurchaseOrderService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
 import static org.hamcrest.Matchers.containsString;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
@@ -27,9 +34,14 @@ class ProductGetWarehousesTest extends BaseControllerTest {
     private Product product1, product2;
     private InboundOrderRequestDto validInboundOrderRequestSection1, validInboundOrderRequestSection2, validInboundOrderRequestSection3;
 
+    private InboundOrderResponseDto savedInboundOrderSection1;
+
     @Autowired
     IInboundOrderService service;
 
+    @Autowired
+    IPurchaseOrderService purchaseOrderService;
+
     @BeforeEach
     public void setup() {
         manager = getSavedManager();
@@ -48,7 +60,7 @@ class ProductGetWarehousesTest extends BaseControllerTest {
         section = getSavedSection(warehouse, manager, product1.getCategory());
         validInboundOrderRequestSection3 = getValidInboundOrderRequestDtoWithBatchList(section, getValidListBatchRequest(product1));
 
-        service.create(validInboundOrderRequestSection1, manager.getManagerId());
+        savedInboundOrderSection1 = service.create(validInboundOrderRequestSection1, manager.getManagerId());
         service.create(validInboundOrderRequestSection2, manager.getManagerId());
         service.create(validInboundOrderRequestSection3, manager.getManagerId());
     }
@@ -65,6 +77,23 @@ class ProductGetWarehousesTest extends BaseControllerTest {
                         .stream().mapToInt(i -> i.getInitialQuantity()).sum()));
     }
 
+    @Test
+    void getWarehouses_returnUpdatedTotal_whenStockIsReserved() throws Exception {
+        Batch batch = savedInboundOrderSection1.getBatchStock().get(0);
+        purchaseOrderService.create(newPurchaseOrderRequestDto(
+                new BatchPurchaseOrderRequestDto(batch.getBatchNumber(), 10)), getSavedBuyer().getBuyerId());
+
+        mockMvc.perform(get("/api/v1/fresh-products/warehouse")
+                .param("productId", String.valueOf(product1.getProductId()))
+                .header("Manager-Id", manager.getManagerId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.warehouses.length()").value(3))
+                .andExpect(jsonPath("$.warehouses[0].totalQuantity").value(validInboundOrderRequestSection1.getBatchStock()
+                        .stream().mapToInt(i -> i.getInitialQuantity()).sum() - 10))
+                .andExpect(jsonPath("$.warehouses[1].totalQuantity").value(validInboundOrderRequestSection2.getBatchStock()
+                        .stream().mapToInt(i -> i.getInitialQuantity()).sum()));
+    }
+
     @Test
     void getWarehouses_returnNotFoundException_whenProductNotExists() throws Exception {
         mockMvc.perform(get("/api/v1/fresh-products/warehouse")
@@ -94,4 +123,40 @@ class ProductGetWarehousesTest extends BaseControllerTest {
                 .andExpect(jsonPath("$.productId").value(product2.getProductId()))
                 .andExpect(jsonPath("$.warehouses.length()").value(0));
     }
-}
\ No newline at end of file
+
+    @Test
+    void getWarehousesOfProducts_returnAllInRequestOrder_whenValidProductIds() throws Exception {
+        mockMvc.perform(get("/api/v1/fresh-products/warehouses")
+                .param("productIds", product2.getProductId() + "," + product1.getProductId())
+                .header("Manager-Id", manager.getManagerId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].productId").value(product2.getProductId()))
+                .andExpect(jsonPath("$[0].warehouses.length()").value(0))
+                .andExpect(jsonPath("$[1].productId").value(product1.getProductId()))
+                .andExpect(jsonPath("$[1].warehouses.length()").value(3))
+                .andExpect(jsonPath("$[1].warehouses[0].totalQuantity").value(validInboundOrderRequestSection1.getBatchStock()
+                        .stream().mapToInt(i -> i.getInitialQuantity()).sum()));
+    }
+
+    @Test
+    void getWarehousesOfProducts_returnNotFoundException_whenAnyProductNotExists() throws Exception {
+        mockMvc.perform(get("/api/v1/fresh-products/warehouses")
+                .param("productIds", product1.getProductId() + "," + (product1.getProductId() + 1000))
+                .header("Manager-Id", manager.getManagerId()))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.name", containsString("Product")));
+    }
+
+    @Test
+    void getWarehousesOfProducts_returnBadRequest_whenTooManyProducts() throws Exception {
+        String productIds = LongStream.rangeClosed(1, 101)
+                .mapToObj(String::valueOf)
+                .collect(Collectors.joining(","));
+
+        mockMvc.perform(get("/api/v1/fresh-products/warehouses")
+                .param("productIds", productIds)
+                .header("Manager-Id", manager.getManagerId()))
+                .andExpect(status().isBadRequest());
+    }
+}
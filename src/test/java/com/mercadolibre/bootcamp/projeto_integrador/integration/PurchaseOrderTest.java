@@ -1,10 +1,8 @@
 package com.mercadolibre.bootcamp.projeto_integrador.integration;
 
-import com.mercadolibre.bootcamp.projeto_integrador.dto.BatchPurchaseOrderRequestDto;
-import com.mercadolibre.bootcamp.projeto_integrador.dto.BatchRequestDto;
-import com.mercadolibre.bootcamp.projeto_integrador.dto.PurchaseOrderRequestDto;
-import com.mercadolibre.bootcamp.projeto_integrador.dto.PurchaseOrderResponseDto;
+import com.mercadolibre.bootcamp.projeto_integrador.dto.*;
 import com.mercadolibre.bootcamp.projeto_integrador.enums.OrderStatus;
+import com.mercadolibre.bootcamp.projeto_integrador.enums.ReservationStatus;
 import com.mercadolibre.bootcamp.projeto_integrador.job.ScheduledJob;
 import com.mercadolibre.bootcamp.projeto_integrador.model.*;
 import com.mercadolibre.bootcamp.projeto_integrador.repository.IBatchPurchaseOrderRepository;
@@ -18,6 +16,7 @@ import org.springframework.test.web.servlet.MvcResult;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -162,6 +161,60 @@ public class PurchaseOrderTest extends BaseControllerTest {
         assertThat(batchAfterJob.getCurrentQuantity()).isEqualTo(initialQuantity - 15);
     }
 
+    @Test
+    void postBulk_returnsResultPerLine_whenSomeBatchesAreOutOfStock() throws Exception {
+        // Arrange
+        BatchRequestDto otherBatchRequest = getValidBatchRequest(freshProduct);
+        otherBatchRequest.setInitialQuantity(5);
+        Batch otherBatch = getSavedBatch(otherBatchRequest, savedFreshInboundOrder, freshProduct);
+        PurchaseOrderBulkRequestDto order = new PurchaseOrderBulkRequestDto();
+        order.setOrderStatus(OrderStatus.OPENED);
+        order.setBatches(List.of(
+                new BatchPurchaseOrderRequestDto(batchOfFreshSaved.getBatchNumber(), 10),
+                new BatchPurchaseOrderRequestDto(otherBatch.getBatchNumber(), 6),
+                new BatchPurchaseOrderRequestDto(batchOfFreshSaved.getBatchNumber(), 5),
+                new BatchPurchaseOrderRequestDto(Long.MAX_VALUE, 1)));
+
+        // Act
+        MvcResult response = mockMvc.perform(post("/api/v1/fresh-products/orders/bulk")
+                .content(asJsonString(order))
+                .header("Buyer-Id", buyer.getBuyerId())
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isCreated())
+                .andReturn();
+
+        // Assert
+        String json = response.getResponse().getContentAsString();
+        PurchaseOrderBulkResponseDto responseOrder = objectMapper.readValue(json, PurchaseOrderBulkResponseDto.class);
+
+        assertThat(responseOrder.getResults())
+                .extracting(BatchReservationResultDto::getStatus)
+                .containsExactly(ReservationStatus.RESERVED, ReservationStatus.OUT_OF_STOCK,
+                        ReservationStatus.RESERVED, ReservationStatus.NOT_FOUND);
+        assertThat(responseOrder.getBatches().size()).isEqualTo(1);
+        assertThat(responseOrder.getBatches().get(0).getQuantity()).isEqualTo(15);
+        assertThat(responseOrder.getTotalPrice())
+                .isEqualTo(batchOfFreshSaved.getProductPrice().multiply(new BigDecimal("15")).setScale(2));
+        assertThat(batchRepository.findById(batchOfFreshSaved.getBatchNumber()).get().getCurrentQuantity())
+                .isEqualTo(initialQuantity - 15);
+        assertThat(batchRepository.findById(otherBatch.getBatchNumber()).get().getCurrentQuantity()).isEqualTo(5);
+    }
+
+    @Test
+    void postBulk_returnsBadRequest_whenBatchListIsEmpty() throws Exception {
+        // Arrange
+        PurchaseOrderBulkRequestDto order = new PurchaseOrderBulkRequestDto();
+        order.setOrderStatus(OrderStatus.OPENED);
+        order.setBatches(List.of());
+
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/fresh-products/orders/bulk")
+                .content(asJsonString(order))
+                .header("Buyer-Id", buyer.getBuyerId())
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void put_returnsPurchase_whenPurchaseOrderIsNotReserved() throws Exception {
         // Arrange
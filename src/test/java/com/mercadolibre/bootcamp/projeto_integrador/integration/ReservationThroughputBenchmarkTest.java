@@ -0,0 +1,152 @@
+package com.mercadolibre.bootcamp.projeto_integrador.integration;
+
+import com.mercadolibre.bootcamp.projeto_integrador.dto.BatchRequestDto;
+import com.mercadolibre.bootcamp.projeto_integrador.model.Batch;
+import com.mercadolibre.bootcamp.projeto_integrador.model.InboundOrder;
+import com.mercadolibre.bootcamp.projeto_integrador.model.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
+import javax.persistence.PersistenceContext;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongPredicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compara a vazão de reservas concorrentes de uma unidade no mesmo lote: o UPDATE condicional usado pelo
+ * PurchaseOrderService contra o caminho anterior, que lia o lote, subtraía a quantidade em Java e gravava. O caminho
+ * anterior é reproduzido com SELECT ... FOR UPDATE, para que também não venda a mais e a comparação seja justa.
+ * Executar com -Dbenchmark=true; por padrão usa o H2 dos testes. Para medir no MySQL, informar também
+ * spring.datasource.url, spring.datasource.username, spring.datasource.password e
+ * spring.datasource.driver-class-name apontando para uma base já criada pela aplicação.
+ * Não usa @ResetDatabase, que é específico do H2: cada rodada cria o próprio lote.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ReservationThroughputBenchmarkTest extends BaseControllerTest {
+    private static final Logger logger = LoggerFactory.getLogger(ReservationThroughputBenchmarkTest.class);
+    private static final int THREADS = 16;
+    private static final int RESERVATIONS_PER_THREAD = 250;
+    private static final int WARMUP_ROUNDS = 2;
+    private static final int MEASURED_ROUNDS = 5;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private DataSource dataSource;
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private Product product;
+    private InboundOrder order;
+
+    @BeforeEach
+    void setup() {
+        order = getSavedInboundOrder(getSavedFreshSection(getSavedWarehouse(), getSavedManager(),
+                2 * (WARMUP_ROUNDS + MEASURED_ROUNDS)));
+        product = getSavedFreshProduct();
+    }
+
+    @Test
+    void reserve_throughputOfConditionalUpdateAndReadModifyWrite() throws Exception {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            measure(this::reserveWithConditionalUpdate);
+            measure(this::reserveWithReadModifyWrite);
+        }
+
+        double[] conditionalUpdate = new double[MEASURED_ROUNDS];
+        double[] readModifyWrite = new double[MEASURED_ROUNDS];
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            conditionalUpdate[i] = measure(this::reserveWithConditionalUpdate);
+            readModifyWrite[i] = measure(this::reserveWithReadModifyWrite);
+        }
+
+        logger.info("{}: {} threads, median conditional UPDATE {} reservations/s, read-subtract-save {} reservations/s",
+                getDatabaseName(), THREADS, Math.round(median(conditionalUpdate)), Math.round(median(readModifyWrite)));
+    }
+
+    /**
+     * Reserva todo o estoque de um lote novo com THREADS threads concorrentes e verifica que nenhuma unidade foi
+     * vendida a mais.
+     *
+     * @return reservas por segundo
+     */
+    private double measure(LongPredicate reserve) throws Exception {
+        int totalReservations = THREADS * RESERVATIONS_PER_THREAD;
+        BatchRequestDto batchRequest = getValidBatchRequest(product);
+        batchRequest.setInitialQuantity(totalReservations);
+        long batchNumber = getSavedBatch(batchRequest, order, product).getBatchNumber();
+
+        AtomicInteger reserved = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> results = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                for (int j = 0; j < RESERVATIONS_PER_THREAD; j++) {
+                    if (reserve.test(batchNumber))
+                        reserved.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+
+        long startTime = System.nanoTime();
+        start.countDown();
+        for (Future<?> result : results)
+            result.get(5, TimeUnit.MINUTES);
+        long elapsed = System.nanoTime() - startTime;
+        executor.shutdown();
+
+        assertThat(reserved.get()).isEqualTo(totalReservations);
+        assertThat(batchRepository.findById(batchNumber).get().getCurrentQuantity()).isZero();
+        return totalReservations / (elapsed / 1e9);
+    }
+
+    private boolean reserveWithConditionalUpdate(long batchNumber) {
+        return Boolean.TRUE.equals(transactionTemplate.execute(status ->
+                batchRepository.reserveStock(batchNumber, 1, LocalDate.now()) == 1));
+    }
+
+    private boolean reserveWithReadModifyWrite(long batchNumber) {
+        return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            Batch batch = entityManager.find(Batch.class, batchNumber, LockModeType.PESSIMISTIC_WRITE);
+            if (batch.getCurrentQuantity() < 1 || !batch.getDueDate().isAfter(LocalDate.now()))
+                return false;
+            batch.setCurrentQuantity(batch.getCurrentQuantity() - 1);
+            return true;
+        }));
+    }
+
+    private static double median(double[] samples) {
+        double[] sorted = samples.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    private String getDatabaseName() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            return connection.getMetaData().getDatabaseProductName();
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.mercadolibre.bootcamp.projeto_integrador.integration;
+
+import com.mercadolibre.bootcamp.projeto_integrador.dto.BatchRequestDto;
+import com.mercadolibre.bootcamp.projeto_integrador.integration.listeners.ResetDatabase;
+import com.mercadolibre.bootcamp.projeto_integrador.model.Manager;
+import com.mercadolibre.bootcamp.projeto_integrador.model.Product;
+import com.mercadolibre.bootcamp.projeto_integrador.model.Section;
+import com.mercadolibre.bootcamp.projeto_integrador.service.IManagerService;
+import com.mercadolibre.bootcamp.projeto_integrador.service.IProductService;
+import com.mercadolibre.bootcamp.projeto_integrador.service.ISectionService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.hasItem;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ResetDatabase
+class SecondLevelCacheTest extends BaseControllerTest {
+    @Autowired
+    private IManagerService managerService;
+    @Autowired
+    private IProductService productService;
+    @Autowired
+    private ISectionService sectionService;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setup() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void findManager_issuesNoStatement_afterFirstLoad() {
+        Manager manager = getSavedManager();
+        entityManagerFactory.getCache().evictAll();
+        statistics.clear();
+
+        managerService.findById(manager.getManagerId());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+        statistics.clear();
+        Manager cachedManager = managerService.findById(manager.getManagerId());
+
+        assertThat(cachedManager.getName()).isEqualTo(manager.getName());
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(statistics.getSecondLevelCacheHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void getProductMap_readsOnlyUncachedProductsFromDatabase() {
+        Product firstProduct = getSavedFreshProduct();
+        Product secondProduct = getSavedFreshProduct();
+        Product thirdProduct = getSavedFreshProduct();
+        entityManagerFactory.getCache().evictAll();
+        statistics.clear();
+
+        productService.getProductMap(batchRequests(firstProduct, secondProduct));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+        statistics.clear();
+        Map<Long, Product> products = productService.getProductMap(
+                batchRequests(firstProduct, secondProduct, thirdProduct, firstProduct));
+
+        assertThat(products).containsOnlyKeys(firstProduct.getProductId(), secondProduct.getProductId(),
+                thirdProduct.getProductId());
+        // Só o terceiro produto ainda não estava no cache.
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getSecondLevelCacheHitCount()).isEqualTo(2);
+    }
+
+    @Test
+    void findSection_returnsCurrentSlots_afterBulkUpdate() {
+        Section section = getSavedFreshSection(getSavedWarehouse(), getSavedManager());
+        int initialBatches = sectionService.findById(section.getSectionCode()).getCurrentBatches();
+
+        transactionTemplate.executeWithoutResult(status ->
+                sectionRepository.reserveSlots(section.getSectionCode(), 2));
+
+        assertThat(sectionService.findById(section.getSectionCode()).getCurrentBatches())
+                .isEqualTo(initialBatches + 2);
+    }
+
+    @Test
+    void reserveSlots_keepsReferenceDataCached() {
+        Manager manager = getSavedManager();
+        Section section = getSavedFreshSection(getSavedWarehouse(), manager);
+        managerService.findById(manager.getManagerId());
+
+        transactionTemplate.executeWithoutResult(status ->
+                sectionRepository.reserveSlots(section.getSectionCode(), 1));
+        statistics.clear();
+        managerService.findById(manager.getManagerId());
+
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(statistics.getSecondLevelCacheRegionNames()).doesNotContain("section");
+    }
+
+    @Test
+    void getSecondLevelCacheStats_returnsHitsAndRegions() throws Exception {
+        Manager manager = getSavedManager();
+        managerService.findById(manager.getManagerId());
+        managerService.findById(manager.getManagerId());
+
+        mockMvc.perform(get("/api/v1/stats/second-level-cache"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hits", greaterThanOrEqualTo(1)))
+                .andExpect(jsonPath("$.regions[*].region", hasItem("manager")));
+    }
+
+    private List<BatchRequestDto> batchRequests(Product... products) {
+        return List.of(products).stream()
+                .map(product -> getBatchRequest(product.getProductId()))
+                .collect(Collectors.toList());
+    }
+}
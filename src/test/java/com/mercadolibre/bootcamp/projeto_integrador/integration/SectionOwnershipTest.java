@@ -0,0 +1,79 @@
+package com.mercadolibre.bootcamp.projeto_integrador.integration;
+
+import com.mercadolibre.bootcamp.projeto_integrador.exceptions.UnauthorizedManagerException;
+import com.mercadolibre.bootcamp.projeto_integrador.integration.listeners.ResetDatabase;
+import com.mercadolibre.bootcamp.projeto_integrador.model.Manager;
+import com.mercadolibre.bootcamp.projeto_integrador.model.Section;
+import com.mercadolibre.bootcamp.projeto_integrador.service.IBatchService;
+import com.mercadolibre.bootcamp.projeto_integrador.service.ISectionOwnershipIndex;
+import com.mercadolibre.bootcamp.projeto_integrador.service.ISectionService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ResetDatabase
+class SectionOwnershipTest extends BaseControllerTest {
+    @Autowired
+    private ISectionService sectionService;
+    @Autowired
+    private IBatchService batchService;
+    @Autowired
+    private ISectionOwnershipIndex ownershipIndex;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Manager manager;
+    private Section section;
+
+    @BeforeEach
+    void setup() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        manager = getSavedManager();
+        section = getSavedFreshSection(getSavedWarehouse(), manager);
+    }
+
+    @Test
+    void ensureManagerHasPermissionInSection_issuesNoStatement_forSectionOwner() {
+        entityManagerFactory.getCache().evictAll();
+        statistics.clear();
+
+        sectionService.ensureManagerHasPermissionInSection(manager.getManagerId(), section);
+
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    void findBatchBySection_issuesOnlyReportStatement_forSectionOwner() {
+        entityManagerFactory.getCache().evictAll();
+        statistics.clear();
+
+        batchService.findBatchBySection(section.getSectionCode(), 15, manager.getManagerId());
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void ensureManagerHasPermissionInSection_followsNewOwner_afterSectionIsReassigned() {
+        Manager newManager = getSavedManager();
+        section.setManager(newManager);
+        sectionRepository.save(section);
+
+        assertThat(ownershipIndex.getSectionCodes(newManager.getManagerId())).containsExactly(section.getSectionCode());
+        assertThat(ownershipIndex.hasSections(manager.getManagerId())).isFalse();
+        sectionService.ensureManagerHasPermissionInSection(newManager.getManagerId(), section);
+        assertThrows(UnauthorizedManagerException.class,
+                () -> sectionService.ensureManagerHasPermissionInSection(manager.getManagerId(), section));
+    }
+}
@@ -258,7 +258,7 @@ public class UpdateInboundOrderTest extends BaseControllerTest {
         BatchRequestDto request2 = modelMapper.map(batch2, BatchRequestDto.class);
 
         mockMvc.perform(put("/api/v1/fresh-products/inboundorder")
-                        .param("orderNumber", String.valueOf(1L))
+                        .param("orderNumber", String.valueOf(order1.getOrderNumber()))
                         .content(asJsonString(getValidInboundOrderRequestDto(freshSection, request1, request2)))
                         .header("Manager-Id", manager.getManagerId())
                         .contentType(MediaType.APPLICATION_JSON))
@@ -270,7 +270,7 @@ public class UpdateInboundOrderTest extends BaseControllerTest {
         BatchRequestDto batchWithNonExistentProduct = getBatchRequest(999);
 
         mockMvc.perform(put("/api/v1/fresh-products/inboundorder")
-                        .param("orderNumber", String.valueOf(1L))
+                        .param("orderNumber", String.valueOf(orderNumber))
                         .content(asJsonString(getValidInboundOrderRequestDto(freshSection, batchWithNonExistentProduct)))
                         .header("Manager-Id", manager.getManagerId())
                         .contentType(MediaType.APPLICATION_JSON))
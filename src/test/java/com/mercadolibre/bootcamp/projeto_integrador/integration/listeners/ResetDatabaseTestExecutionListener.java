@@ -1,9 +1,15 @@
 package com.mercadolibre.bootcamp.projeto_integrador.integration.listeners;
 
+import com.mercadolibre.bootcamp.projeto_integrador.service.IReservationExpiryWheel;
+import com.mercadolibre.bootcamp.projeto_integrador.service.ISectionOwnershipIndex;
+import com.mercadolibre.bootcamp.projeto_integrador.service.ISellableStockIndex;
+import com.mercadolibre.bootcamp.projeto_integrador.service.IStockVersionService;
+import org.hibernate.SessionFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.test.context.TestContext;
 import org.springframework.test.context.support.AbstractTestExecutionListener;
 
+import javax.persistence.EntityManagerFactory;
 import javax.sql.DataSource;
 import java.sql.Connection;
 import java.sql.ResultSet;
@@ -22,6 +28,26 @@ public class ResetDatabaseTestExecutionListener extends AbstractTestExecutionLis
     @Autowired
     private DataSource dataSource;
 
+    @SuppressWarnings("SpringJavaAutowiredMembersInspection")
+    @Autowired
+    private ISellableStockIndex stockIndex;
+
+    @SuppressWarnings("SpringJavaAutowiredMembersInspection")
+    @Autowired
+    private IStockVersionService stockVersionService;
+
+    @SuppressWarnings("SpringJavaAutowiredMembersInspection")
+    @Autowired
+    private IReservationExpiryWheel reservationExpiry;
+
+    @SuppressWarnings("SpringJavaAutowiredMembersInspection")
+    @Autowired
+    private ISectionOwnershipIndex ownershipIndex;
+
+    @SuppressWarnings("SpringJavaAutowiredMembersInspection")
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     @Override
     public void beforeTestClass(TestContext testContext) {
         testContext.getApplicationContext()
@@ -32,6 +58,12 @@ public class ResetDatabaseTestExecutionListener extends AbstractTestExecutionLis
     @Override
     public void beforeTestMethod(TestContext testContext) throws Exception {
         cleanupDatabase();
+        // As tabelas são truncadas por fora do Hibernate, então o cache de segundo nível ainda guarda as linhas antigas.
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+        stockIndex.rebuild();
+        stockVersionService.invalidateAll();
+        reservationExpiry.rebuild();
+        ownershipIndex.rebuild();
     }
 
     private void cleanupDatabase() throws SQLException {
@@ -0,0 +1,71 @@
+package com.mercadolibre.bootcamp.projeto_integrador.mapper;
+
+import com.mercadolibre.bootcamp.projeto_integrador.dto.BatchRequestDto;
+import com.mercadolibre.bootcamp.projeto_integrador.model.Batch;
+import com.mercadolibre.bootcamp.projeto_integrador.model.InboundOrder;
+import com.mercadolibre.bootcamp.projeto_integrador.model.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BatchMapperTest {
+    private BatchRequestDto dto;
+    private Product product;
+
+    @BeforeEach
+    void setup() {
+        product = new Product();
+        product.setProductId(7);
+        dto = BatchRequestDto.builder()
+                .batchNumber(3)
+                .productId(7)
+                .currentTemperature(2.5f)
+                .minimumTemperature(1.5f)
+                .initialQuantity(20)
+                .manufacturingDate(LocalDate.now().minusDays(2))
+                .manufacturingTime(LocalDateTime.now().minusDays(2))
+                .dueDate(LocalDate.now().plusDays(40))
+                .productPrice(BigDecimal.valueOf(12.5))
+                .build();
+    }
+
+    @Test
+    void toBatch_copyAllFields() {
+        InboundOrder order = new InboundOrder();
+
+        Batch batch = BatchMapper.toBatch(dto, order, product);
+
+        assertThat(batch.getBatchNumber()).isEqualTo(dto.getBatchNumber());
+        assertThat(batch.getProduct()).isSameAs(product);
+        assertThat(batch.getInboundOrder()).isSameAs(order);
+        assertThat(batch.getCurrentTemperature()).isEqualTo(dto.getCurrentTemperature());
+        assertThat(batch.getMinimumTemperature()).isEqualTo(dto.getMinimumTemperature());
+        assertThat(batch.getInitialQuantity()).isEqualTo(dto.getInitialQuantity());
+        assertThat(batch.getManufacturingDate()).isEqualTo(dto.getManufacturingDate());
+        assertThat(batch.getManufacturingTime()).isEqualTo(dto.getManufacturingTime());
+        assertThat(batch.getDueDate()).isEqualTo(dto.getDueDate());
+        assertThat(batch.getProductPrice()).isEqualTo(dto.getProductPrice());
+    }
+
+    @Test
+    void copyAttributes_keepQuantities() {
+        Batch batch = new Batch();
+        batch.setBatchNumber(99);
+        batch.setInitialQuantity(50);
+        batch.setCurrentQuantity(30);
+
+        BatchMapper.copyAttributes(dto, batch, product);
+
+        assertThat(batch.getBatchNumber()).isEqualTo(99);
+        assertThat(batch.getInitialQuantity()).isEqualTo(50);
+        assertThat(batch.getCurrentQuantity()).isEqualTo(30);
+        assertThat(batch.getProduct()).isSameAs(product);
+        assertThat(batch.getDueDate()).isEqualTo(dto.getDueDate());
+        assertThat(batch.getProductPrice()).isEqualTo(dto.getProductPrice());
+    }
+}
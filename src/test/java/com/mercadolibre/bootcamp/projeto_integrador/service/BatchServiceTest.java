@@ -22,6 +22,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -40,6 +41,10 @@ class BatchServiceTest {
     private ISectionService sectionService;
     @Mock
     private IManagerService managerService;
+    @Mock
+    private ISellableStockIndex stockIndex;
+    @Mock
+    private ISectionOwnershipIndex ownershipIndex;
 
     private List<Batch> batches;
     private Section section;
@@ -55,8 +60,8 @@ class BatchServiceTest {
     @Test
     void findAll_returnBatches_whenBatchesExists() {
         // Arrange
-        when(batchRepository.findByCurrentQuantityGreaterThanAndDueDateAfter(ArgumentMatchers.anyInt(), ArgumentMatchers.any()))
-                .thenReturn(batches);
+        when(stockIndex.findAll())
+                .thenReturn(mapToBuyerDto(batches));
         // Act
         List<BatchBuyerResponseDto> foundBatches = service.findAll();
 
@@ -72,8 +77,8 @@ class BatchServiceTest {
     void findAll_returnNotFoundException_whenBatchesNotExists() {
         // Arrange
         batches.clear();
-        when(batchRepository.findByCurrentQuantityGreaterThanAndDueDateAfter(ArgumentMatchers.anyInt(), ArgumentMatchers.any()))
-                .thenReturn(batches);
+        when(stockIndex.findAll())
+                .thenReturn(mapToBuyerDto(batches));
 
         // Act
         NotFoundException exception = assertThrows(NotFoundException.class, () -> service.findAll());
@@ -87,8 +92,8 @@ class BatchServiceTest {
     void findBatchByCategory_returnBatchesChilled_whenValidCategory() {
         // Arrange
         batches = BatchGenerator.newBatchListChilled();
-        when(batchRepository.findByCurrentQuantityGreaterThanAndDueDateAfterAndProduct_CategoryIs(ArgumentMatchers.anyInt(),
-                ArgumentMatchers.any(), ArgumentMatchers.any())).thenReturn(batches);
+        when(stockIndex.findByCategory(ArgumentMatchers.any()))
+                .thenReturn(mapToBuyerDto(batches));
 
         // Act
         List<BatchBuyerResponseDto> foundBatches = service.findBatchByCategory("RF");
@@ -107,8 +112,8 @@ class BatchServiceTest {
     @Test
     void findBatchByCategory_returnBatchesFresh_whenValidCategory() {
         // Arrange
-        when(batchRepository.findByCurrentQuantityGreaterThanAndDueDateAfterAndProduct_CategoryIs(ArgumentMatchers.anyInt(),
-                ArgumentMatchers.any(), ArgumentMatchers.any())).thenReturn(batches);
+        when(stockIndex.findByCategory(ArgumentMatchers.any()))
+                .thenReturn(mapToBuyerDto(batches));
 
         // Act
         List<BatchBuyerResponseDto> foundBatches = service.findBatchByCategory("fs");
@@ -128,8 +133,8 @@ class BatchServiceTest {
     void findBatchByCategory_returnBatchesFrozen_whenValidCategory() {
         // Arrange
         batches = BatchGenerator.newBatchListFrozen();
-        when(batchRepository.findByCurrentQuantityGreaterThanAndDueDateAfterAndProduct_CategoryIs(ArgumentMatchers.anyInt(),
-                ArgumentMatchers.any(), ArgumentMatchers.any())).thenReturn(batches);
+        when(stockIndex.findByCategory(ArgumentMatchers.any()))
+                .thenReturn(mapToBuyerDto(batches));
 
         // Act
         List<BatchBuyerResponseDto> foundBatches = service.findBatchByCategory("FF");
@@ -149,9 +154,8 @@ class BatchServiceTest {
     void findBatchByCategory_returnNotFoundException_whenBatchesNotExistsOnCategory() {
         // Arrange
         batches.clear();
-        when(batchRepository.findByCurrentQuantityGreaterThanAndDueDateAfterAndProduct_CategoryIs(ArgumentMatchers.anyInt(),
-                ArgumentMatchers.any(), ArgumentMatchers.any()))
-                .thenReturn(batches);
+        when(stockIndex.findByCategory(ArgumentMatchers.any()))
+                .thenReturn(mapToBuyerDto(batches));
 
         // Act
         NotFoundException exception = assertThrows(NotFoundException.class, () -> service.findBatchByCategory("FS"));
@@ -173,12 +177,11 @@ class BatchServiceTest {
     @Test
     void findBatchBySection_returnBatches_whenBatchesExists() {
         // Arrange
-        batches.get(0).setCurrentQuantity(0);
         batches.get(1).setDueDate(LocalDate.now().plusDays(5));
         when(sectionService.findById(ArgumentMatchers.anyLong())).thenReturn(section);
         when(managerService.findById(ArgumentMatchers.anyLong())).thenReturn(manager);
-        when((batchRepository.findByInboundOrder_SectionAndDueDateBetweenOrderByDueDate(ArgumentMatchers.any(),
-                ArgumentMatchers.any(), ArgumentMatchers.any()))).thenReturn(batches);
+        when((batchRepository.findInStockBySectionAndDueDateBetween(ArgumentMatchers.eq(section.getSectionCode()),
+                ArgumentMatchers.any(), ArgumentMatchers.any()))).thenReturn(mapToDueDateDto(batches.subList(1, 3)));
 
         // Act
         List<BatchDueDateResponseDto> returnedBatches = service.findBatchBySection(section.getSectionCode(), 15, manager.getManagerId());
@@ -209,18 +212,17 @@ class BatchServiceTest {
         // Assert
         assertThat(exception.getName()).containsIgnoringCase("section");
         assertThat(exception.getMessage()).containsIgnoringCase("There is no section with the specified id");
-        verify(batchRepository, never()).findByInboundOrder_SectionAndDueDateBetweenOrderByDueDate(ArgumentMatchers.any(),
+        verify(batchRepository, never()).findInStockBySectionAndDueDateBetween(ArgumentMatchers.anyLong(),
                 ArgumentMatchers.any(), ArgumentMatchers.any());
     }
 
     @Test
     void findBatchBySection_returnEmptyList_whenBatchesNotExistsForParameters() {
         // Arrange
-        batches.clear();
         when(sectionService.findById(ArgumentMatchers.anyLong())).thenReturn(section);
         when(managerService.findById(ArgumentMatchers.anyLong())).thenReturn(manager);
-        when((batchRepository.findByInboundOrder_SectionAndDueDateBetweenOrderByDueDate(ArgumentMatchers.any(),
-                ArgumentMatchers.any(), ArgumentMatchers.any()))).thenReturn(batches);
+        when((batchRepository.findInStockBySectionAndDueDateBetween(ArgumentMatchers.anyLong(),
+                ArgumentMatchers.any(), ArgumentMatchers.any()))).thenReturn(List.of());
 
         // Act
         List<BatchDueDateResponseDto> returnedBatches = service.findBatchBySection(section.getSectionCode(), 15, manager.getManagerId());
@@ -242,7 +244,7 @@ class BatchServiceTest {
         // Assert
         assertThat(exception.getName()).contains("Manager not found");
         assertThat(exception.getMessage()).contains("Manager with id " + manager.getManagerId() + " not found");
-        verify(batchRepository, never()).findByInboundOrder_SectionAndDueDateBetweenOrderByDueDate(ArgumentMatchers.any(),
+        verify(batchRepository, never()).findInStockBySectionAndDueDateBetween(ArgumentMatchers.anyLong(),
                 ArgumentMatchers.any(), ArgumentMatchers.any());
     }
 
@@ -261,7 +263,7 @@ class BatchServiceTest {
         // Assert
         assertThat(exception.getName()).contains(unauthorizedManager.getName() + " is not authorized.");
         assertThat(exception.getMessage()).contains(unauthorizedManager.getName() + " is not authorized to perform this action");
-        verify(batchRepository, never()).findByInboundOrder_SectionAndDueDateBetweenOrderByDueDate(ArgumentMatchers.any(),
+        verify(batchRepository, never()).findInStockBySectionAndDueDateBetween(ArgumentMatchers.anyLong(),
                 ArgumentMatchers.any(), ArgumentMatchers.any());
     }
 
@@ -274,18 +276,33 @@ class BatchServiceTest {
         // Assert
         assertThat(exception.getName()).contains("Bad request");
         assertThat(exception.getMessage()).contains("The number of days to expiration can't be negative");
-        verify(batchRepository, never()).findByInboundOrder_SectionAndDueDateBetweenOrderByDueDate(ArgumentMatchers.any(),
+        verify(batchRepository, never()).findInStockBySectionAndDueDateBetween(ArgumentMatchers.anyLong(),
                 ArgumentMatchers.any(), ArgumentMatchers.any());
     }
 
+    @Test
+    void findBatchBySection_skipsSectionAndManagerLookup_whenIndexConfirmsOwnership() {
+        // Arrange
+        when(ownershipIndex.owns(manager.getManagerId(), section.getSectionCode())).thenReturn(true);
+        when((batchRepository.findInStockBySectionAndDueDateBetween(ArgumentMatchers.eq(section.getSectionCode()),
+                ArgumentMatchers.any(), ArgumentMatchers.any()))).thenReturn(mapToDueDateDto(batches.subList(1, 3)));
+
+        // Act
+        List<BatchDueDateResponseDto> returnedBatches = service.findBatchBySection(section.getSectionCode(), 15, manager.getManagerId());
+
+        // Assert
+        assertEquals(returnedBatches.size(), 2);
+        verifyNoInteractions(sectionService, managerService);
+    }
+
     @Test
     void findBatchByCategoryAndDueDate_returnFreshBatchesAscOrder_whenBatchesExists() {
         // Arrange
-        batches.get(0).setCurrentQuantity(0);
         batches.get(1).setDueDate(LocalDate.now().plusDays(5));
         when(managerService.findById(ArgumentMatchers.anyLong())).thenReturn(manager);
-        when(batchRepository.findByProduct_CategoryAndDueDateBetweenOrderByDueDateAsc(ArgumentMatchers.any(),
-                ArgumentMatchers.any(), ArgumentMatchers.any())).thenReturn(batches);
+        when(batchRepository.findInStockByCategoryAndManagerAndDueDateBetweenAsc(ArgumentMatchers.eq(Section.Category.FRESH),
+                ArgumentMatchers.eq(manager.getManagerId()), ArgumentMatchers.any(), ArgumentMatchers.any()))
+                .thenReturn(mapToDueDateDto(batches.subList(1, 3)));
 
         // Act
         List<BatchDueDateResponseDto> returnedBatches = service.findBatchByCategoryAndDueDate("FS", 15,
@@ -309,12 +326,12 @@ class BatchServiceTest {
     void findBatchByCategoryAndDueDate_returnChilledBatchesDescOrder_whenBatchesExists() {
         // Arrange
         batches = BatchGenerator.newBatchListChilled();
-        batches.get(0).setCurrentQuantity(0);
         batches.get(1).setDueDate(LocalDate.now().plusDays(8));
         manager.setManagerId(1);
         when(managerService.findById(ArgumentMatchers.anyLong())).thenReturn(manager);
-        when(batchRepository.findByProduct_CategoryAndDueDateBetweenOrderByDueDateDesc(ArgumentMatchers.any(),
-                ArgumentMatchers.any(), ArgumentMatchers.any())).thenReturn(batches);
+        when(batchRepository.findInStockByCategoryAndManagerAndDueDateBetweenDesc(ArgumentMatchers.eq(Section.Category.CHILLED),
+                ArgumentMatchers.eq(manager.getManagerId()), ArgumentMatchers.any(), ArgumentMatchers.any()))
+                .thenReturn(mapToDueDateDto(batches.subList(1, 3)));
 
         // Act
         List<BatchDueDateResponseDto> returnedBatches = service.findBatchByCategoryAndDueDate("RF", 15,
@@ -337,10 +354,9 @@ class BatchServiceTest {
     @Test
     void findBatchByCategoryAndDueDate_returnEmptyList_whenBatchesNotExistsForParameters() {
         // Arrange
-        batches.clear();
         when(managerService.findById(ArgumentMatchers.anyLong())).thenReturn(manager);
-        when(batchRepository.findByProduct_CategoryAndDueDateBetweenOrderByDueDateAsc(ArgumentMatchers.any(),
-                ArgumentMatchers.any(), ArgumentMatchers.any())).thenReturn(batches);
+        when(batchRepository.findInStockByCategoryAndManagerAndDueDateBetweenAsc(ArgumentMatchers.any(),
+                ArgumentMatchers.anyLong(), ArgumentMatchers.any(), ArgumentMatchers.any())).thenReturn(List.of());
 
         // Act
         List<BatchDueDateResponseDto> returnedBatches = service.findBatchByCategoryAndDueDate("FS", 15,
@@ -350,6 +366,23 @@ class BatchServiceTest {
         assertThat(returnedBatches).isEmpty();
     }
 
+    @Test
+    void findBatchByCategoryAndDueDate_skipsManagerLookup_whenManagerHasSections() {
+        // Arrange
+        when(ownershipIndex.hasSections(manager.getManagerId())).thenReturn(true);
+        when(batchRepository.findInStockByCategoryAndManagerAndDueDateBetweenAsc(ArgumentMatchers.eq(Section.Category.FRESH),
+                ArgumentMatchers.eq(manager.getManagerId()), ArgumentMatchers.any(), ArgumentMatchers.any()))
+                .thenReturn(mapToDueDateDto(batches.subList(1, 3)));
+
+        // Act
+        List<BatchDueDateResponseDto> returnedBatches = service.findBatchByCategoryAndDueDate("FS", 15,
+                "ASC", manager.getManagerId());
+
+        // Assert
+        assertEquals(returnedBatches.size(), 2);
+        verifyNoInteractions(managerService);
+    }
+
     @Test
     void findBatchByCategoryAndDueDate_returnNotFoundException_whenInvalidManager() {
         // Arrange
@@ -362,8 +395,8 @@ class BatchServiceTest {
         // Assert
         assertThat(exception.getName()).contains("Manager not found");
         assertThat(exception.getMessage()).contains("Manager with id " + manager.getManagerId() + " not found");
-        verify(batchRepository, never()).findByProduct_CategoryAndDueDateBetweenOrderByDueDateAsc(ArgumentMatchers.any(),
-                ArgumentMatchers.any(), ArgumentMatchers.any());
+        verify(batchRepository, never()).findInStockByCategoryAndManagerAndDueDateBetweenAsc(ArgumentMatchers.any(),
+                ArgumentMatchers.anyLong(), ArgumentMatchers.any(), ArgumentMatchers.any());
     }
 
     @Test
@@ -378,8 +411,8 @@ class BatchServiceTest {
         // Assert
         assertThat(exception.getName()).contains("Bad request");
         assertThat(exception.getMessage()).contains("The number of days to expiration can't be negative");
-        verify(batchRepository, never()).findByProduct_CategoryAndDueDateBetweenOrderByDueDateAsc(ArgumentMatchers.any(),
-                ArgumentMatchers.any(), ArgumentMatchers.any());
+        verify(batchRepository, never()).findInStockByCategoryAndManagerAndDueDateBetweenAsc(ArgumentMatchers.any(),
+                ArgumentMatchers.anyLong(), ArgumentMatchers.any(), ArgumentMatchers.any());
     }
 
     @Test
@@ -394,7 +427,15 @@ class BatchServiceTest {
         // Assert
         assertThat(exception.getName()).contains("Bad request");
         assertThat(exception.getMessage()).contains("The order direction should be either ASC or DESC");
-        verify(batchRepository, never()).findByProduct_CategoryAndDueDateBetweenOrderByDueDateAsc(ArgumentMatchers.any(),
-                ArgumentMatchers.any(), ArgumentMatchers.any());
+        verify(batchRepository, never()).findInStockByCategoryAndManagerAndDueDateBetweenAsc(ArgumentMatchers.any(),
+                ArgumentMatchers.anyLong(), ArgumentMatchers.any(), ArgumentMatchers.any());
+    }
+
+    private List<BatchBuyerResponseDto> mapToBuyerDto(List<Batch> batches) {
+        return batches.stream().map(BatchBuyerResponseDto::new).collect(Collectors.toList());
+    }
+
+    private List<BatchDueDateResponseDto> mapToDueDateDto(List<Batch> batches) {
+        return batches.stream().map(BatchDueDateResponseDto::new).collect(Collectors.toList());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,126 @@
+package com.mercadolibre.bootcamp.projeto_integrador.service;
+
+import com.mercadolibre.bootcamp.projeto_integrador.dto.InboundOrderJobDto;
+import com.mercadolibre.bootcamp.projeto_integrador.dto.InboundOrderRequestDto;
+import com.mercadolibre.bootcamp.projeto_integrador.dto.InboundOrderResponseDto;
+import com.mercadolibre.bootcamp.projeto_integrador.enums.InboundOrderJobStatus;
+import com.mercadolibre.bootcamp.projeto_integrador.exceptions.MaxSizeException;
+import com.mercadolibre.bootcamp.projeto_integrador.exceptions.NotFoundException;
+import com.mercadolibre.bootcamp.projeto_integrador.exceptions.TooManyRequestsException;
+import com.mercadolibre.bootcamp.projeto_integrador.model.Batch;
+import com.mercadolibre.bootcamp.projeto_integrador.model.Section;
+import com.mercadolibre.bootcamp.projeto_integrador.util.BatchGenerator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InboundOrderJobServiceTest {
+    private static final long MANAGER_ID = 1L;
+
+    @InjectMocks
+    private InboundOrderJobService service;
+
+    @Mock
+    private IInboundOrderService inboundOrderService;
+    @Mock
+    private ISectionService sectionService;
+
+    private InboundOrderRequestDto request;
+
+    @BeforeEach
+    void setup() {
+        request = new InboundOrderRequestDto(1L, List.of(BatchGenerator.newBatchRequestDTO()));
+        when(sectionService.findById(request.getSectionCode())).thenReturn(new Section());
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void submit_returnsQueuedJobAndCreatesOrderInBackground() throws InterruptedException {
+        InboundOrderResponseDto response = new InboundOrderResponseDto(List.of(new Batch()));
+        when(inboundOrderService.create(request, MANAGER_ID)).thenReturn(response);
+
+        InboundOrderJobDto job = service.submit(request, MANAGER_ID);
+
+        assertThat(job.getJobId()).isNotBlank();
+        assertThat(job.getBatches()).isEqualTo(1);
+        InboundOrderJobDto finishedJob = awaitFinished(job.getJobId());
+        assertThat(finishedJob.getStatus()).isEqualTo(InboundOrderJobStatus.DONE);
+        assertThat(finishedJob.getResult()).isSameAs(response);
+        assertThat(finishedJob.getError()).isNull();
+    }
+
+    @Test
+    void submit_reportsError_whenCreateFails() throws InterruptedException {
+        when(inboundOrderService.create(request, MANAGER_ID)).thenThrow(new MaxSizeException("Section"));
+
+        InboundOrderJobDto job = service.submit(request, MANAGER_ID);
+
+        InboundOrderJobDto finishedJob = awaitFinished(job.getJobId());
+        assertThat(finishedJob.getStatus()).isEqualTo(InboundOrderJobStatus.FAILED);
+        assertThat(finishedJob.getResult()).isNull();
+        assertThat(finishedJob.getError().getMessage()).isEqualTo("Section does not have enough space");
+    }
+
+    @Test
+    void submit_throwsTooManyRequests_whenQueueIsFull() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        when(inboundOrderService.create(ArgumentMatchers.any(), ArgumentMatchers.anyLong())).thenAnswer(invocation -> {
+            release.await(1, TimeUnit.MINUTES);
+            return new InboundOrderResponseDto(List.of());
+        });
+
+        for (int i = 0; i < InboundOrderJobService.WORKERS + InboundOrderJobService.QUEUE_CAPACITY; i++)
+            service.submit(request, MANAGER_ID);
+
+        assertThrows(TooManyRequestsException.class, () -> service.submit(request, MANAGER_ID));
+        release.countDown();
+    }
+
+    @Test
+    void findById_throwsNotFound_whenJobBelongsToAnotherManager() throws InterruptedException {
+        when(inboundOrderService.create(request, MANAGER_ID)).thenReturn(new InboundOrderResponseDto(List.of()));
+        InboundOrderJobDto job = service.submit(request, MANAGER_ID);
+        awaitFinished(job.getJobId());
+
+        assertThrows(NotFoundException.class, () -> service.findById(job.getJobId(), MANAGER_ID + 1));
+        assertThrows(NotFoundException.class, () -> service.findById("unknown", MANAGER_ID));
+    }
+
+    @Test
+    void evictFinishedJobs_keepsRecentJobs() throws InterruptedException {
+        when(inboundOrderService.create(request, MANAGER_ID)).thenReturn(new InboundOrderResponseDto(List.of()));
+        InboundOrderJobDto job = service.submit(request, MANAGER_ID);
+        awaitFinished(job.getJobId());
+
+        assertThat(service.evictFinishedJobs()).isZero();
+        assertThat(service.findById(job.getJobId(), MANAGER_ID)).isSameAs(job);
+    }
+
+    private InboundOrderJobDto awaitFinished(String jobId) throws InterruptedException {
+        for (int i = 0; i < 500; i++) {
+            InboundOrderJobDto job = service.findById(jobId, MANAGER_ID);
+            if (job.getStatus() == InboundOrderJobStatus.DONE || job.getStatus() == InboundOrderJobStatus.FAILED)
+                return job;
+            Thread.sleep(10);
+        }
+        throw new AssertionError("Job " + jobId + " did not finish");
+    }
+}
@@ -1,6 +1,7 @@
 package com.mercadolibre.bootcamp.projeto_integrador.service;
 
 import com.mercadolibre.bootcamp.projeto_integrador.dto.ProductResponseDto;
+import com.mercadolibre.bootcamp.projeto_integrador.dto.WarehouseResponseDto;
 import com.mercadolibre.bootcamp.projeto_integrador.exceptions.NotFoundException;
 import com.mercadolibre.bootcamp.projeto_integrador.model.Batch;
 import com.mercadolibre.bootcamp.projeto_integrador.model.Manager;
@@ -16,12 +17,16 @@ import com.mercadolibre.bootcamp.projeto_integrador.util.ProductsGenerator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.mockito.ArgumentCaptor;
 import org.mockito.ArgumentMatchers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import java.time.LocalDate;
-import java.util.Comparator;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import java.util.List;
 import java.util.Optional;
 
@@ -40,6 +45,10 @@ class ProductServiceTest {
     private IProductRepository productRepository;
     @Mock
     private IManagerService managerService;
+    @Mock
+    private IProductStockService productStockService;
+    @Mock
+    private ISectionOwnershipIndex ownershipIndex;
 
     private Product product;
     private List<Batch> batches;
@@ -55,8 +64,9 @@ class ProductServiceTest {
     @Test
     void getWarehouses_returnProduct_whenProductsExists() {
         // Arrange
-        when(productRepository.findById(ArgumentMatchers.anyLong())).thenReturn(Optional.of(product));
-        when(batchRepository.findAllByProduct(ArgumentMatchers.any())).thenReturn(batches);
+        when(productRepository.existsById(ArgumentMatchers.anyLong())).thenReturn(true);
+        when(productStockService.findWarehouses(product.getProductId()))
+                .thenReturn(List.of(new WarehouseResponseDto(1, 50), new WarehouseResponseDto(2, 40)));
         when(managerService.findById(ArgumentMatchers.anyLong())).thenReturn(manager);
 
         // Act
@@ -73,7 +83,7 @@ class ProductServiceTest {
     @Test
     void getWarehouses_returnNotFoundException_whenProductNotExist() {
         // Arrange
-        when(productRepository.findById(ArgumentMatchers.anyLong())).thenReturn(Optional.empty());
+        when(productRepository.existsById(ArgumentMatchers.anyLong())).thenReturn(false);
         when(managerService.findById(ArgumentMatchers.anyLong())).thenReturn(manager);
 
         // Act
@@ -88,9 +98,8 @@ class ProductServiceTest {
     @Test
     void getWarehouses_returnProductWithoutWarehouse_whenProductWithoutBatches() {
         // Arrange
-        when(productRepository.findById(ArgumentMatchers.anyLong())).thenReturn(Optional.of(product));
-        batches.clear();
-        when(batchRepository.findAllByProduct(ArgumentMatchers.any())).thenReturn(batches);
+        when(productRepository.existsById(ArgumentMatchers.anyLong())).thenReturn(true);
+        when(productStockService.findWarehouses(product.getProductId())).thenReturn(List.of());
         when(managerService.findById(ArgumentMatchers.anyLong())).thenReturn(manager);
 
         // Act
@@ -105,11 +114,12 @@ class ProductServiceTest {
     void getProductDetails_returnProductWithBatches_whenValidProduct() {
         // Arrange
         when(productRepository.findById(ArgumentMatchers.anyLong())).thenReturn(Optional.of(product));
-        when(batchRepository.findAllByProduct(ArgumentMatchers.any())).thenReturn(batches);
+        when(batchRepository.findByProductAndManager(ArgumentMatchers.eq(product.getProductId()), ArgumentMatchers.eq(2L),
+                ArgumentMatchers.any(Pageable.class))).thenReturn(new SliceImpl<>(batches));
         when(managerService.findById(ArgumentMatchers.anyLong())).thenReturn(ManagerGenerator.getManagerWithId(2));
 
         // Act
-        ProductDetailsResponseDto foundProduct = service.getProductDetails(product.getProductId(), 2, null);
+        ProductDetailsResponseDto foundProduct = service.getProductDetails(product.getProductId(), 2, null, 0, 100);
 
         // Assert
         assertThat(foundProduct.getProductId()).isNotNull();
@@ -118,6 +128,26 @@ class ProductServiceTest {
         assertEquals(foundProduct.getBatchStock().get(0).getBatchNumber(), batches.get(0).getBatchNumber());
         assertEquals(foundProduct.getBatchStock().get(1).getBatchNumber(), batches.get(1).getBatchNumber());
         assertEquals(foundProduct.getBatchStock().get(2).getBatchNumber(), batches.get(2).getBatchNumber());
+        assertThat(foundProduct.isHasNext()).isFalse();
+    }
+
+    @Test
+    void getProductDetails_returnAllBatchesSorted_whenPageSizeIsNotGiven() {
+        // Arrange
+        when(productRepository.findById(ArgumentMatchers.anyLong())).thenReturn(Optional.of(product));
+        when(batchRepository.findByProductAndManager(ArgumentMatchers.eq(product.getProductId()), ArgumentMatchers.eq(2L),
+                ArgumentMatchers.eq(Sort.by("dueDate", "batchNumber")))).thenReturn(batches);
+        when(managerService.findById(ArgumentMatchers.anyLong())).thenReturn(ManagerGenerator.getManagerWithId(2));
+
+        // Act
+        ProductDetailsResponseDto foundProduct = service.getProductDetails(product.getProductId(), 2, "V");
+
+        // Assert
+        assertEquals(foundProduct.getBatchStock().size(), batches.size());
+        assertEquals(foundProduct.getSize(), batches.size());
+        assertThat(foundProduct.isHasNext()).isFalse();
+        verify(batchRepository, never()).findByProductAndManager(ArgumentMatchers.anyLong(), ArgumentMatchers.anyLong(),
+                ArgumentMatchers.any(Pageable.class));
     }
 
     @Test
@@ -128,23 +158,25 @@ class ProductServiceTest {
 
         // Act
         NotFoundException exception = assertThrows(NotFoundException.class,
-                () -> service.getProductDetails(product.getProductId(), 2, null));
+                () -> service.getProductDetails(product.getProductId(), 2, null, 0, 100));
 
         // Assert
         assertThat(exception.getMessage()).isEqualTo("There is no product with the specified id");
-        verify(batchRepository, never()).findAllByProduct(ArgumentMatchers.any());
+        verify(batchRepository, never()).findByProductAndManager(ArgumentMatchers.anyLong(), ArgumentMatchers.anyLong(),
+                ArgumentMatchers.any(Pageable.class));
     }
 
     @Test
     void getProductDetails_returnEmptyStockException_whenProductWithoutBatchStock() {
         // Arrange
         when(productRepository.findById(ArgumentMatchers.anyLong())).thenReturn(Optional.of(product));
-        when(batchRepository.findAllByProduct(ArgumentMatchers.any())).thenReturn(batches);
+        when(batchRepository.findByProductAndManager(ArgumentMatchers.anyLong(), ArgumentMatchers.anyLong(),
+                ArgumentMatchers.any(Pageable.class))).thenReturn(new SliceImpl<>(List.of()));
         when(managerService.findById(ArgumentMatchers.anyLong())).thenReturn(ManagerGenerator.getManagerWithId(1));
 
         // Act
         EmptyStockException exception = assertThrows(EmptyStockException.class,
-                () -> service.getProductDetails(product.getProductId(), 1, null));
+                () -> service.getProductDetails(product.getProductId(), 1, null, 0, 100));
 
         // Assert
         assertThat(exception.getMessage()).contains("doesn't have stock");
@@ -152,92 +184,71 @@ class ProductServiceTest {
     }
 
     @Test
-    void getProductDetails_returnOrderedByBatchNumber_whenValidProduct() {
+    void getProductDetails_returnEmptyPage_whenPageIsAfterLastBatch() {
         // Arrange
         when(productRepository.findById(ArgumentMatchers.anyLong())).thenReturn(Optional.of(product));
-        when(batchRepository.findAllByProduct(ArgumentMatchers.any())).thenReturn(batches);
+        when(batchRepository.findByProductAndManager(ArgumentMatchers.anyLong(), ArgumentMatchers.anyLong(),
+                ArgumentMatchers.any(Pageable.class))).thenReturn(new SliceImpl<>(List.of()));
         when(managerService.findById(ArgumentMatchers.anyLong())).thenReturn(ManagerGenerator.getManagerWithId(2));
 
-        long maxBatchNumber = batches.stream()
-                .max(Comparator.comparing(Batch::getBatchNumber))
-                .get().getBatchNumber();
-        long minBatchNumber = batches.stream()
-                .min(Comparator.comparing(Batch::getBatchNumber))
-                .get().getBatchNumber();
-
         // Act
-        ProductDetailsResponseDto foundProduct = service.getProductDetails(product.getProductId(), 2, "l");
+        ProductDetailsResponseDto foundProduct = service.getProductDetails(product.getProductId(), 2, null, 3, 100);
 
         // Assert
-        assertThat(foundProduct.getProductId()).isNotNull();
-        assertEquals(foundProduct.getProductId(), product.getProductId());
-        assertEquals(foundProduct.getBatchStock().size(), batches.size());
-        assertEquals(foundProduct.getBatchStock().get(0).getBatchNumber(), minBatchNumber);
-        assertEquals(foundProduct.getBatchStock().get(foundProduct.getBatchStock().size() - 1).getBatchNumber(), maxBatchNumber);
+        assertThat(foundProduct.getBatchStock()).isEmpty();
+        assertThat(foundProduct.getPage()).isEqualTo(3);
+        assertThat(foundProduct.isHasNext()).isFalse();
     }
 
-    @Test
-    void getProductDetails_returnOrderedByCurrentQuantity_whenValidProduct() {
+    @ParameterizedTest
+    @CsvSource({"l, batchNumber", "q, currentQuantity", "v, dueDate", "L, batchNumber"})
+    void getProductDetails_requestSortedPage_whenValidOrderParameter(String orderBy, String property) {
         // Arrange
         when(productRepository.findById(ArgumentMatchers.anyLong())).thenReturn(Optional.of(product));
-        when(batchRepository.findAllByProduct(ArgumentMatchers.any())).thenReturn(batches);
+        when(batchRepository.findByProductAndManager(ArgumentMatchers.anyLong(), ArgumentMatchers.anyLong(),
+                ArgumentMatchers.any(Pageable.class))).thenReturn(new SliceImpl<>(batches));
         when(managerService.findById(ArgumentMatchers.anyLong())).thenReturn(ManagerGenerator.getManagerWithId(2));
-
-        long maxQuantity = batches.stream()
-                .max(Comparator.comparing(Batch::getCurrentQuantity))
-                .get().getCurrentQuantity();
-        long minQuantity = batches.stream()
-                .min(Comparator.comparing(Batch::getCurrentQuantity))
-                .get().getCurrentQuantity();
+        ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
 
         // Act
-        ProductDetailsResponseDto foundProduct = service.getProductDetails(product.getProductId(), 2, "q");
+        service.getProductDetails(product.getProductId(), 2, orderBy, 1, 20);
 
         // Assert
-        assertThat(foundProduct.getProductId()).isNotNull();
-        assertEquals(foundProduct.getProductId(), product.getProductId());
-        assertEquals(foundProduct.getBatchStock().size(), batches.size());
-        assertEquals(foundProduct.getBatchStock().get(0).getCurrentQuantity(), minQuantity);
-        assertEquals(foundProduct.getBatchStock().get(foundProduct.getBatchStock().size() - 1).getCurrentQuantity(), maxQuantity);
+        verify(batchRepository).findByProductAndManager(ArgumentMatchers.eq(product.getProductId()),
+                ArgumentMatchers.eq(2L), pageable.capture());
+        assertThat(pageable.getValue().getPageNumber()).isEqualTo(1);
+        assertThat(pageable.getValue().getPageSize()).isEqualTo(20);
+        assertThat(pageable.getValue().getSort().iterator().next().getProperty()).isEqualTo(property);
+        assertThat(pageable.getValue().getSort().getOrderFor("batchNumber")).isNotNull();
     }
 
     @Test
-    void getProductDetails_returnOrderedByDueDate_whenValidProduct() {
+    void getProductDetails_returnBadRequestException_whenInvalidOrderParameter() {
         // Arrange
-        when(productRepository.findById(ArgumentMatchers.anyLong())).thenReturn(Optional.of(product));
-        when(batchRepository.findAllByProduct(ArgumentMatchers.any())).thenReturn(batches);
-        when(managerService.findById(ArgumentMatchers.anyLong())).thenReturn(ManagerGenerator.getManagerWithId(2));
-
-        LocalDate maxDueDate = batches.stream()
-                .max(Comparator.comparing(Batch::getDueDate))
-                .get().getDueDate();
-        LocalDate minDueDate = batches.stream()
-                .min(Comparator.comparing(Batch::getDueDate))
-                .get().getDueDate();
+        when(managerService.findById(ArgumentMatchers.anyLong())).thenReturn(manager);
 
         // Act
-        ProductDetailsResponseDto foundProduct = service.getProductDetails(product.getProductId(), 2, "v");
+        BadRequestException exception = assertThrows(BadRequestException.class,
+                () -> service.getProductDetails(product.getProductId(), manager.getManagerId(), "AB", 0, 100));
 
         // Assert
-        assertThat(foundProduct.getProductId()).isNotNull();
-        assertEquals(foundProduct.getProductId(), product.getProductId());
-        assertEquals(foundProduct.getBatchStock().size(), batches.size());
-        assertEquals(foundProduct.getBatchStock().get(0).getDueDate(), minDueDate);
-        assertEquals(foundProduct.getBatchStock().get(foundProduct.getBatchStock().size() - 1).getDueDate(), maxDueDate);
+        assertThat(exception.getMessage()).contains("Parâmetro de ordenação inválido");
+        verify(batchRepository, never()).findByProductAndManager(ArgumentMatchers.anyLong(), ArgumentMatchers.anyLong(),
+                ArgumentMatchers.any(Pageable.class));
     }
 
-    @Test
-    void getProductDetails_returnBadRequestException_whenInvalidOrderParameter() {
+    @ParameterizedTest
+    @CsvSource({"-1, 100", "0, 0", "0, 1001"})
+    void getProductDetails_returnBadRequestException_whenInvalidPage(int page, int size) {
         // Arrange
         when(managerService.findById(ArgumentMatchers.anyLong())).thenReturn(manager);
-        when(productRepository.findById(ArgumentMatchers.anyLong())).thenReturn(Optional.of(product));
-        when(batchRepository.findAllByProduct(ArgumentMatchers.any())).thenReturn(batches);
 
         // Act
-        BadRequestException exception = assertThrows(BadRequestException.class,
-                () -> service.getProductDetails(product.getProductId(), manager.getManagerId(), "AB"));
+        assertThrows(BadRequestException.class,
+                () -> service.getProductDetails(product.getProductId(), manager.getManagerId(), null, page, size));
 
         // Assert
-        assertThat(exception.getMessage()).contains("Parâmetro de ordenação inválido");
+        verify(batchRepository, never()).findByProductAndManager(ArgumentMatchers.anyLong(), ArgumentMatchers.anyLong(),
+                ArgumentMatchers.any(Pageable.class));
     }
 }
\ No newline at end of file
@@ -0,0 +1,107 @@
+package com.mercadolibre.bootcamp.projeto_integrador.service;
+
+import com.mercadolibre.bootcamp.projeto_integrador.dto.ReservedPurchaseOrderDto;
+import com.mercadolibre.bootcamp.projeto_integrador.enums.OrderStatus;
+import com.mercadolibre.bootcamp.projeto_integrador.event.PurchaseOrderTouchedEvent;
+import com.mercadolibre.bootcamp.projeto_integrador.repository.IPurchaseOrderRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReservationExpiryWheelTest {
+
+    @InjectMocks
+    private ReservationExpiryWheel reservationExpiry;
+
+    @Mock
+    private IPurchaseOrderRepository purchaseOrderRepository;
+
+    @Test
+    void advance_returnPurchaseOrder_onlyAfterDeadline() {
+        // Arrange
+        LocalDateTime updateDateTime = LocalDateTime.now();
+        reservationExpiry.schedule(1L, updateDateTime);
+        long deadline = toMillis(updateDateTime.plusMinutes(ReservationExpiryWheel.RESERVATION_TIMEOUT_MINUTES));
+
+        // Act
+        List<Long> beforeDeadline = reservationExpiry.advance(deadline - 1000);
+        List<Long> afterDeadline = reservationExpiry.advance(deadline + 1000);
+
+        // Assert
+        assertThat(beforeDeadline).isEmpty();
+        assertThat(afterDeadline).containsExactly(1L);
+        assertThat(reservationExpiry.size()).isZero();
+    }
+
+    @Test
+    void advance_ignoreOldDeadline_whenPurchaseOrderIsTouchedAgain() {
+        // Arrange
+        LocalDateTime firstUpdate = LocalDateTime.now();
+        LocalDateTime secondUpdate = firstUpdate.plusMinutes(5);
+        reservationExpiry.schedule(1L, firstUpdate);
+        reservationExpiry.onPurchaseOrderTouched(new PurchaseOrderTouchedEvent(1L, OrderStatus.OPENED, secondUpdate));
+        long firstDeadline = toMillis(firstUpdate.plusMinutes(ReservationExpiryWheel.RESERVATION_TIMEOUT_MINUTES));
+        long secondDeadline = toMillis(secondUpdate.plusMinutes(ReservationExpiryWheel.RESERVATION_TIMEOUT_MINUTES));
+
+        // Act
+        List<Long> afterFirstDeadline = reservationExpiry.advance(firstDeadline + 1000);
+        List<Long> afterSecondDeadline = reservationExpiry.advance(secondDeadline + 1000);
+
+        // Assert
+        assertThat(afterFirstDeadline).isEmpty();
+        assertThat(afterSecondDeadline).containsExactly(1L);
+    }
+
+    @Test
+    void advance_neverReturnPurchaseOrder_whenClosed() {
+        // Arrange
+        LocalDateTime updateDateTime = LocalDateTime.now();
+        reservationExpiry.schedule(1L, updateDateTime);
+        reservationExpiry.onPurchaseOrderTouched(new PurchaseOrderTouchedEvent(1L, OrderStatus.CLOSED, updateDateTime));
+
+        // Act
+        List<Long> expired = reservationExpiry.advance(
+                toMillis(updateDateTime.plusMinutes(ReservationExpiryWheel.RESERVATION_TIMEOUT_MINUTES + 1)));
+
+        // Assert
+        assertThat(expired).isEmpty();
+    }
+
+    @Test
+    void rebuild_releaseOverduePurchaseOrdersInBoundedBatches() {
+        // Arrange
+        LocalDateTime abandoned = LocalDateTime.now().minusHours(2);
+        when(purchaseOrderRepository.findReservedByOrderStatus(ArgumentMatchers.any()))
+                .thenReturn(LongStream.rangeClosed(1, 150)
+                        .mapToObj(purchaseId -> new ReservedPurchaseOrderDto(purchaseId, abandoned))
+                        .collect(Collectors.toList()));
+        reservationExpiry.rebuild();
+
+        // Act
+        List<Long> firstBatch = reservationExpiry.advance(System.currentTimeMillis());
+        List<Long> secondBatch = reservationExpiry.advance(System.currentTimeMillis());
+        List<Long> thirdBatch = reservationExpiry.advance(System.currentTimeMillis());
+
+        // Assert
+        assertThat(firstBatch).hasSize(100);
+        assertThat(secondBatch).hasSize(50);
+        assertThat(thirdBatch).isEmpty();
+    }
+
+    private long toMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,114 @@
+package com.mercadolibre.bootcamp.projeto_integrador.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mercadolibre.bootcamp.projeto_integrador.dto.BatchBuyerResponseDto;
+import com.mercadolibre.bootcamp.projeto_integrador.event.StockChangedEvent;
+import com.mercadolibre.bootcamp.projeto_integrador.model.Section;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(MockitoExtension.class)
+class ResponseCacheServiceTest {
+
+    @InjectMocks
+    private ResponseCacheService responseCache;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @Spy
+    private StockVersionService stockVersionService = new StockVersionService();
+
+    @Test
+    void getOrSerialize_serializeOnlyOnce_whenSameETag() {
+        // Arrange
+        AtomicInteger calls = new AtomicInteger();
+        String etag = stockVersionService.buildETag(Section.Category.FRESH, 0);
+
+        // Act
+        byte[] first = responseCache.getOrSerialize(etag, () -> List.of(calls.incrementAndGet()));
+        byte[] second = responseCache.getOrSerialize(etag, () -> List.of(calls.incrementAndGet()));
+
+        // Assert
+        assertThat(calls.get()).isEqualTo(1);
+        assertThat(second).isSameAs(first);
+        assertThat(responseCache.getStats().getHits()).isEqualTo(1);
+        assertThat(responseCache.getStats().getMisses()).isEqualTo(1);
+        assertThat(responseCache.getStats().getBytesSaved()).isEqualTo(first.length);
+        assertThat(responseCache.getStats().getHitRate()).isEqualTo(0.5);
+    }
+
+    @Test
+    void onStockChanged_removeOnlyAffectedResponses() {
+        // Arrange
+        String fresh = stockVersionService.buildETag(Section.Category.FRESH, 0);
+        String frozen = stockVersionService.buildETag(Section.Category.FROZEN, 0);
+        String section = stockVersionService.buildETag("section-1", 0);
+        String otherSection = stockVersionService.buildETag("section-10", 0);
+        for (String etag : List.of(fresh, frozen, section, otherSection))
+            responseCache.getOrSerialize(etag, () -> etag);
+        BatchBuyerResponseDto batch = new BatchBuyerResponseDto();
+        batch.setCategory(Section.Category.FRESH);
+
+        // Act
+        responseCache.onStockChanged(new StockChangedEvent(List.of(batch), Set.of(1L)));
+
+        // Assert
+        assertThat(responseCache.getStats().getEntries()).isEqualTo(2);
+        responseCache.getOrSerialize(frozen, () -> frozen);
+        responseCache.getOrSerialize(otherSection, () -> otherSection);
+        assertThat(responseCache.getStats().getHits()).isEqualTo(2);
+    }
+
+    @Test
+    void getOrSerialize_notCache_whenResponseIsTooLarge() {
+        // Arrange
+        AtomicInteger calls = new AtomicInteger();
+        String etag = stockVersionService.buildETag(Section.Category.FRESH, 0);
+        String body = "a".repeat(ResponseCacheService.MAXIMUM_RESPONSE_BYTES);
+
+        // Act
+        responseCache.getOrSerialize(etag, () -> body + calls.incrementAndGet());
+        responseCache.getOrSerialize(etag, () -> body + calls.incrementAndGet());
+
+        // Assert
+        assertThat(calls.get()).isEqualTo(2);
+        assertThat(responseCache.getStats().getEntries()).isZero();
+        assertThat(responseCache.getStats().getCachedBytes()).isZero();
+    }
+
+    @Test
+    void getOrSerialize_evictLeastRecentlyUsed_whenCachedBytesExceedLimit() {
+        // Arrange
+        String body = "a".repeat(ResponseCacheService.MAXIMUM_RESPONSE_BYTES - 2);
+        long fittingResponses = ResponseCacheService.MAXIMUM_CACHED_BYTES / ResponseCacheService.MAXIMUM_RESPONSE_BYTES;
+        String first = stockVersionService.buildETag("section-0", 0);
+        String second = stockVersionService.buildETag("section-1", 0);
+        for (int i = 0; i < fittingResponses; i++) {
+            String etag = stockVersionService.buildETag("section-" + i, 0);
+            responseCache.getOrSerialize(etag, () -> body);
+        }
+        responseCache.getOrSerialize(first, () -> body);
+
+        // Act
+        responseCache.getOrSerialize(stockVersionService.buildETag("section-new", 0), () -> body);
+
+        // Assert
+        assertThat(responseCache.getStats().getEntries()).isEqualTo(fittingResponses);
+        assertThat(responseCache.getStats().getCachedBytes()).isLessThanOrEqualTo(ResponseCacheService.MAXIMUM_CACHED_BYTES);
+        long misses = responseCache.getStats().getMisses();
+        responseCache.getOrSerialize(first, () -> body);
+        responseCache.getOrSerialize(second, () -> body);
+        // A segunda entrada era a menos usada, já que a primeira foi lida de novo antes do limite ser atingido.
+        assertThat(responseCache.getStats().getMisses()).isEqualTo(misses + 1);
+    }
+}
@@ -0,0 +1,82 @@
+package com.mercadolibre.bootcamp.projeto_integrador.service;
+
+import com.mercadolibre.bootcamp.projeto_integrador.dto.SectionOwnerDto;
+import com.mercadolibre.bootcamp.projeto_integrador.event.SectionChangedEvent;
+import com.mercadolibre.bootcamp.projeto_integrador.model.Section;
+import com.mercadolibre.bootcamp.projeto_integrador.repository.ISectionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SectionOwnershipIndexTest {
+
+    @InjectMocks
+    private SectionOwnershipIndex ownershipIndex;
+
+    @Mock
+    private ISectionRepository sectionRepository;
+
+    @BeforeEach
+    void setup() {
+        when(sectionRepository.findAllOwners()).thenReturn(List.of(
+                new SectionOwnerDto(1, 10),
+                new SectionOwnerDto(2, 20),
+                new SectionOwnerDto(4, 10)));
+        ownershipIndex.rebuild();
+    }
+
+    @Test
+    void owns_returnTrue_onlyForSectionOwner() {
+        // Assert
+        assertThat(ownershipIndex.owns(10, 1)).isTrue();
+        assertThat(ownershipIndex.owns(10, 4)).isTrue();
+        assertThat(ownershipIndex.owns(20, 1)).isFalse();
+        assertThat(ownershipIndex.owns(10, 3)).isFalse();
+        assertThat(ownershipIndex.owns(10, 99)).isFalse();
+        assertThat(ownershipIndex.owns(0, 3)).isFalse();
+    }
+
+    @Test
+    void getSectionCodes_returnSortedSectionsOfManager() {
+        // Assert
+        assertThat(ownershipIndex.getSectionCodes(10)).containsExactly(1L, 4L);
+        assertThat(ownershipIndex.getSectionCodes(20)).containsExactly(2L);
+        assertThat(ownershipIndex.getSectionCodes(30)).isEmpty();
+        assertThat(ownershipIndex.hasSections(10)).isTrue();
+        assertThat(ownershipIndex.hasSections(30)).isFalse();
+    }
+
+    @Test
+    void onSectionChanged_addMoveAndRemoveSections() {
+        // Act
+        ownershipIndex.onSectionChanged(new SectionChangedEvent(7, 30, Section.Category.FRESH));
+        ownershipIndex.onSectionChanged(new SectionChangedEvent(1, 20, Section.Category.FRESH));
+        ownershipIndex.onSectionChanged(new SectionChangedEvent(4, 0, Section.Category.FRESH));
+
+        // Assert
+        assertThat(ownershipIndex.owns(30, 7)).isTrue();
+        assertThat(ownershipIndex.owns(20, 1)).isTrue();
+        assertThat(ownershipIndex.owns(10, 1)).isFalse();
+        assertThat(ownershipIndex.hasSections(10)).isFalse();
+        assertThat(ownershipIndex.getSectionCodes(20)).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void update_ignoreSectionCodesAboveLimit() {
+        // Act
+        ownershipIndex.update(SectionOwnershipIndex.MAXIMUM_INDEXED_SECTION_CODE + 1, 30);
+
+        // Assert
+        assertThat(ownershipIndex.owns(30, SectionOwnershipIndex.MAXIMUM_INDEXED_SECTION_CODE + 1)).isFalse();
+        assertThat(ownershipIndex.hasSections(30)).isFalse();
+    }
+}
@@ -0,0 +1,162 @@
+package com.mercadolibre.bootcamp.projeto_integrador.service;
+
+import com.mercadolibre.bootcamp.projeto_integrador.dto.BatchBuyerResponseDto;
+import com.mercadolibre.bootcamp.projeto_integrador.event.StockChangedEvent;
+import com.mercadolibre.bootcamp.projeto_integrador.model.Section;
+import com.mercadolibre.bootcamp.projeto_integrador.repository.IBatchRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SellableStockIndexTest {
+
+    @InjectMocks
+    private SellableStockIndex stockIndex;
+
+    @Mock
+    private IBatchRepository batchRepository;
+
+    private List<BatchBuyerResponseDto> batches;
+
+    @BeforeEach
+    void setup() {
+        batches = new ArrayList<>(List.of(
+                newBatch(1, Section.Category.FRESH, 10, LocalDate.now().plusDays(40)),
+                newBatch(2, Section.Category.FRESH, 10, LocalDate.now().plusDays(25)),
+                newBatch(3, Section.Category.FROZEN, 10, LocalDate.now().plusDays(30)),
+                newBatch(4, Section.Category.CHILLED, 10, LocalDate.now().plusDays(5))));
+        when(batchRepository.findSellable(ArgumentMatchers.any())).thenReturn(batches);
+        stockIndex.rebuild();
+    }
+
+    @Test
+    void findAll_returnBatchesOrderedByDueDate_afterSellableCutoff() {
+        // Act
+        List<BatchBuyerResponseDto> found = stockIndex.findAll();
+
+        // Assert
+        assertThat(found).extracting(BatchBuyerResponseDto::getBatchNumber).containsExactly(2L, 3L, 1L);
+    }
+
+    @Test
+    void findByCategory_returnOnlyBatchesOfCategory() {
+        // Act
+        List<BatchBuyerResponseDto> found = stockIndex.findByCategory(Section.Category.FRESH);
+
+        // Assert
+        assertThat(found).extracting(BatchBuyerResponseDto::getBatchNumber).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void update_removeBatch_whenQuantityIsZero() {
+        // Act
+        stockIndex.update(List.of(newBatch(2, Section.Category.FRESH, 0, LocalDate.now().plusDays(25))));
+
+        // Assert
+        assertThat(stockIndex.findByCategory(Section.Category.FRESH))
+                .extracting(BatchBuyerResponseDto::getBatchNumber).containsExactly(1L);
+    }
+
+    @Test
+    void update_moveBatch_whenDueDateChanges() {
+        // Act
+        stockIndex.update(List.of(newBatch(1, Section.Category.FRESH, 10, LocalDate.now().plusDays(21))));
+
+        // Assert
+        assertThat(stockIndex.findByCategory(Section.Category.FRESH))
+                .extracting(BatchBuyerResponseDto::getBatchNumber).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void onStockChanged_applyDatabaseState_whenEventSnapshotIsStale() {
+        // Arrange
+        when(batchRepository.findBuyerDtoByBatchNumberIn(Set.of(2L)))
+                .thenReturn(List.of(newBatch(2, Section.Category.FRESH, 0, LocalDate.now().plusDays(25))));
+        BatchBuyerResponseDto stale = newBatch(2, Section.Category.FRESH, 7, LocalDate.now().plusDays(25));
+
+        // Act
+        stockIndex.onStockChanged(new StockChangedEvent(List.of(stale), Set.of(1L)));
+
+        // Assert
+        assertThat(stockIndex.contains(2)).isFalse();
+    }
+
+    @Test
+    void refresh_removeBatch_whenNoLongerInDatabase() {
+        // Arrange
+        when(batchRepository.findBuyerDtoByBatchNumberIn(Set.of(1L))).thenReturn(List.of());
+
+        // Act
+        stockIndex.refresh(Set.of(1L));
+
+        // Assert
+        assertThat(stockIndex.findByCategory(Section.Category.FRESH))
+                .extracting(BatchBuyerResponseDto::getBatchNumber).containsExactly(2L);
+    }
+
+    @Test
+    void isReservable_checkDueDateAgainstReservationCutoff() {
+        // Arrange
+        stockIndex.update(List.of(newBatch(6, Section.Category.FRESH, 10, LocalDate.now().plusDays(21))));
+
+        // Assert
+        assertThat(stockIndex.isSellable(6)).isTrue();
+        assertThat(stockIndex.isReservable(6)).isFalse();
+        assertThat(stockIndex.isReservable(2)).isTrue();
+        assertThat(stockIndex.isReservable(4)).isFalse();
+        assertThat(stockIndex.isReservable(99)).isFalse();
+    }
+
+    @Test
+    void advance_retireExpiredBucketsAndSlideCutoff_whenDayRollsOver() {
+        // Act
+        stockIndex.advance(LocalDate.now().plusDays(6));
+
+        // Assert
+        assertThat(stockIndex.contains(4)).isFalse();
+        assertThat(stockIndex.getSellableAfter()).isEqualTo(LocalDate.now().plusDays(26));
+        assertThat(stockIndex.findAll()).extracting(BatchBuyerResponseDto::getBatchNumber).containsExactly(3L, 1L);
+    }
+
+    @Test
+    void findInconsistencies_returnEmptyList_whenIndexMatchesDatabase() {
+        // Act
+        List<Long> divergent = stockIndex.findInconsistencies();
+
+        // Assert
+        assertThat(divergent).isEmpty();
+    }
+
+    @Test
+    void findInconsistencies_returnDivergentBatches_whenDatabaseChangedOutsideServices() {
+        // Arrange
+        batches.set(0, newBatch(1, Section.Category.FRESH, 3, LocalDate.now().plusDays(40)));
+        batches.add(newBatch(5, Section.Category.FROZEN, 10, LocalDate.now().plusDays(50)));
+        batches.remove(3);
+
+        // Act
+        List<Long> divergent = stockIndex.findInconsistencies();
+
+        // Assert
+        assertThat(divergent).containsExactly(1L, 4L, 5L);
+    }
+
+    private BatchBuyerResponseDto newBatch(long batchNumber, Section.Category category, int quantity, LocalDate dueDate) {
+        return new BatchBuyerResponseDto(batchNumber, "Maça", "Nacional", category, quantity, dueDate,
+                new BigDecimal("5.90"));
+    }
+}
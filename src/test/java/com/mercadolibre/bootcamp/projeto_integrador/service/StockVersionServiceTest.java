@@ -0,0 +1,59 @@
+package com.mercadolibre.bootcamp.projeto_integrador.service;
+
+import com.mercadolibre.bootcamp.projeto_integrador.dto.BatchBuyerResponseDto;
+import com.mercadolibre.bootcamp.projeto_integrador.event.SectionChangedEvent;
+import com.mercadolibre.bootcamp.projeto_integrador.event.StockChangedEvent;
+import com.mercadolibre.bootcamp.projeto_integrador.model.Section;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StockVersionServiceTest {
+
+    private final StockVersionService stockVersionService = new StockVersionService();
+
+    @Test
+    void onStockChanged_incrementOnlyAffectedVersions() {
+        // Arrange
+        BatchBuyerResponseDto batch = new BatchBuyerResponseDto();
+        batch.setCategory(Section.Category.FRESH);
+
+        // Act
+        stockVersionService.onStockChanged(new StockChangedEvent(List.of(batch), Set.of(1L)));
+
+        // Assert
+        assertThat(stockVersionService.getVersion()).isEqualTo(1);
+        assertThat(stockVersionService.getCategoryVersion(Section.Category.FRESH)).isEqualTo(1);
+        assertThat(stockVersionService.getCategoryVersion(Section.Category.FROZEN)).isZero();
+        assertThat(stockVersionService.getSectionVersion(1L)).isEqualTo(1);
+        assertThat(stockVersionService.getSectionVersion(2L)).isZero();
+    }
+
+    @Test
+    void onSectionChanged_incrementSectionAndCategoryVersions() {
+        // Act
+        stockVersionService.onSectionChanged(new SectionChangedEvent(1L, 2L, Section.Category.FROZEN));
+
+        // Assert
+        assertThat(stockVersionService.getSectionVersion(1L)).isEqualTo(1);
+        assertThat(stockVersionService.getCategoryVersion(Section.Category.FROZEN)).isEqualTo(1);
+        assertThat(stockVersionService.getCategoryVersion(Section.Category.FRESH)).isZero();
+        assertThat(stockVersionService.getVersion()).isZero();
+    }
+
+    @Test
+    void buildETag_changeAfterInvalidateAll() {
+        // Arrange
+        String etag = stockVersionService.buildETag("all", stockVersionService.getVersion());
+
+        // Act
+        stockVersionService.invalidateAll();
+
+        // Assert
+        assertThat(etag).startsWith("\"").endsWith("\"");
+        assertThat(stockVersionService.buildETag("all", stockVersionService.getVersion())).isNotEqualTo(etag);
+    }
+}